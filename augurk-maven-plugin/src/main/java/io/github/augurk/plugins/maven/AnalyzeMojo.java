@@ -16,8 +16,13 @@
 
 package io.github.augurk.plugins.maven;
 
+import java.io.File;
+import java.util.Set;
+
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
 import io.github.augurk.javaanalyzer.core.options.JavaVersion;
+import io.github.augurk.javaanalyzer.core.options.MetricsFormat;
+import io.github.augurk.javaanalyzer.core.options.ReportLayout;
 import io.github.augurk.plugins.maven.bootstrap.JavaAnalyzerBuilder;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -32,9 +37,12 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
  */
 @Mojo(name = "analyze",
     defaultPhase = LifecyclePhase.PROCESS_TEST_SOURCES,
-    requiresDependencyResolution = ResolutionScope.TEST)
+    requiresDependencyResolution = ResolutionScope.TEST,
+    threadSafe = true)
 @Execute(phase = LifecyclePhase.TEST_COMPILE)
 public class AnalyzeMojo extends AbstractAugurkMojo {
+    private static final String INCREMENTAL_STATE_FILE = "augurk/analyzer.state";
+
     /**
      * URL of the Augurk instance the analysis results are reported to.
      */
@@ -55,6 +63,121 @@ public class AnalyzeMojo extends AbstractAugurkMojo {
     @Parameter(property = "reportToConsole", defaultValue = "false")
     private boolean reportToConsole;
 
+    /**
+     * File the analysis results are written to in the binary report format, relative to the build directory. Defaults
+     * to none, which does not write a report file.
+     */
+    @Parameter(property = "augurkReportFile")
+    private String reportFile;
+
+    /**
+     * Number of worker threads used to analyze the entry points. Defaults to 1, which analyzes sequentially.
+     */
+    @Parameter(property = "augurkWorkers", defaultValue = "1")
+    private int workers;
+
+    /**
+     * Set to true to only analyze the entry points affected by changes since the previous analysis. The analysis
+     * state is stored in the build directory. Defaults to false.
+     */
+    @Parameter(property = "augurkIncremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Set to true to compress the reports posted to Augurk using gzip. Defaults to false.
+     */
+    @Parameter(property = "augurkCompress", defaultValue = "false")
+    private boolean compress;
+
+    /**
+     * Set to true to post reports to Augurk using chunked transfer encoding, which streams a report while it is
+     * being serialized. Defaults to false.
+     */
+    @Parameter(property = "augurkChunked", defaultValue = "false")
+    private boolean chunked;
+
+    /**
+     * Maximum number of root invocations posted to Augurk in a single request. Defaults to 0, which posts the
+     * complete report in one request.
+     */
+    @Parameter(property = "augurkBatchSize", defaultValue = "0")
+    private int batchSize;
+
+    /**
+     * Names of the directories that are not searched for source files, at any depth. Defaults to target,
+     * node_modules and .git.
+     */
+    @Parameter(property = "augurkExcludedDirectories")
+    private String[] excludedDirectories;
+
+    /**
+     * Maximum depth of the invocation trees. Deeper invocations are left out and the invocations they are made from
+     * are marked as truncated. Defaults to 0, which does not limit the depth.
+     */
+    @Parameter(property = "augurkMaxDepth", defaultValue = "0")
+    private int maxDepth;
+
+    /**
+     * Maximum number of invocations collected for a single entry point. The analysis of an entry point is cut off
+     * when it is exceeded. Defaults to 0, which does not limit the number of invocations.
+     */
+    @Parameter(property = "augurkMaxInvocations", defaultValue = "0")
+    private int maxInvocations;
+
+    /**
+     * Time budget in milliseconds for the analysis of a single entry point. The analysis of an entry point is cut off
+     * when it is exceeded. Defaults to 0, which does not limit the time.
+     */
+    @Parameter(property = "augurkRootTimeBudget", defaultValue = "0")
+    private long rootTimeBudget;
+
+    /**
+     * Set to false to analyze the invocations of a method every time it is invoked, instead of reusing its invocation
+     * subtree when it is invoked again in an equivalent context. Defaults to true.
+     */
+    @Parameter(property = "augurkMemoizeSubtrees", defaultValue = "true")
+    private boolean memoizeSubtrees;
+
+    /**
+     * Maximum number of invocations kept by the reused invocation subtrees, of which the least recently used are
+     * dropped when it is exceeded. Defaults to 100000, 0 does not limit the number of invocations.
+     */
+    @Parameter(property = "augurkSubtreeCacheSize", defaultValue = "100000")
+    private int subtreeCacheSize;
+
+    /**
+     * Set to true to keep finished invocation trees in a compact representation, which reduces the memory needed for
+     * projects with large invocation trees. Defaults to false.
+     */
+    @Parameter(property = "augurkCompactTrees", defaultValue = "false")
+    private boolean compactTrees;
+
+    /**
+     * Layout of the reported invocation trees, either TREE or DAG. With DAG identical subtrees are shared in memory
+     * and reported once. Defaults to TREE.
+     */
+    @Parameter(property = "augurkReportLayout", defaultValue = "TREE")
+    private ReportLayout reportLayout;
+
+    /**
+     * File the metrics of the analysis are written to, relative to the build directory. Defaults to none, which
+     * only logs a summary of the metrics.
+     */
+    @Parameter(property = "augurkMetricsFile")
+    private String metricsFile;
+
+    /**
+     * Format of the metrics file, either JSON or PROMETHEUS. Defaults to JSON.
+     */
+    @Parameter(property = "augurkMetricsFormat", defaultValue = "JSON")
+    private MetricsFormat metricsFormat;
+
+    /**
+     * The build directory of the project.
+     */
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    private File buildDirectory;
+
     @Override
     protected void doExecute() throws MojoExecutionException, MojoFailureException {
         logger.info(LOG_HEADER_SEPARATOR);
@@ -70,18 +193,48 @@ public class AnalyzeMojo extends AbstractAugurkMojo {
 
         JavaAnalyzerBuilder builder = new JavaAnalyzerBuilder(logger, getProject(), options);
         configureReporters(builder);
+        if (excludedDirectories != null) builder.withExcludedDirectories(Set.of(excludedDirectories));
         builder.build().run();
     }
 
     private AnalyzeOptions createAnalyzeOptions(ClassLoader classLoader) throws MojoExecutionException {
         JavaVersion version = getJavaVersion();
         var options = new AnalyzeOptions(classLoader, version, getProjectName(), getProjectVersion(), augurkUrl);
+        options.setWorkerCount(workers);
+        if (incremental) options.setIncrementalStateFile(new File(buildDirectory, INCREMENTAL_STATE_FILE));
+        options.setCompressReport(compress);
+        options.setChunkedReportUpload(chunked);
+        options.setReportBatchSize(batchSize);
+        options.setMaxInvocationDepth(maxDepth);
+        options.setMaxInvocationCount(maxInvocations);
+        options.setRootTimeBudgetMillis(rootTimeBudget);
+        options.setMemoizeSubtrees(memoizeSubtrees);
+        options.setSubtreeCacheSize(subtreeCacheSize);
+        options.setCompactInvocationTrees(compactTrees);
+        options.setReportLayout(reportLayout);
+        if (metricsFile != null) options.setMetricsFile(new File(buildDirectory, metricsFile));
+        options.setMetricsFormat(metricsFormat);
 
         logProperty("Project name", getProjectName());
         logProperty("Project version", getProjectVersion());
         logProperty("Project root", getProjectRoot().getPath());
         logProperty("Compiler target", getCompilerTarget());
         logProperty("Augurk instance", augurkUrl);
+        logProperty("Workers", String.valueOf(workers));
+        logProperty("Incremental", String.valueOf(incremental));
+        logProperty("Compress report", String.valueOf(compress));
+        logProperty("Chunked upload", String.valueOf(chunked));
+        logProperty("Report batch size", String.valueOf(batchSize));
+        if (maxDepth > 0) logProperty("Maximum depth", String.valueOf(maxDepth));
+        if (maxInvocations > 0) logProperty("Maximum invocations", String.valueOf(maxInvocations));
+        if (rootTimeBudget > 0) logProperty("Entry point time budget", rootTimeBudget + " ms");
+        logProperty("Memoize subtrees", String.valueOf(memoizeSubtrees));
+        if (memoizeSubtrees) logProperty("Subtree cache size", String.valueOf(subtreeCacheSize));
+        logProperty("Compact trees", String.valueOf(compactTrees));
+        logProperty("Report layout", String.valueOf(reportLayout));
+        if (reportFile != null) logProperty("Report file", reportFile);
+        if (metricsFile != null) logProperty("Metrics file", metricsFile + " (" + metricsFormat + ")");
+        if (excludedDirectories != null) logProperty("Excluded directories", String.join(", ", excludedDirectories));
 
         return options;
     }
@@ -99,5 +252,6 @@ public class AnalyzeMojo extends AbstractAugurkMojo {
     private void configureReporters(JavaAnalyzerBuilder builder) {
         if (reportToConsole || augurkUrl == null) builder.withConsoleReporter();
         if (reportToAugurk) builder.withAugurkReporter();
+        if (reportFile != null) builder.withBinaryReporter(new File(buildDirectory, reportFile));
     }
 }
@@ -16,7 +16,9 @@
 
 package io.github.augurk.plugins.maven.bootstrap;
 
+import java.io.File;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 import io.github.augurk.javaanalyzer.core.Analyzer;
@@ -24,6 +26,7 @@ import io.github.augurk.javaanalyzer.core.AnalyzerContext;
 import io.github.augurk.javaanalyzer.core.FileManager;
 import io.github.augurk.javaanalyzer.core.Reporter;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.reports.BinaryFileReporter;
 import io.github.augurk.javaanalyzer.filemanager.FileManagerImpl;
 import io.github.augurk.javaanalyzer.reporters.augurk.AugurkAgent;
 import io.github.augurk.javaanalyzer.reporters.augurk.AugurkReporter;
@@ -37,6 +40,8 @@ public class JavaAnalyzerBuilder {
     private final AnalyzeOptions options;
     private final List<Reporter> reporters;
 
+    private Set<String> excludedDirectories = FileManagerImpl.DEFAULT_EXCLUDED_DIRECTORIES;
+
     public JavaAnalyzerBuilder(Log logger, MavenProject project, AnalyzeOptions options) {
         this.logger = logger;
         this.project = project;
@@ -56,10 +61,20 @@ public class JavaAnalyzerBuilder {
             return;
         }
 
-        AugurkAgent agent = new AugurkAgent(options.getAugurkURL());
+        boolean compress = options.isCompressReport();
+        boolean chunked = options.isChunkedReportUpload();
+        AugurkAgent agent = new AugurkAgent(options.getAugurkURL(), compress, chunked);
         reporters.add(new AugurkReporter(options, agent));
     }
 
+    public void withBinaryReporter(File reportFile) {
+        reporters.add(new BinaryFileReporter(reportFile));
+    }
+
+    public void withExcludedDirectories(Set<String> excludedDirectories) {
+        this.excludedDirectories = excludedDirectories;
+    }
+
     public JavaAnalyzer build() {
         FileManager fileManager = createFileManager();
 
@@ -71,6 +86,6 @@ public class JavaAnalyzerBuilder {
     }
 
     private FileManager createFileManager() {
-        return new FileManagerImpl(project.getBasedir());
+        return new FileManagerImpl(project.getBasedir(), excludedDirectories);
     }
 }
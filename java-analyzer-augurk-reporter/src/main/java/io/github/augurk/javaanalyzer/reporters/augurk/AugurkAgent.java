@@ -16,30 +16,91 @@
 
 package io.github.augurk.javaanalyzer.reporters.augurk;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.http.HttpStatus;
 import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentProducer;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.EntityTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class AugurkAgent {
     private static final String REPORT_ENDPOINT = "%s/api/v2/products/%s/versions/%s/analysis/reports";
+    private static final String GZIP_ENCODING = "gzip";
 
     private final Logger logger = LoggerFactory.getLogger(AugurkAgent.class);
     private final String baseURL;
+    private final boolean compress;
+    private final boolean chunked;
 
     public AugurkAgent(String baseURL) {
+        this(baseURL, false, false);
+    }
+
+    /**
+     * Create an agent posting reports to an Augurk instance.
+     *
+     * @param baseURL URL of the Augurk instance
+     * @param compress true to compress the reports using gzip
+     * @param chunked true to stream the reports using chunked transfer encoding, instead of serializing them up front
+     */
+    public AugurkAgent(String baseURL, boolean compress, boolean chunked) {
         this.baseURL = baseURL;
+        this.compress = compress;
+        this.chunked = chunked;
     }
 
-    public int postReport(String analyzedProject, String version, String body) {
+    /**
+     * Post a report to Augurk. With chunked transfer encoding the body is written straight to the request while it
+     * is being sent, otherwise it is written to a buffer first, which is sent as is to provide the content length.
+     *
+     * @param analyzedProject name of the analyzed project
+     * @param version version of the analyzed project
+     * @param body producer writing the JSON report as UTF-8
+     * @return HTTP status code of the response
+     */
+    public int postReport(String analyzedProject, String version, ContentProducer body) {
         String requestURL = String.format(REPORT_ENDPOINT, baseURL, analyzedProject, version);
-        StringEntity payload = new StringEntity(body, ContentType.APPLICATION_JSON);
-        Request request = Request.Post(requestURL).body(payload);
-        return doRequest(request);
+
+        try {
+            Request request = Request.Post(requestURL).body(createPayload(body));
+            return doRequest(request);
+        } catch (IOException e) {
+            logger.error("Unable to write report", e);
+        }
+
+        return HttpStatus.SC_SERVICE_UNAVAILABLE;
+    }
+
+    private AbstractHttpEntity createPayload(ContentProducer body) throws IOException {
+        ContentProducer producer = compress ? compressed(body) : body;
+        AbstractHttpEntity payload = chunked ? new EntityTemplate(producer) : buffered(producer);
+
+        payload.setContentType(ContentType.APPLICATION_JSON.toString());
+        payload.setChunked(chunked);
+        if (compress) payload.setContentEncoding(GZIP_ENCODING);
+
+        return payload;
+    }
+
+    private static ContentProducer compressed(ContentProducer body) {
+        return output -> {
+            var compressedOutput = new GZIPOutputStream(output);
+            body.writeTo(compressedOutput);
+            compressedOutput.finish();
+        };
+    }
+
+    private static AbstractHttpEntity buffered(ContentProducer producer) throws IOException {
+        var output = new PayloadBuffer();
+        producer.writeTo(output);
+        return output.toEntity();
     }
 
     private int doRequest(Request request) {
@@ -54,4 +115,13 @@ public class AugurkAgent {
 
         return HttpStatus.SC_SERVICE_UNAVAILABLE;
     }
+
+    /**
+     * Buffer of a report that is sent without copying it, as {@link ByteArrayOutputStream#toByteArray()} would.
+     */
+    private static class PayloadBuffer extends ByteArrayOutputStream {
+        private ByteArrayEntity toEntity() {
+            return new ByteArrayEntity(buf, 0, count);
+        }
+    }
 }
@@ -16,39 +16,38 @@
 
 package io.github.augurk.javaanalyzer.reporters.augurk;
 
-import java.util.Deque;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
-import io.github.augurk.javaanalyzer.core.Reporter;
+import io.github.augurk.javaanalyzer.core.StreamingReporter;
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
 import io.github.augurk.javaanalyzer.core.domain.Invocation;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import io.github.augurk.javaanalyzer.core.options.ReportLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class AugurkReporter implements Reporter {
+/**
+ * Reporter that posts the analysis results to Augurk. When a batch size is set, each batch of root invocations is
+ * posted as soon as it is complete, so the reported invocation trees can be released during the analysis. Otherwise
+ * the root invocations are collected and posted as a single report once the analysis has finished.
+ */
+public class AugurkReporter implements StreamingReporter {
     private static final Logger logger = LoggerFactory.getLogger(AugurkReporter.class);
     private static final String LOG_HEADER_SEPARATOR = "-".repeat(72);
 
-    private static final String ANALYZED_PROJECT = "AnalyzedProject";
-    private static final String VERSION = "Version";
-    private static final String TIMESTAMP = "Timestamp";
-
-    private static final String ROOT_INVOCATIONS = "RootInvocations";
-    private static final String INVOCATIONS = "Invocations";
-    private static final String INVOCATION_KIND = "Kind";
-    private static final String INVOCATION_SIGNATURE = "Signature";
-
-    private static final String REGULAR_EXPRESSIONS = "RegularExpressions";
-    private static final String INTERFACE_DEFINITIONS = "InterfaceDefinitions";
-    private static final String AUTOMATION_TARGETS = "AutomationTargets";
-    private static final String LOCAL = "Local";
-
     private final AnalyzeOptions options;
     private AugurkAgent augurkAgent;
 
+    private AnalysisReport report;
+    private List<Invocation> rootInvocations = new ArrayList<>();
+    private int postedRootInvocations;
+
     public AugurkReporter(AnalyzeOptions options, AugurkAgent augurkAgent) {
         logger.info("Add adapter: {}", this.getClass().getCanonicalName());
         this.options = options;
@@ -56,62 +55,71 @@ public class AugurkReporter implements Reporter {
     }
 
     @Override
-    public void report(AnalysisReport report) {
+    public void beginReport(AnalysisReport report) {
         logger.info(LOG_HEADER_SEPARATOR);
         logger.info("AUGURK REPORTER, project: {}, version: {}", report.getAnalyzedProject(), report.getVersion());
         logger.info(LOG_HEADER_SEPARATOR);
         logger.info("Report to Augurk instance on: {}", options.getAugurkURL());
 
-        var jsonReport = new JSONObject();
-        jsonReport.put(ANALYZED_PROJECT, report.getAnalyzedProject());
-        jsonReport.put(VERSION, report.getVersion());
-        jsonReport.put(TIMESTAMP, report.getTimestamp());
-        mapRootInvocations(report.getRootInvocations(), jsonReport);
-
-        String analyzedProject = report.getAnalyzedProject();
-        String version = report.getVersion();
-        String body = jsonReport.toString();
-        var statusCode = augurkAgent.postReport(analyzedProject, version, body);
-
-        logger.info("Done reporting to Augurk, received status code {}", statusCode);
+        this.report = report;
+        this.rootInvocations = new ArrayList<>();
+        this.postedRootInvocations = 0;
     }
 
-    private void mapRootInvocations(List<Invocation> rootInvocations, JSONObject jObject) {
-        for (var rootInvocation : rootInvocations) {
-            var invocationJSON = new JSONObject();
-
-            invocationJSON.put(INVOCATION_KIND, rootInvocation.getKind().toString());
-            invocationJSON.put(INVOCATION_SIGNATURE, rootInvocation.getSignature());
-            invocationJSON.put(REGULAR_EXPRESSIONS, rootInvocation.getRegularExpression());
-
-            if (rootInvocation.getAutomationTargets().length != 0) {
-                invocationJSON.put(AUTOMATION_TARGETS, rootInvocation.getAutomationTargets());
-            }
+    @Override
+    public void reportRootInvocation(Invocation rootInvocation) {
+        rootInvocations.add(rootInvocation);
 
-            jObject.append(ROOT_INVOCATIONS, invocationJSON);
-            mapInvocations(rootInvocation.getInvocations(), invocationJSON);
+        int batchSize = options.getReportBatchSize();
+        if (batchSize > 0 && rootInvocations.size() >= batchSize) {
+            postBatch();
         }
     }
 
-    private void mapInvocations(Deque<Invocation> invocations, JSONObject jObject) {
-        for (var invocation : invocations) {
-            var invocationJSON = new JSONObject();
+    @Override
+    public void endReport(AnalysisReport report) {
+        if (postedRootInvocations == 0) {
+            var statusCode = postReport(report, rootInvocations);
+            rootInvocations = new ArrayList<>();
+            logger.info("Done reporting to Augurk, received status code {}", statusCode);
+            return;
+        }
+
+        if (!rootInvocations.isEmpty()) postBatch();
+        logger.info("Done reporting to Augurk, reported {} root invocations", postedRootInvocations);
+    }
 
-            invocationJSON.put(INVOCATION_KIND, invocation.getKind().toString());
+    /**
+     * Post the collected root invocations as the next batch, and release them once they have been posted.
+     */
+    private void postBatch() {
+        int from = postedRootInvocations + 1;
+        var statusCode = postReport(report, rootInvocations);
+
+        postedRootInvocations += rootInvocations.size();
+        rootInvocations = new ArrayList<>();
+        logger.info("Reported root invocations {} to {} to Augurk, received status code {}", from,
+            postedRootInvocations, statusCode);
+    }
 
-            if (invocation.getSignature() != null) {
-                invocationJSON.put(INVOCATION_SIGNATURE, invocation.getSignature());
-            }
+    private int postReport(AnalysisReport report, List<Invocation> rootInvocations) {
+        String analyzedProject = report.getAnalyzedProject();
+        String version = report.getVersion();
+        return augurkAgent.postReport(analyzedProject, version, output -> writeReport(report, rootInvocations, output));
+    }
 
-            invocationJSON.put(INTERFACE_DEFINITIONS, invocation.getInterfaceDefinitions());
-            invocationJSON.put(LOCAL, invocation.isLocal());
+    private void writeReport(AnalysisReport report, List<Invocation> rootInvocations, OutputStream output)
+        throws IOException {
 
-            if (invocation.getInvocations().isEmpty()) {
-                invocationJSON.put(INVOCATIONS, new JSONArray());
-            }
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        var reportWriter = new JsonReportWriter(writer);
 
-            jObject.append(INVOCATIONS, invocationJSON);
-            mapInvocations(invocation.getInvocations(), invocationJSON);
+        if (options.getReportLayout() == ReportLayout.DAG) {
+            reportWriter.writeGraph(report, rootInvocations);
+        } else {
+            reportWriter.write(report, rootInvocations);
         }
+
+        writer.flush();
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.reporters.augurk;
+
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.ANALYZED_PROJECT;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.AUTOMATION_TARGETS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.INTERFACE_DEFINITIONS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.INVOCATIONS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.INVOCATION_ID;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.INVOCATION_KIND;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.INVOCATION_SIGNATURE;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.LOCAL;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.REGULAR_EXPRESSIONS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.ROOT_INVOCATIONS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.SHARED_INVOCATIONS;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.TIMESTAMP;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.TRUNCATED;
+import static io.github.augurk.javaanalyzer.reporters.augurk.JsonReportWriter.VERSION;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Converts reports in the graph layout back to the tree layout, for readers of reports that do not understand shared
+ * invocations.
+ */
+public final class JsonReportGraph {
+    private JsonReportGraph() {
+    }
+
+    /**
+     * Expand a report in the graph layout into a report in the tree layout, repeating every shared invocation where
+     * it is referred to. Repeated invocations are the same objects in the expanded report, so the expanded report
+     * should not be modified.
+     *
+     * @param report report in the graph layout
+     * @return report in the tree layout
+     * @throws JSONException when the report refers to an invocation that has not been defined before
+     */
+    public static JSONObject expand(JSONObject report) {
+        Map<Integer, JSONObject> invocations = new HashMap<>();
+        JSONArray sharedInvocations = report.optJSONArray(SHARED_INVOCATIONS);
+
+        if (sharedInvocations != null) {
+            for (int i = 0; i < sharedInvocations.length(); i++) {
+                JSONObject sharedInvocation = sharedInvocations.getJSONObject(i);
+
+                var invocation = new JSONObject();
+                copy(sharedInvocation, invocation, INVOCATION_KIND, INVOCATION_SIGNATURE, INTERFACE_DEFINITIONS, LOCAL,
+                    TRUNCATED);
+                invocation.put(INVOCATIONS, resolve(sharedInvocation.getJSONArray(INVOCATIONS), invocations));
+                invocations.put(sharedInvocation.getInt(INVOCATION_ID), invocation);
+            }
+        }
+
+        var expanded = new JSONObject();
+        copy(report, expanded, ANALYZED_PROJECT, VERSION, TIMESTAMP);
+
+        JSONArray rootInvocations = report.optJSONArray(ROOT_INVOCATIONS);
+        if (rootInvocations == null) return expanded;
+
+        for (int i = 0; i < rootInvocations.length(); i++) {
+            JSONObject rootInvocation = rootInvocations.getJSONObject(i);
+
+            var expandedRootInvocation = new JSONObject();
+            copy(rootInvocation, expandedRootInvocation, INVOCATION_KIND, INVOCATION_SIGNATURE, REGULAR_EXPRESSIONS,
+                AUTOMATION_TARGETS, TRUNCATED);
+
+            JSONArray references = rootInvocation.optJSONArray(INVOCATIONS);
+            if (references != null) {
+                expandedRootInvocation.put(INVOCATIONS, resolve(references, invocations));
+            }
+
+            expanded.append(ROOT_INVOCATIONS, expandedRootInvocation);
+        }
+
+        return expanded;
+    }
+
+    private static JSONArray resolve(JSONArray references, Map<Integer, JSONObject> invocations) {
+        var resolved = new JSONArray();
+
+        for (int i = 0; i < references.length(); i++) {
+            JSONObject invocation = invocations.get(references.getInt(i));
+            if (invocation == null) {
+                throw new JSONException("Invocation " + references.getInt(i) + " has not been defined");
+            }
+
+            resolved.put(invocation);
+        }
+
+        return resolved;
+    }
+
+    private static void copy(JSONObject from, JSONObject to, String... names) {
+        for (String name : names) {
+            if (from.has(name)) to.put(name, from.get(name));
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.reporters.augurk;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationGraph;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+import org.json.JSONObject;
+
+/**
+ * Writes an analysis report as JSON while walking the invocation trees, without building a JSON document in memory.
+ * The output is identical to the JSON document the report used to be mapped to. That document keeps its members in a
+ * {@link HashMap}, so members are written in the iteration order of a hash map the members have been put into in the
+ * same order. Absent values are omitted, like a document does for null values, and strings are quoted by the
+ * document's own quoting. Invocations are read through {@link InvocationView views}, so invocation trees in the
+ * compact representation are written without copying them.
+ * <p>
+ * In the {@link #writeGraph(AnalysisReport, List) graph layout} identical subtrees of the root invocations are
+ * written once, as shared invocations that refer to the invocations made from them by ID. Root invocations refer to
+ * shared invocations the same way. A shared invocation only refers to shared invocations with a lower ID, so a reader
+ * can resolve them in a single pass; {@link JsonReportGraph#expand(JSONObject)} turns such a report back into the
+ * tree layout.
+ */
+class JsonReportWriter {
+    static final String ANALYZED_PROJECT = "AnalyzedProject";
+    static final String VERSION = "Version";
+    static final String TIMESTAMP = "Timestamp";
+
+    static final String SHARED_INVOCATIONS = "SharedInvocations";
+    static final String ROOT_INVOCATIONS = "RootInvocations";
+    static final String INVOCATIONS = "Invocations";
+    static final String INVOCATION_ID = "Id";
+    static final String INVOCATION_KIND = "Kind";
+    static final String INVOCATION_SIGNATURE = "Signature";
+
+    static final String REGULAR_EXPRESSIONS = "RegularExpressions";
+    static final String INTERFACE_DEFINITIONS = "InterfaceDefinitions";
+    static final String AUTOMATION_TARGETS = "AutomationTargets";
+    static final String LOCAL = "Local";
+    static final String TRUNCATED = "Truncated";
+
+    private static final List<String> REPORT_MEMBERS =
+        memberOrder(ANALYZED_PROJECT, VERSION, TIMESTAMP, ROOT_INVOCATIONS);
+    private static final List<String> GRAPH_REPORT_MEMBERS =
+        memberOrder(ANALYZED_PROJECT, VERSION, TIMESTAMP, SHARED_INVOCATIONS, ROOT_INVOCATIONS);
+    private static final List<String> ROOT_INVOCATION_MEMBERS =
+        memberOrder(INVOCATION_KIND, INVOCATION_SIGNATURE, REGULAR_EXPRESSIONS, AUTOMATION_TARGETS, TRUNCATED,
+            INVOCATIONS);
+    private static final List<String> INVOCATION_MEMBERS =
+        memberOrder(INVOCATION_KIND, INVOCATION_SIGNATURE, INTERFACE_DEFINITIONS, LOCAL, TRUNCATED, INVOCATIONS);
+    private static final List<String> SHARED_INVOCATION_MEMBERS =
+        memberOrder(INVOCATION_ID, INVOCATION_KIND, INVOCATION_SIGNATURE, INTERFACE_DEFINITIONS, LOCAL, TRUNCATED,
+            INVOCATIONS);
+
+    private final Writer writer;
+    private boolean firstMember;
+    private InvocationGraph graph;  // only while writing the graph layout
+
+    JsonReportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void write(AnalysisReport report) throws IOException {
+        write(report, report.getRootInvocations());
+    }
+
+    /**
+     * Write the report with only the provided root invocations, used to post a report in batches.
+     */
+    void write(AnalysisReport report, List<Invocation> rootInvocations) throws IOException {
+        writeReport(REPORT_MEMBERS, report, rootInvocations);
+    }
+
+    /**
+     * Write the report with only the provided root invocations in the graph layout, in which identical subtrees are
+     * written once.
+     */
+    void writeGraph(AnalysisReport report, List<Invocation> rootInvocations) throws IOException {
+        graph = new InvocationGraph();
+
+        try {
+            List<Invocation> graphInvocations = new ArrayList<>(rootInvocations.size());
+            for (Invocation rootInvocation : rootInvocations) {
+                graphInvocations.add(graph.add(rootInvocation));
+            }
+
+            writeReport(GRAPH_REPORT_MEMBERS, report, graphInvocations);
+        } finally {
+            graph = null;
+        }
+    }
+
+    private void writeReport(List<String> members, AnalysisReport report, List<Invocation> rootInvocations)
+        throws IOException {
+
+        beginObject();
+
+        for (String member : members) {
+            switch (member) {
+                case ANALYZED_PROJECT:
+                    writeMember(member, report.getAnalyzedProject());
+                    break;
+                case VERSION:
+                    writeMember(member, report.getVersion());
+                    break;
+                case TIMESTAMP:
+                    writeMember(member, report.getTimestamp());
+                    break;
+                case SHARED_INVOCATIONS:
+                    writeSharedInvocations(graph.getNodes());
+                    break;
+                default:
+                    writeRootInvocations(rootInvocations);
+            }
+        }
+
+        endObject();
+    }
+
+    private void writeRootInvocations(List<Invocation> rootInvocations) throws IOException {
+        if (rootInvocations.isEmpty()) return;
+
+        writeName(ROOT_INVOCATIONS);
+        writer.write('[');
+
+        for (int i = 0; i < rootInvocations.size(); i++) {
+            if (i > 0) writer.write(',');
+            writeRootInvocation(InvocationView.of(rootInvocations.get(i)));
+        }
+
+        writer.write(']');
+    }
+
+    private void writeSharedInvocations(List<InvocationGraph.Node> nodes) throws IOException {
+        if (nodes.isEmpty()) return;
+
+        writeName(SHARED_INVOCATIONS);
+        writer.write('[');
+
+        for (int i = 0; i < nodes.size(); i++) {
+            if (i > 0) writer.write(',');
+            writeInvocation(SHARED_INVOCATION_MEMBERS, nodes.get(i));
+        }
+
+        writer.write(']');
+    }
+
+    private void writeRootInvocation(InvocationView rootInvocation) throws IOException {
+        beginObject();
+
+        for (String member : ROOT_INVOCATION_MEMBERS) {
+            switch (member) {
+                case INVOCATION_KIND:
+                    writeMember(member, rootInvocation.getKind().toString());
+                    break;
+                case INVOCATION_SIGNATURE:
+                    writeMember(member, rootInvocation.getSignature());
+                    break;
+                case REGULAR_EXPRESSIONS:
+                    writeMember(member, rootInvocation.regularExpressions());
+                    break;
+                case AUTOMATION_TARGETS:
+                    if (!rootInvocation.automationTargets().isEmpty()) {
+                        writeMember(member, rootInvocation.automationTargets());
+                    }
+                    break;
+                case TRUNCATED:
+                    writeTruncated(rootInvocation);
+                    break;
+                default:
+                    if (rootInvocation.getInvocationCount() != 0) {
+                        writeInvocations(rootInvocation.invocations());
+                    }
+            }
+        }
+
+        endObject();
+    }
+
+    private void writeInvocation(List<String> members, InvocationView invocation) throws IOException {
+        beginObject();
+
+        for (String member : members) {
+            switch (member) {
+                case INVOCATION_ID:
+                    writeName(member);
+                    writer.write(Integer.toString(graph.intern(invocation).getId()));
+                    break;
+                case INVOCATION_KIND:
+                    writeMember(member, invocation.getKind().toString());
+                    break;
+                case INVOCATION_SIGNATURE:
+                    writeMember(member, invocation.getSignature());
+                    break;
+                case INTERFACE_DEFINITIONS:
+                    writeMember(member, invocation.interfaceDefinitions());
+                    break;
+                case LOCAL:
+                    writeName(member);
+                    writer.write(Boolean.toString(invocation.isLocal()));
+                    break;
+                case TRUNCATED:
+                    writeTruncated(invocation);
+                    break;
+                default:
+                    writeInvocations(invocation.invocations());
+            }
+        }
+
+        endObject();
+    }
+
+    /**
+     * Write the invocations made from an invocation, or references to them in the graph layout.
+     */
+    private void writeInvocations(Iterable<InvocationView> invocations) throws IOException {
+        writeName(INVOCATIONS);
+        writer.write('[');
+
+        boolean first = true;
+        for (var invocation : invocations) {
+            if (!first) writer.write(',');
+
+            if (graph != null) {
+                writer.write(Integer.toString(graph.intern(invocation).getId()));
+            } else {
+                writeInvocation(INVOCATION_MEMBERS, invocation);
+            }
+
+            first = false;
+        }
+
+        writer.write(']');
+    }
+
+    /**
+     * Write whether the invocations of an invocation have been left out. The member is only written for truncated
+     * invocations, so reports of analyses that stayed within their budgets are unchanged.
+     */
+    private void writeTruncated(InvocationView invocation) throws IOException {
+        if (!invocation.isTruncated()) return;
+
+        writeName(TRUNCATED);
+        writer.write(Boolean.toString(true));
+    }
+
+    private void writeMember(String name, Object value) throws IOException {
+        if (value == null) return;
+
+        writeName(name);
+        JSONObject.quote(value.toString(), writer);
+    }
+
+    private void writeMember(String name, List<String> values) throws IOException {
+        if (values == null) return;
+
+        writeName(name);
+        writer.write('[');
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+
+            if (values.get(i) == null) {
+                writer.write("null");
+            } else {
+                JSONObject.quote(values.get(i), writer);
+            }
+        }
+
+        writer.write(']');
+    }
+
+    private void writeName(String name) throws IOException {
+        if (!firstMember) writer.write(',');
+        firstMember = false;
+
+        JSONObject.quote(name, writer);
+        writer.write(':');
+    }
+
+    private void beginObject() throws IOException {
+        writer.write('{');
+        firstMember = true;
+    }
+
+    private void endObject() throws IOException {
+        writer.write('}');
+        firstMember = false;
+    }
+
+    private static List<String> memberOrder(String... members) {
+        Map<String, String> document = new HashMap<>();
+        for (String member : members) {
+            document.put(member, member);
+        }
+
+        return List.copyOf(document.keySet());
+    }
+}
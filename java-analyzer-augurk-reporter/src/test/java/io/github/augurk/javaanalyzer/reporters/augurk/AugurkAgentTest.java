@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.reporters.augurk;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ContentProducer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AugurkAgentTest {
+    private static final String REPORT = "{\"AnalyzedProject\":\"project\",\"Version\":\"1.0\"}";
+    private static final String REPORT_PATH = "/api/v2/products/project/versions/1.0/analysis/reports";
+
+    private HttpServer server;
+    private List<ReceivedRequest> requests;
+    private String baseURL;
+
+    @Before
+    public void beforeEach() throws Exception {
+        requests = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::receive);
+        server.start();
+
+        baseURL = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void postReport_ShouldPostUncompressedReportWithContentLength() {
+        // Arrange
+        var target = new AugurkAgent(baseURL);
+
+        // Act
+        var result = target.postReport("project", "1.0", report());
+
+        // Assert
+        assertThat(result, is(HttpStatus.SC_OK));
+        assertThat(requests.size(), is(1));
+
+        var request = requests.get(0);
+        assertThat(request.path, equalTo(REPORT_PATH));
+        assertThat(request.headers.getFirst("Content-Type"), equalTo("application/json; charset=UTF-8"));
+        assertThat(request.headers.getFirst("Content-Length"), equalTo(String.valueOf(REPORT.length())));
+        assertThat(request.headers.getFirst("Content-Encoding"), is(nullValue()));
+        assertThat(request.bodyAsString(), equalTo(REPORT));
+    }
+
+    @Test
+    public void postReport_ShouldCompressReportUsingGzipWhenEnabled() throws Exception {
+        // Arrange
+        var target = new AugurkAgent(baseURL, true, false);
+
+        // Act
+        var result = target.postReport("project", "1.0", report());
+
+        // Assert
+        assertThat(result, is(HttpStatus.SC_OK));
+
+        var request = requests.get(0);
+        assertThat(request.headers.getFirst("Content-Encoding"), equalTo("gzip"));
+        assertThat(request.headers.getFirst("Content-Length"), equalTo(String.valueOf(request.body.length)));
+        assertThat(request.decompressedBodyAsString(), equalTo(REPORT));
+    }
+
+    @Test
+    public void postReport_ShouldStreamReportUsingChunkedTransferEncodingWhenEnabled() throws Exception {
+        // Arrange
+        var target = new AugurkAgent(baseURL, true, true);
+
+        // Act
+        var result = target.postReport("project", "1.0", report());
+
+        // Assert
+        assertThat(result, is(HttpStatus.SC_OK));
+
+        var request = requests.get(0);
+        assertThat(request.headers.getFirst("Transfer-Encoding"), equalTo("chunked"));
+        assertThat(request.headers.getFirst("Content-Length"), is(nullValue()));
+        assertThat(request.headers.getFirst("Content-Encoding"), equalTo("gzip"));
+        assertThat(request.decompressedBodyAsString(), equalTo(REPORT));
+    }
+
+    @Test
+    public void postReport_ShouldReturnServiceUnavailableWhenAugurkIsUnreachable() {
+        // Arrange
+        server.stop(0);
+        var target = new AugurkAgent(baseURL);
+
+        // Act
+        var result = target.postReport("project", "1.0", report());
+
+        // Assert
+        assertThat(result, is(HttpStatus.SC_SERVICE_UNAVAILABLE));
+    }
+
+    private ContentProducer report() {
+        return output -> output.write(REPORT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void receive(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readAllBytes();
+        requests.add(new ReceivedRequest(exchange.getRequestURI().getPath(), exchange.getRequestHeaders(), body));
+
+        exchange.sendResponseHeaders(HttpStatus.SC_OK, -1);
+        exchange.close();
+    }
+
+    private static class ReceivedRequest {
+        private final String path;
+        private final Headers headers;
+        private final byte[] body;
+
+        private ReceivedRequest(String path, Headers headers, byte[] body) {
+            this.path = path;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        private String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        private String decompressedBodyAsString() throws IOException {
+            try (var input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -16,23 +16,34 @@
 
 package io.github.augurk.javaanalyzer.reporters.augurk;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayDeque;
 import java.util.Collections;
 
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
 import io.github.augurk.javaanalyzer.core.domain.Invocation;
 import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import org.apache.http.entity.ContentProducer;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -51,7 +62,7 @@ public class AugurkReporterTest {
     }
 
     @Test
-    public void report_ShouldCallAugurkAgentWithJSONString() {
+    public void report_ShouldCallAugurkAgentWithJSONString() throws Exception {
         // Arrange
         var analyzedProject = "project";
         var projectVersion = "version";
@@ -59,33 +70,21 @@ public class AugurkReporterTest {
 
         var rootInvocationKind = InvocationKind.WHEN;
         var rootInvocationSignature = "rootSignature";
-        var rootInvocationExpressions = new String[] { "When expression" };
+        var rootInvocationExpression = "When expression";
 
         var invocationKind = InvocationKind.PUBLIC;
         var invocationSignature = "Signature";
         var invocationIsLocal = true;
 
         var reportMock = mock(AnalysisReport.class);
-        var rootInvocationMock = mock(Invocation.class);
-        var invocationMock = mock(Invocation.class);
+        var rootInvocation = new Invocation(rootInvocationSignature, rootInvocationExpression);
+        var invocation = new Invocation(invocationKind, invocationSignature, new String[] {}, invocationIsLocal);
+        rootInvocation.getInvocations().add(invocation);
 
         when(reportMock.getAnalyzedProject()).thenReturn(analyzedProject);
         when(reportMock.getVersion()).thenReturn(projectVersion);
         when(reportMock.getTimestamp()).thenReturn(timestamp);
-        when(reportMock.getRootInvocations()).thenReturn(Collections.singletonList(rootInvocationMock));
-
-        when(rootInvocationMock.getKind()).thenReturn(rootInvocationKind);
-        when(rootInvocationMock.getSignature()).thenReturn(rootInvocationSignature);
-        when(rootInvocationMock.getRegularExpression()).thenReturn(rootInvocationExpressions);
-        when(rootInvocationMock.getAutomationTargets()).thenReturn(new String[] {});
-        when(rootInvocationMock.getInvocations()).thenReturn(new ArrayDeque<>() {{
-            add(invocationMock);
-        }});
-
-        when(invocationMock.getKind()).thenReturn(invocationKind);
-        when(invocationMock.getSignature()).thenReturn(invocationSignature);
-        when(invocationMock.isLocal()).thenReturn(invocationIsLocal);
-        when(invocationMock.getInvocations()).thenReturn(new ArrayDeque<>());
+        when(reportMock.getRootInvocations()).thenReturn(Collections.singletonList(rootInvocation));
 
         var expected = new JSONObject();
         expected.put("AnalyzedProject", analyzedProject);
@@ -95,11 +94,12 @@ public class AugurkReporterTest {
         var expectedRootInvocation = new JSONObject();
         expectedRootInvocation.put("Kind", rootInvocationKind.toString());
         expectedRootInvocation.put("Signature", rootInvocationSignature);
-        expectedRootInvocation.put("RegularExpressions", rootInvocationExpressions);
+        expectedRootInvocation.put("RegularExpressions", new String[] { rootInvocationExpression });
 
         var expectedInvocation = new JSONObject();
         expectedInvocation.put("Kind", invocationKind.toString());
         expectedInvocation.put("Signature", invocationSignature);
+        expectedInvocation.put("InterfaceDefinitions", new JSONArray());
         expectedInvocation.put("Local", invocationIsLocal);
         expectedInvocation.put("Invocations", new JSONArray());
 
@@ -110,6 +110,110 @@ public class AugurkReporterTest {
         target.report(reportMock);
 
         // Assert
-        verify(agentMock).postReport("project", "version", expected.toString());
+        var bodyCaptor = ArgumentCaptor.forClass(ContentProducer.class);
+        verify(agentMock).postReport(eq("project"), eq("version"), bodyCaptor.capture());
+
+        var body = new ByteArrayOutputStream();
+        bodyCaptor.getValue().writeTo(body);
+        assertThat(body.toString(StandardCharsets.UTF_8), equalTo(expected.toString()));
+    }
+
+    @Test
+    public void report_ShouldPostRootInvocationsInBatchesWhenBatchSizeIsSet() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", "version");
+        report.addRootInvocation(new Invocation("firstSignature", "first"));
+        report.addRootInvocation(new Invocation("secondSignature", "second"));
+        report.addRootInvocation(new Invocation("thirdSignature", "third"));
+
+        when(optionsMock.getReportBatchSize()).thenReturn(2);
+
+        // Act
+        target.report(report);
+
+        // Assert
+        var bodyCaptor = ArgumentCaptor.forClass(ContentProducer.class);
+        verify(agentMock, times(2)).postReport(eq("project"), eq("version"), bodyCaptor.capture());
+
+        var firstBatch = new JSONObject(bodyOf(bodyCaptor.getAllValues().get(0)));
+        var secondBatch = new JSONObject(bodyOf(bodyCaptor.getAllValues().get(1)));
+
+        assertThat(firstBatch.getJSONArray("RootInvocations").length(), is(2));
+        assertThat(secondBatch.getJSONArray("RootInvocations").length(), is(1));
+        assertThat(secondBatch.getJSONArray("RootInvocations").getJSONObject(0).getString("Signature"),
+            equalTo("thirdSignature"));
+        assertThat(secondBatch.getString("AnalyzedProject"), equalTo("project"));
+    }
+
+    @Test
+    public void reportRootInvocation_ShouldPostBatchOnceItIsFull() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", "version");
+        when(optionsMock.getReportBatchSize()).thenReturn(2);
+
+        target.beginReport(report);
+        target.reportRootInvocation(new Invocation("firstSignature", "first"));
+        verify(agentMock, never()).postReport(any(), any(), any());
+
+        // Act
+        target.reportRootInvocation(new Invocation("secondSignature", "second"));
+
+        // Assert
+        var bodyCaptor = ArgumentCaptor.forClass(ContentProducer.class);
+        verify(agentMock).postReport(eq("project"), eq("version"), bodyCaptor.capture());
+
+        var rootInvocations = new JSONObject(bodyOf(bodyCaptor.getValue())).getJSONArray("RootInvocations");
+        assertThat(rootInvocations.length(), is(2));
+        assertThat(rootInvocations.getJSONObject(1).getString("Signature"), equalTo("secondSignature"));
+    }
+
+    @Test
+    public void endReport_ShouldPostAllRootInvocationsAtOnceWhenBatchSizeIsNotSet() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", "version");
+
+        target.beginReport(report);
+        target.reportRootInvocation(new Invocation("firstSignature", "first"));
+        target.reportRootInvocation(new Invocation("secondSignature", "second"));
+        verify(agentMock, never()).postReport(any(), any(), any());
+
+        // Act
+        target.endReport(report);
+
+        // Assert
+        var bodyCaptor = ArgumentCaptor.forClass(ContentProducer.class);
+        verify(agentMock).postReport(eq("project"), eq("version"), bodyCaptor.capture());
+
+        var rootInvocations = new JSONObject(bodyOf(bodyCaptor.getValue())).getJSONArray("RootInvocations");
+        assertThat(rootInvocations.length(), is(2));
+    }
+
+    @Test
+    public void report_ShouldMarkTruncatedRootInvocations() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", "version");
+        var rootInvocationSpy = spy(new Invocation("rootSignature", "When expression"));
+
+        when(rootInvocationSpy.isTruncated()).thenReturn(true);
+
+        report.addRootInvocation(rootInvocationSpy);
+        report.addRootInvocation(new Invocation("secondSignature", "second"));
+
+        // Act
+        target.report(report);
+
+        // Assert
+        var bodyCaptor = ArgumentCaptor.forClass(ContentProducer.class);
+        verify(agentMock).postReport(eq("project"), eq("version"), bodyCaptor.capture());
+
+        var rootInvocations = new JSONObject(bodyOf(bodyCaptor.getValue())).getJSONArray("RootInvocations");
+        assertThat(rootInvocations.getJSONObject(0).getBoolean("Truncated"), is(true));
+        assertThat(rootInvocations.getJSONObject(1).has("Truncated"), is(false));
+    }
+
+    private String bodyOf(ContentProducer producer) throws Exception {
+        var body = new ByteArrayOutputStream();
+        producer.writeTo(body);
+        return body.toString(StandardCharsets.UTF_8);
     }
 }
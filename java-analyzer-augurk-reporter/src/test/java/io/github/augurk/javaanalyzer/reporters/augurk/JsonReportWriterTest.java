@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.reporters.augurk;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.StringWriter;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class JsonReportWriterTest {
+    @Test
+    public void write_ShouldOmitRootInvocationsWhenReportIsEmpty() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", null);
+
+        var expected = new JSONObject();
+        expected.put("AnalyzedProject", "project");
+        expected.put("Timestamp", report.getTimestamp());
+
+        // Act
+        var result = write(report);
+
+        // Assert
+        assertThat(result, equalTo(expected.toString()));
+    }
+
+    @Test
+    public void write_ShouldWriteSameJSONAsDocumentForNestedInvocations() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project \"quoted\" </script>", "1.0");
+        var rootInvocation = new Invocation("rootSignature", "When \\d+ \u2028 expression");
+        var invocation = new Invocation(InvocationKind.PUBLIC, "a.b.C.method()", new String[] { "a.b.I.method()" }, false);
+        var nestedInvocation = new Invocation(InvocationKind.PRIVATE, "a.b.C.nested()", new String[0], true);
+
+        invocation.getInvocations().add(nestedInvocation);
+        rootInvocation.getInvocations().add(invocation);
+        report.addRootInvocation(rootInvocation);
+        report.addRootInvocation(new Invocation("otherRootSignature", "When other expression"));
+
+        var expectedNestedInvocation = new JSONObject();
+        expectedNestedInvocation.put("Kind", nestedInvocation.getKind().toString());
+        expectedNestedInvocation.put("Signature", nestedInvocation.getSignature());
+        expectedNestedInvocation.put("InterfaceDefinitions", nestedInvocation.getInterfaceDefinitions());
+        expectedNestedInvocation.put("Local", nestedInvocation.isLocal());
+        expectedNestedInvocation.put("Invocations", new JSONArray());
+
+        var expectedInvocation = new JSONObject();
+        expectedInvocation.put("Kind", invocation.getKind().toString());
+        expectedInvocation.put("Signature", invocation.getSignature());
+        expectedInvocation.put("InterfaceDefinitions", invocation.getInterfaceDefinitions());
+        expectedInvocation.put("Local", invocation.isLocal());
+        expectedInvocation.append("Invocations", expectedNestedInvocation);
+
+        var expectedRootInvocation = new JSONObject();
+        expectedRootInvocation.put("Kind", rootInvocation.getKind().toString());
+        expectedRootInvocation.put("Signature", rootInvocation.getSignature());
+        expectedRootInvocation.put("RegularExpressions", rootInvocation.getRegularExpression());
+        expectedRootInvocation.append("Invocations", expectedInvocation);
+
+        var expectedOtherRootInvocation = new JSONObject();
+        expectedOtherRootInvocation.put("Kind", InvocationKind.WHEN.toString());
+        expectedOtherRootInvocation.put("Signature", "otherRootSignature");
+        expectedOtherRootInvocation.put("RegularExpressions", new String[] { "When other expression" });
+
+        var expected = new JSONObject();
+        expected.put("AnalyzedProject", report.getAnalyzedProject());
+        expected.put("Version", report.getVersion());
+        expected.put("Timestamp", report.getTimestamp());
+        expected.append("RootInvocations", expectedRootInvocation);
+        expected.append("RootInvocations", expectedOtherRootInvocation);
+
+        // Act
+        var result = write(report);
+
+        // Assert
+        assertThat(result, equalTo(expected.toString()));
+    }
+
+    @Test
+    public void writeGraph_ShouldWriteIdenticalSubtreesOnce() throws Exception {
+        // Arrange
+        var report = createReportWithSharedSubtrees();
+
+        // Act
+        var result = new JSONObject(writeGraph(report));
+
+        // Assert
+        var sharedInvocations = result.getJSONArray("SharedInvocations");
+        assertThat(sharedInvocations.length(), is(3));
+        assertThat(sharedInvocations.getJSONObject(0).getInt("Id"), is(0));
+        assertThat(sharedInvocations.getJSONObject(0).getString("Signature"), equalTo("a.b.C.nested()"));
+        assertThat(sharedInvocations.getJSONObject(1).getJSONArray("Invocations").similar(new JSONArray("[0]")),
+            is(true));
+
+        var rootInvocations = result.getJSONArray("RootInvocations");
+        assertThat(rootInvocations.getJSONObject(0).getJSONArray("Invocations").similar(new JSONArray("[1,1,2]")),
+            is(true));
+        assertThat(rootInvocations.getJSONObject(1).getJSONArray("Invocations").similar(new JSONArray("[1]")),
+            is(true));
+    }
+
+    @Test
+    public void expand_ShouldExpandGraphToSameJSONAsTree() throws Exception {
+        // Arrange
+        var report = createReportWithSharedSubtrees();
+        var graph = new JSONObject(writeGraph(report));
+
+        // Act
+        var result = JsonReportGraph.expand(graph);
+
+        // Assert
+        assertThat(result.toString(), equalTo(write(report)));
+    }
+
+    @Test
+    public void expand_ShouldOmitRootInvocationsWhenReportIsEmpty() throws Exception {
+        // Arrange
+        var report = new AnalysisReport("project", "1.0");
+
+        // Act
+        var result = JsonReportGraph.expand(new JSONObject(writeGraph(report)));
+
+        // Assert
+        assertThat(result.toString(), equalTo(write(report)));
+    }
+
+    private static AnalysisReport createReportWithSharedSubtrees() {
+        var report = new AnalysisReport("project", "1.0");
+        var rootInvocation = new Invocation("rootSignature", "When expression");
+        rootInvocation.getInvocations().add(createInvocation());
+        rootInvocation.getInvocations().add(createInvocation());
+        rootInvocation.getInvocations().add(new Invocation(InvocationKind.PRIVATE, "a.b.C.other()", new String[0],
+            true));
+
+        var otherRootInvocation = new Invocation("otherRootSignature", "When other expression");
+        otherRootInvocation.getInvocations().add(createInvocation());
+
+        report.addRootInvocation(rootInvocation);
+        report.addRootInvocation(otherRootInvocation);
+        report.addRootInvocation(new Invocation("emptyRootSignature", "When empty expression"));
+        return report;
+    }
+
+    private static Invocation createInvocation() {
+        var invocation = new Invocation(InvocationKind.PUBLIC, "a.b.C.method()", new String[] { "a.b.I.method()" }, false);
+        invocation.getInvocations().add(new Invocation(InvocationKind.PRIVATE, "a.b.C.nested()", new String[0], true));
+        return invocation;
+    }
+
+    private String write(AnalysisReport report) throws Exception {
+        var writer = new StringWriter();
+        new JsonReportWriter(writer).write(report);
+        return writer.toString();
+    }
+
+    private String writeGraph(AnalysisReport report) throws Exception {
+        var writer = new StringWriter();
+        new JsonReportWriter(writer).writeGraph(report, report.getRootInvocations());
+        return writer.toString();
+    }
+}
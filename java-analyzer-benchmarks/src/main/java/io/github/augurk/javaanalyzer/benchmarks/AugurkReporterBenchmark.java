@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.reporters.augurk.AugurkAgent;
+import io.github.augurk.javaanalyzer.reporters.augurk.AugurkReporter;
+import org.apache.http.entity.ContentProducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization of the report of a synthetic project by the {@link AugurkReporter}. The report is
+ * written to an agent that discards it, instead of being posted to Augurk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AugurkReporterBenchmark {
+    @Param({ "100", "1000" })
+    public int fileCount;
+
+    @Param({ "4", "16" })
+    public int callDepth;
+
+    private BenchmarkProject project;
+    private AnalysisReport report;
+    private DiscardingAgent agent;
+    private AugurkReporter reporter;
+
+    @Setup
+    public void setUp() throws IOException {
+        project = BenchmarkProject.synthetic(fileCount, callDepth);
+        project.createContext(analysisReport -> report = analysisReport).startAnalysis();
+
+        agent = new DiscardingAgent();
+        reporter = new AugurkReporter(project.createOptions(), agent);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        project.close();
+    }
+
+    @Benchmark
+    public long serialize() {
+        reporter.report(report);
+        return agent.byteCount;
+    }
+
+    private static class DiscardingAgent extends AugurkAgent {
+        private long byteCount;
+
+        private DiscardingAgent() {
+            super("http://localhost");
+        }
+
+        @Override
+        public int postReport(String analyzedProject, String version, ContentProducer body) {
+            var output = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    byteCount++;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    byteCount += length;
+                }
+            };
+
+            try {
+                body.writeTo(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return 200;
+        }
+    }
+}
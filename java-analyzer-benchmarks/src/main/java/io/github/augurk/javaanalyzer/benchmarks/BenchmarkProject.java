@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.github.augurk.javaanalyzer.core.AnalyzerContext;
+import io.github.augurk.javaanalyzer.core.Reporter;
+import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.JavaVersion;
+import io.github.augurk.javaanalyzer.filemanager.FileManagerImpl;
+import io.github.augurk.javaanalyzer.generator.ProjectCompiler;
+import io.github.augurk.javaanalyzer.generator.SyntheticProjectGenerator;
+import io.github.augurk.javaanalyzer.generator.SyntheticProjectOptions;
+
+/**
+ * Project analyzed by the benchmarks. The sources of the project are compiled to a temporary directory, which is
+ * removed again when the project is closed.
+ */
+final class BenchmarkProject implements Closeable {
+    private static final String CUCUMIS_PATH = "analyzable-projects/cucumis";
+    private static final String PROJECT_VERSION = "0.0.0";
+
+    private final String name;
+    private final File root;
+    private final Path workDirectory;
+    private final ClassLoader classLoader;
+
+    private BenchmarkProject(String name, File root, Path workDirectory, Path classesDirectory) {
+        this.name = name;
+        this.root = root;
+        this.workDirectory = workDirectory;
+        this.classLoader = classesDirectory != null
+            ? new URLClassLoader(new URL[] { urlOf(classesDirectory) }, BenchmarkProject.class.getClassLoader())
+            : BenchmarkProject.class.getClassLoader();
+    }
+
+    /**
+     * Return the cucumis fixture project, which is searched for in the working directory and its parents.
+     *
+     * @return compiled cucumis project
+     * @throws IOException when the project can not be compiled
+     */
+    static BenchmarkProject cucumis() throws IOException {
+        Path root = Paths.get("").toAbsolutePath();
+
+        while (root != null && !Files.isDirectory(root.resolve(CUCUMIS_PATH))) {
+            root = root.getParent();
+        }
+
+        if (root == null) throw new IllegalStateException("Unable to find " + CUCUMIS_PATH);
+
+        Path projectRoot = root.resolve(CUCUMIS_PATH);
+        Path workDirectory = Files.createTempDirectory("augurk-benchmark");
+        ProjectCompiler.compile(projectRoot.resolve("src"), workDirectory.resolve("classes"));
+
+        return new BenchmarkProject("Cucumis", projectRoot.toFile(), workDirectory, workDirectory.resolve("classes"));
+    }
+
+    /**
+     * Generate and compile a synthetic project made of independent call chains.
+     *
+     * @param fileCount number of source files of the project
+     * @param callDepth depth of the call chains started by the When steps
+     * @return compiled synthetic project
+     * @throws IOException when the project can not be generated or compiled
+     */
+    static BenchmarkProject synthetic(int fileCount, int callDepth) throws IOException {
+        return synthetic(chainOptions(fileCount, callDepth));
+    }
+
+    /**
+     * Generate and compile a synthetic project.
+     *
+     * @param options shape of the project
+     * @return compiled synthetic project
+     * @throws IOException when the project can not be generated or compiled
+     */
+    static BenchmarkProject synthetic(SyntheticProjectOptions options) throws IOException {
+        Path workDirectory = Files.createTempDirectory("augurk-benchmark");
+        Path projectRoot = workDirectory.resolve("project");
+        new SyntheticProjectGenerator(options).generate(projectRoot);
+        ProjectCompiler.compile(projectRoot, workDirectory.resolve("classes"));
+
+        return new BenchmarkProject("Synthetic", projectRoot.toFile(), workDirectory, workDirectory.resolve("classes"));
+    }
+
+    /**
+     * Generate a synthetic project without compiling it, for benchmarks that only need its files.
+     *
+     * @param fileCount number of source files of the project
+     * @param callDepth depth of the call chains started by the When steps
+     * @return synthetic project
+     * @throws IOException when the project can not be generated
+     */
+    static BenchmarkProject syntheticSources(int fileCount, int callDepth) throws IOException {
+        Path workDirectory = Files.createTempDirectory("augurk-benchmark");
+        Path projectRoot = workDirectory.resolve("project");
+        new SyntheticProjectGenerator(chainOptions(fileCount, callDepth)).generate(projectRoot);
+
+        return new BenchmarkProject("Synthetic", projectRoot.toFile(), workDirectory, null);
+    }
+
+    File getRoot() {
+        return root;
+    }
+
+    AnalyzeOptions createOptions() {
+        return new AnalyzeOptions(classLoader, JavaVersion.JAVA_11, name, PROJECT_VERSION, List.of());
+    }
+
+    FileManagerImpl createFileManager() {
+        return new FileManagerImpl(root);
+    }
+
+    AnalyzerContext createContext(AnalyzeOptions options, Reporter reporter) {
+        return new AnalyzerContext(options, createFileManager(), List.of(reporter));
+    }
+
+    AnalyzerContext createContext(Reporter reporter) {
+        return createContext(createOptions(), reporter);
+    }
+
+    List<File> sourceFiles() {
+        List<File> files = new ArrayList<>();
+        createFileManager().walkFileTree(files::add);
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static SyntheticProjectOptions chainOptions(int fileCount, int callDepth) {
+        int chains = Math.max(1, fileCount / (callDepth + 1));
+
+        SyntheticProjectOptions options = new SyntheticProjectOptions();
+        options.setStepClassCount(chains);
+        options.setWhenStepsPerClass(1);
+        options.setServiceLayers(callDepth);
+        options.setServicesPerLayer(chains);
+        options.setFanOut(1);
+        options.setOverloadCount(1);
+        options.setHierarchies(false);
+        return options;
+    }
+
+    private static URL urlOf(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.filemanager.FileManagerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link FileManagerImpl#getFileByQualifiedName(String)}, both the first lookup that indexes the project
+ * directory and the lookup of every file of the project once it has been indexed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileManagerBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int fileCount;
+
+    private BenchmarkProject project;
+    private FileManagerImpl fileManager;
+    private List<String> qualifiedNames;
+
+    @Setup
+    public void setUp() throws IOException {
+        project = BenchmarkProject.syntheticSources(fileCount, 4);
+        fileManager = project.createFileManager();
+        qualifiedNames = new ArrayList<>();
+
+        Path root = project.getRoot().toPath();
+
+        for (File file : project.sourceFiles()) {
+            // Strip src/main/java or src/test/java and the extension of the relative path
+            Path path = root.relativize(file.toPath());
+            String name = path.subpath(3, path.getNameCount()).toString().replace(File.separatorChar, '.');
+            qualifiedNames.add(name.substring(0, name.length() - ".java".length()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        project.close();
+    }
+
+    @Benchmark
+    public Object index() {
+        return new FileManagerImpl(project.getRoot()).getFileByQualifiedName(qualifiedNames.get(0));
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (String qualifiedName : qualifiedNames) {
+            blackhole.consume(fileManager.getFileByQualifiedName(qualifiedName));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.core.collectors.InvocationCollector;
+import io.github.augurk.javaanalyzer.core.collectors.InvokedMethod;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.JavaVersion;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of the actual type of an argument in a call stack of the provided depth. The collector passes
+ * the lookup on to the current invocation, which looks the type up in the argument types carried down from its parents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FindArgumentTypeBenchmark {
+    private static final String ARGUMENT_TYPE = "synthetic.Argument";
+
+    @Param({ "1", "10", "100" })
+    public int depth;
+
+    private InvocationCollector collector;
+
+    @Setup
+    public void setUp() {
+        var options = new AnalyzeOptions(getClass().getClassLoader(), JavaVersion.JAVA_11, "Benchmark", "0.0.0",
+            List.of());
+        options.setMemoizeSubtrees(false);
+
+        collector = new InvocationCollector(options);
+        collector.beginRootInvocation("synthetic.Steps.step()", "^step$", null);
+
+        for (int i = 0; i < depth; i++) {
+            collector.collect(new BenchmarkMethod(i));
+        }
+    }
+
+    @Benchmark
+    public String findDeclaredType() {
+        return collector.getActualType(ARGUMENT_TYPE + 0);
+    }
+
+    @Benchmark
+    public String findUndeclaredType() {
+        return collector.getActualType("synthetic.Undeclared");
+    }
+
+    private static class BenchmarkMethod implements InvokedMethod {
+        private final int index;
+
+        private BenchmarkMethod(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getDeclaringTypeName() {
+            return "synthetic.Service" + index;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return false;
+        }
+
+        @Override
+        public InvocationKind getKind() {
+            return InvocationKind.PUBLIC;
+        }
+
+        @Override
+        public String getSignature() {
+            return getDeclaringTypeName() + ".call(" + ARGUMENT_TYPE + index + ")";
+        }
+
+        @Override
+        public List<ImmutablePair<String, String>> getArgumentTypes() {
+            return List.of(ImmutablePair.of(ARGUMENT_TYPE + index, "synthetic.Implementation" + index));
+        }
+
+        @Override
+        public String[] getInterfaceDefinitions() {
+            return new String[] {};
+        }
+    }
+}
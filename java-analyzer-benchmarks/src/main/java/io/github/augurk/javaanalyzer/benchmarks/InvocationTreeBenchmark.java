@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.core.AnalyzerContext;
+import io.github.augurk.javaanalyzer.generator.SyntheticProjectOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a complete analysis, which traverses the invocation trees of all When steps of a project. A cold analysis
+ * uses a new context for every run, a warm analysis reuses the context and its caches, like the watch mode does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InvocationTreeBenchmark {
+    @State(Scope.Benchmark)
+    public static class Cucumis {
+        private BenchmarkProject project;
+
+        @Setup
+        public void setUp() throws IOException {
+            project = BenchmarkProject.cucumis();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            project.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WarmCucumis {
+        private BenchmarkProject project;
+        private AnalyzerContext context;
+        private Blackhole blackhole;
+
+        @Setup
+        public void setUp(Blackhole blackhole) throws IOException {
+            this.project = BenchmarkProject.cucumis();
+            this.blackhole = blackhole;
+            this.context = project.createContext(report -> this.blackhole.consume(report));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            project.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Synthetic {
+        @Param({ "100", "1000" })
+        public int fileCount;
+
+        @Param({ "1", "8", "32" })
+        public int callDepth;
+
+        private BenchmarkProject project;
+
+        @Setup
+        public void setUp() throws IOException {
+            project = BenchmarkProject.synthetic(fileCount, callDepth);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            project.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Layered {
+        @Param({ "false", "true" })
+        public boolean hierarchies;
+
+        @Param({ "1", "3" })
+        public int fanOut;
+
+        private BenchmarkProject project;
+
+        @Setup
+        public void setUp() throws IOException {
+            SyntheticProjectOptions options = new SyntheticProjectOptions();
+            options.setHierarchies(hierarchies);
+            options.setFanOut(fanOut);
+            project = BenchmarkProject.synthetic(options);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            project.close();
+        }
+    }
+
+    @Benchmark
+    public void analyzeCucumis(Cucumis state, Blackhole blackhole) {
+        state.project.createContext(blackhole::consume).startAnalysis();
+    }
+
+    @Benchmark
+    public void analyzeCucumisWarm(WarmCucumis state) {
+        state.context.startAnalysis();
+    }
+
+    @Benchmark
+    public void analyzeSynthetic(Synthetic state, Blackhole blackhole) {
+        state.project.createContext(blackhole::consume).startAnalysis();
+    }
+
+    @Benchmark
+    public void analyzeLayered(Layered state, Blackhole blackhole) {
+        state.project.createContext(blackhole::consume).startAnalysis();
+    }
+}
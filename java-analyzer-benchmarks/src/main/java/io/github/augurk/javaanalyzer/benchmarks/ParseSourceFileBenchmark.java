@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.core.AnalyzerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link AnalyzerContext#parseSourceFile(File)} for all files of a synthetic project, both parsing the files
+ * and returning them from the compilation unit cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseSourceFileBenchmark {
+    @Param({ "10", "100", "1000" })
+    public int fileCount;
+
+    private BenchmarkProject project;
+    private AnalyzerContext context;
+    private List<File> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        project = BenchmarkProject.syntheticSources(fileCount, 4);
+
+        var options = project.createOptions();
+        options.setParseCacheSize(0);
+
+        context = project.createContext(options, report -> { });
+        files = project.sourceFiles();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        project.close();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        var cache = context.getCompilationUnitCache();
+
+        for (File file : files) {
+            cache.invalidate(file);
+            blackhole.consume(context.parseSourceFile(file));
+        }
+    }
+
+    @Benchmark
+    public void parseCached(Blackhole blackhole) {
+        for (File file : files) {
+            blackhole.consume(context.parseSourceFile(file));
+        }
+    }
+}
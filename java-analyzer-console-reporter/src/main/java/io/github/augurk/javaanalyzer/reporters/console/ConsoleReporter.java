@@ -16,13 +16,14 @@
 
 package io.github.augurk.javaanalyzer.reporters.console;
 
-import io.github.augurk.javaanalyzer.core.Reporter;
+import io.github.augurk.javaanalyzer.core.StreamingReporter;
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
 import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ConsoleReporter implements Reporter {
+public class ConsoleReporter implements StreamingReporter {
     private static final Logger logger = LoggerFactory.getLogger(ConsoleReporter.class);
     private static final String LOG_HEADER_SEPARATOR = "-".repeat(72);
 
@@ -31,25 +32,31 @@ public class ConsoleReporter implements Reporter {
     }
 
     @Override
-    public void report(AnalysisReport report) {
+    public void beginReport(AnalysisReport report) {
         logger.info(LOG_HEADER_SEPARATOR);
         logger.info("CONSOLE REPORTER, project: {}, version: {}", report.getAnalyzedProject(), report.getVersion());
         logger.info(LOG_HEADER_SEPARATOR);
+    }
 
-        for (var invocation : report.getRootInvocations()) {
-            logger.info("ROOT: {} (automationTargets: {})", invocation.getSignature(), invocation.getAutomationTargets());
-            printInvocations(0, invocation);
-        }
+    @Override
+    public void reportRootInvocation(Invocation invocation) {
+        logger.info("ROOT: {} (automationTargets: {})", invocation.getSignature(), invocation.getAutomationTargets());
+        printInvocations(0, InvocationView.of(invocation));
+    }
+
+    @Override
+    public void endReport(AnalysisReport report) {
     }
 
-    private void printInvocations(int level, Invocation invocation) {
-        for (var in : invocation.getInvocations()) {
+    private void printInvocations(int level, InvocationView invocation) {
+        for (var in : invocation.invocations()) {
             String reportString = ".".repeat(Math.max(0, level * 3))
                 .concat("... ")
-                .concat(in.getSignature());
+                .concat(in.getSignature())
+                .concat(in.isTruncated() ? " (truncated)" : "");
 
             logger.info("{}", reportString);
-            if (in.getInvocations() != null) printInvocations(level + 1, in);
+            if (in.getInvocationCount() != 0) printInvocations(level + 1, in);
         }
     }
 }
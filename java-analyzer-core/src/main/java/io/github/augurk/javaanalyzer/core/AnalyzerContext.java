@@ -18,40 +18,82 @@ package io.github.augurk.javaanalyzer.core;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ClassLoaderTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import io.github.augurk.javaanalyzer.core.analyzers.AbstractAnalyzer;
 import io.github.augurk.javaanalyzer.core.analyzers.EntryPointAnalyzer;
+import io.github.augurk.javaanalyzer.core.cache.CompilationUnitCache;
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
 import io.github.augurk.javaanalyzer.core.collectors.InvocationCollector;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.incremental.ChangeSet;
+import io.github.augurk.javaanalyzer.core.incremental.IncrementalState;
+import io.github.augurk.javaanalyzer.core.incremental.SourceFileState;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics.RootInvocationTime;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.CacheEvictionPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class AnalyzerContext implements Analyzer {
     private static final Logger logger = LoggerFactory.getLogger(AnalyzerContext.class);
+    private static final int SLOWEST_ROOT_INVOCATIONS = 5;
 
     private final Map<String, WhenStepStrategy> whenStrategies;
 
     private final AnalyzeOptions options;
     private final FileManager fileManager;
     private final List<Reporter> reporters;
-    private final InvocationCollector collector;
+    private final CompilationUnitCache compilationUnitCache;
+    private final JavaParser parser;
+    private final AtomicReference<TypeHierarchyIndex> typeHierarchyIndex;
+    private final Queue<AnalyzerContext> workers;
+    private final AnalysisMetrics metrics;
+
+    private InvocationCollector collector;
+    private boolean analyzed;
+    private boolean retainRootInvocations;
 
     public AnalyzerContext(AnalyzeOptions options, FileManager fileManager, List<Reporter> reporters) {
         logger.info("Add domain: {}", this.getClass().getCanonicalName());
@@ -59,11 +101,35 @@ public class AnalyzerContext implements Analyzer {
         this.options = options;
         this.fileManager = fileManager;
         this.reporters = new ArrayList<>(reporters);
-        this.collector = new InvocationCollector(options);
+        this.metrics = new AnalysisMetrics();
+        this.collector = new InvocationCollector(options, metrics);
         this.whenStrategies = new HashMap<>();
+        this.compilationUnitCache = createCompilationUnitCache(options);
+        this.parser = new JavaParser(createParserConfiguration());
+        this.typeHierarchyIndex = new AtomicReference<>();
+        this.workers = new ConcurrentLinkedQueue<>();
 
         registerDefaultStrategies();
-        configureSymbolSolver();
+    }
+
+    /**
+     * Create a worker context used by the parallel analysis. A worker shares the options, file manager and when step
+     * strategies of its parent, but has its own collector, compilation unit cache and parser with symbol solver.
+     * Compilation units are therefore never shared between workers, the type hierarchy index and metrics are shared.
+     *
+     * @param parent context the worker analyzes files for
+     */
+    private AnalyzerContext(AnalyzerContext parent) {
+        this.options = parent.options;
+        this.fileManager = parent.fileManager;
+        this.reporters = new ArrayList<>();
+        this.metrics = parent.metrics;
+        this.collector = new InvocationCollector(options, metrics);
+        this.whenStrategies = new HashMap<>(parent.whenStrategies);
+        this.compilationUnitCache = createCompilationUnitCache(options);
+        this.parser = new JavaParser(createParserConfiguration());
+        this.typeHierarchyIndex = parent.typeHierarchyIndex;
+        this.workers = new ConcurrentLinkedQueue<>();
     }
 
     public AnalyzeOptions getOptions() {
@@ -74,19 +140,311 @@ public class AnalyzerContext implements Analyzer {
         return collector;
     }
 
+    public CompilationUnitCache getCompilationUnitCache() {
+        return compilationUnitCache;
+    }
+
+    /**
+     * Return the metrics of the last analysis, which include those of the workers of a parallel analysis.
+     *
+     * @return metrics of the last analysis
+     */
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Return the type hierarchy index of the project. The index is built once, the first time it is requested by
+     * this context or any of its workers, using the compilation units of the requesting context.
+     *
+     * @return type hierarchy index
+     */
+    public TypeHierarchyIndex getTypeHierarchyIndex() {
+        synchronized (typeHierarchyIndex) {
+            if (typeHierarchyIndex.get() == null) {
+                metrics.recordFullScan();
+                typeHierarchyIndex.set(TypeHierarchyIndex.build(fileManager, this::parseSourceFile));
+            }
+
+            return typeHierarchyIndex.get();
+        }
+    }
+
     @Override
     public void startAnalysis() {
         var startTime = Instant.now();
         logger.info("Start analysis");
 
-        var visitor = new EntryPointAnalyzer(this);
-        fileManager.walkFileTree(visitor::visit);
+        if (analyzed) collector = new InvocationCollector(options, metrics);
+        analyzed = true;
+        metrics.reset();
+
+        var report = collector.getReport();
+        streamingReporters().forEach(reporter -> reporter.beginReport(report));
+        retainRootInvocations = reporters.size() > streamingReporters().count();
+
+        int workerCount = options.getWorkerCount();
+        if (workerCount > 1) addWorkers(workerCount);
+
+        if (options.getIncrementalStateFile() != null) {
+            analyzeIncrementally(workerCount);
+        } else if (workerCount > 1) {
+            analyzeInParallel(walkFileTree(), workerCount, this::addToReport);
+        } else {
+            var visitor = new EntryPointAnalyzer(this);
+            collector.setRootInvocationHandler(this::publish);
+            fileManager.walkFileTree(file -> {
+                metrics.recordWalkedFile();
+                visitor.visit(file);
+            });
+        }
+
+        collector.clearSubtrees();
+        workers.forEach(worker -> worker.collector.clearSubtrees());
 
         var  endTime = Instant.now();
-        long timeElapsed = Duration.between(startTime, endTime).toMillis();
-        logger.info("Analysis complete, completed in {} ms", timeElapsed);
+        var timeElapsed = Duration.between(startTime, endTime);
+        metrics.recordAnalysis(timeElapsed.toNanos());
+        logger.info("Analysis complete, completed in {} ms", timeElapsed.toMillis());
+        logger.info("Parse cache: {} hits, {} misses, {} evictions", compilationUnitCache.getHitCount(),
+            compilationUnitCache.getMissCount(), compilationUnitCache.getEvictionCount());
+        logger.info("Subtree cache: {} hits, {} misses", collector.getSubtreeHitCount(),
+            collector.getSubtreeMissCount());
+        logMetrics();
+        writeMetrics();
 
-        reporters.forEach(reporter -> reporter.report(collector.getReport()));
+        for (Reporter reporter : reporters) {
+            if (reporter instanceof StreamingReporter) {
+                ((StreamingReporter) reporter).endReport(report);
+            } else {
+                reporter.report(report);
+            }
+        }
+    }
+
+    private void logMetrics() {
+        logger.info("Parsed {} files in {} ms, walked {} files, {} full scans", metrics.getParseCount(),
+            TimeUnit.NANOSECONDS.toMillis(metrics.getParseNanos()), metrics.getWalkedFileCount(),
+            metrics.getFullScanCount());
+        logger.info("Resolved {} symbols in {} ms, {} failed", metrics.getResolveCount(),
+            TimeUnit.NANOSECONDS.toMillis(metrics.getResolveNanos()), metrics.getResolveFailureCount());
+        logger.info("Collected {} invocations, max depth {}", metrics.getInvocationCount(), metrics.getMaxDepth());
+
+        for (RootInvocationTime rootInvocation : metrics.getSlowestRootInvocations(SLOWEST_ROOT_INVOCATIONS)) {
+            logger.info("Root invocation {} analyzed in {} ms", rootInvocation.getSignature(),
+                TimeUnit.NANOSECONDS.toMillis(rootInvocation.getNanos()));
+        }
+    }
+
+    private void writeMetrics() {
+        File metricsFile = options.getMetricsFile();
+        if (metricsFile == null) return;
+
+        try (Writer writer = Files.newBufferedWriter(metricsFile.toPath(), StandardCharsets.UTF_8)) {
+            metrics.write(writer, options.getMetricsFormat());
+        } catch (IOException e) {
+            logger.warn("Unable to write metrics {}", metricsFile, e);
+        }
+    }
+
+    /**
+     * Discard the state derived from the provided files, so a subsequent analysis picks up their changes. The
+     * compilation units of the files are removed from the caches of this context and its workers, the type hierarchy
+     * index is rebuilt on its next use and the file manager is refreshed to pick up added and removed files. The
+     * state derived from other files is kept, which makes a subsequent analysis of the same context cheap.
+     *
+     * @param files changed, added or removed source files
+     */
+    public void invalidate(Collection<File> files) {
+        for (File file : files) {
+            compilationUnitCache.invalidate(file);
+            workers.forEach(worker -> worker.compilationUnitCache.invalidate(file));
+        }
+
+        typeHierarchyIndex.set(null);
+        fileManager.refresh();
+    }
+
+    /**
+     * Publish a completed root invocation. The invocation is streamed to the streaming reporters right away, it is
+     * only added to the report when there are reporters that need the complete report.
+     *
+     * @param rootInvocation root invocation to publish
+     */
+    private void publish(Invocation rootInvocation) {
+        streamingReporters().forEach(reporter -> reporter.reportRootInvocation(rootInvocation));
+        if (retainRootInvocations) collector.getReport().addRootInvocation(rootInvocation);
+    }
+
+    private Stream<StreamingReporter> streamingReporters() {
+        return reporters.stream()
+            .filter(StreamingReporter.class::isInstance)
+            .map(StreamingReporter.class::cast);
+    }
+
+    /**
+     * Analyze only the files affected by the changes since the previous analysis. The index of the type hierarchy is
+     * restored from the previous state, only changed files are parsed to update it. The root invocations of the files
+     * that are not affected are restored from the previous state as well. Files of which a root invocation exceeded
+     * its time budget are stored without analysis result, so they are always analyzed again.
+     *
+     * @param workerCount number of worker threads
+     */
+    private void analyzeIncrementally(int workerCount) {
+        File stateFile = options.getIncrementalStateFile();
+        String fingerprint = options.getLanguageLevel() + ";" + options.getFilter() + ";"
+            + options.getMaxInvocationDepth() + ";" + options.getMaxInvocationCount() + ";"
+            + options.getRootTimeBudgetMillis();
+
+        var previous = IncrementalState.read(stateFile, fingerprint);
+        var current = new IncrementalState(fingerprint);
+        var index = new TypeHierarchyIndex();
+        List<File> files = walkFileTree();
+
+        for (File file : files) {
+            var previousSourceFile = previous.get(file).orElse(null);
+            var sourceFile = SourceFileState.of(file, previousSourceFile);
+
+            sourceFile.setTypes(sourceFile.hasSameContent(previousSourceFile)
+                ? previousSourceFile.getTypes()
+                : parseSourceFile(file).map(unit -> TypeHierarchyIndex.typesOf(file, unit)).orElse(List.of()));
+
+            index.addTypes(file, sourceFile.getTypes());
+            current.put(sourceFile);
+        }
+
+        typeHierarchyIndex.set(index);
+        var changes = ChangeSet.between(previous, current);
+        List<File> affectedFiles = new ArrayList<>();
+
+        for (File file : files) {
+            var dependencies = previous.get(file).map(SourceFileState::getDependencies).orElse(null);
+
+            if (changes.affects(dependencies, name -> fileManager.getFileByQualifiedName(name).isPresent())) {
+                affectedFiles.add(file);
+            }
+        }
+
+        logger.info("Incremental analysis: {} changed files, analyze {} of {} files",
+            changes.getChangedSourceFiles().size(), affectedFiles.size(), files.size());
+
+        List<AnalyzedFile> analyzedFiles = new ArrayList<>();
+
+        if (workerCount > 1) {
+            analyzeInParallel(affectedFiles, workerCount, analyzedFiles::add);
+        } else {
+            affectedFiles.forEach(file -> analyzedFiles.add(analyzeFile(file)));
+        }
+
+        Map<File, AnalyzedFile> analyzedByFile = new HashMap<>();
+        for (int i = 0; i < affectedFiles.size(); i++) {
+            analyzedByFile.put(affectedFiles.get(i), analyzedFiles.get(i));
+        }
+
+        for (File file : files) {
+            var sourceFile = current.get(file).orElseThrow();
+            var analyzedFile = analyzedByFile.get(file);
+
+            if (analyzedFile != null) {
+                sourceFile.setAnalysis(analyzedFile.rootInvocations, analyzedFile.dependencies);
+            } else {
+                var previousSourceFile = previous.get(file).orElseThrow();
+                sourceFile.setAnalysis(previousSourceFile.getRootInvocations(), previousSourceFile.getDependencies());
+            }
+
+            sourceFile.getRootInvocations().forEach(this::publish);
+        }
+
+        try {
+            current.write(stateFile);
+        } catch (IOException e) {
+            logger.warn("Unable to write incremental state {}", stateFile, e);
+        }
+    }
+
+    /**
+     * Create the worker contexts of the parallel analysis that do not exist yet.
+     *
+     * @param workerCount number of worker threads
+     */
+    private void addWorkers(int workerCount) {
+        while (workers.size() < workerCount) {
+            workers.add(new AnalyzerContext(this));
+        }
+    }
+
+    /**
+     * Analyze the provided files using the pool of worker contexts. Each file is analyzed by a single worker, which
+     * analyzes one file at a time. The results are passed to the consumer in the order of the provided files, so the
+     * report is the same as for a sequential run. A result is passed on as soon as the results of all preceding files
+     * are available, and is not referenced afterwards. Worker contexts are kept after the analysis, so their caches
+     * are reused by the next one.
+     *
+     * @param files files to analyze
+     * @param workerCount number of worker threads
+     * @param consumer consumer of the analysis results of the files
+     */
+    private void analyzeInParallel(List<File> files, int workerCount, Consumer<AnalyzedFile> consumer) {
+        logger.info("Analyze {} files using {} workers", files.size(), workerCount);
+
+        BlockingQueue<AnalyzerContext> availableWorkers = new LinkedBlockingQueue<>(workers);
+        var pool = new ForkJoinPool(workerCount);
+        Queue<Future<AnalyzedFile>> results = new ArrayDeque<>();
+
+        try {
+            files.forEach(file -> results.add(pool.submit(() -> analyzeWithWorker(availableWorkers, file))));
+
+            while (!results.isEmpty()) {
+                consumer.accept(results.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel analysis has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel analysis failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static AnalyzedFile analyzeWithWorker(BlockingQueue<AnalyzerContext> availableWorkers, File file)
+        throws InterruptedException {
+
+        var worker = availableWorkers.take();
+
+        try {
+            return worker.analyzeFile(file);
+        } finally {
+            availableWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Analyze a single file. The root invocations found in the file are kept out of the report of this context and
+     * returned together with their dependencies, so the caller decides where they end up in the report.
+     *
+     * @param file file to analyze
+     * @return analysis result of the file
+     */
+    private AnalyzedFile analyzeFile(File file) {
+        List<Invocation> rootInvocations = new ArrayList<>();
+        collector.setRootInvocationHandler(rootInvocations::add);
+        collector.resetDependencies();
+
+        new EntryPointAnalyzer(this).visit(file);
+
+        return new AnalyzedFile(rootInvocations, collector.resetDependencies());
+    }
+
+    private void addToReport(AnalyzedFile analyzedFile) {
+        analyzedFile.rootInvocations.forEach(this::publish);
+    }
+
+    private List<File> walkFileTree() {
+        List<File> files = new ArrayList<>();
+        fileManager.walkFileTree(files::add);
+        files.forEach(file -> metrics.recordWalkedFile());
+        return files;
     }
 
     public Optional<WhenStepStrategy> getWhenStepStrategy(String languageCode) {
@@ -127,23 +485,43 @@ public class AnalyzerContext implements Analyzer {
     }
 
     /**
-     * Return compilation unit for the provided file.
+     * Return compilation unit for the provided file. Compilation units are cached, so the file is only parsed again
+     * when it has been changed or evicted from the cache.
      *
      * @param file File to return compilation unit
      * @return Optional containing the compilation unit
      */
     public Optional<CompilationUnit> parseSourceFile(File file) {
+        collector.recordSourceFile(file);
+        return compilationUnitCache.get(file, this::parse);
+    }
+
+    private Optional<CompilationUnit> parse(File file) {
         CompilationUnit compilationUnit = null;
+        long startTime = System.nanoTime();
 
         try {
-            compilationUnit = StaticJavaParser.parse(file);
+            compilationUnit = parseWithDedicatedParser(file);
+            metrics.attachTo(compilationUnit);
         } catch (FileNotFoundException e) {
             logger.error("Unable to parse Java source file", e);
+        } finally {
+            metrics.recordParse(System.nanoTime() - startTime);
         }
 
         return Optional.ofNullable(compilationUnit);
     }
 
+    private CompilationUnit parseWithDedicatedParser(File file) throws FileNotFoundException {
+        ParseResult<CompilationUnit> result = parser.parse(file);
+
+        if (!result.isSuccessful()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+
+        return result.getResult().orElseThrow();
+    }
+
     /**
      * Return compilation unit for the given qualified name (e.g. com.example.Clazz).
      *
@@ -152,6 +530,8 @@ public class AnalyzerContext implements Analyzer {
      */
     public Optional<CompilationUnit> parserSourceFileByQualifiedName(String qualifiedName) {
         Optional<File> file = fileManager.getFileByQualifiedName(qualifiedName);
+        if (file.isEmpty()) collector.recordUnresolvedType(qualifiedName);
+
         return file.flatMap(this::parseSourceFile);
     }
 
@@ -161,23 +541,72 @@ public class AnalyzerContext implements Analyzer {
      * @param type Node type to search for
      * @param predicate Predicate to match the nodes with
      * @param consumer callback called for each type matching the predicate
+     * @deprecated parses every file of the project on each call; the analyzers use the type hierarchy index instead,
+     *     see {@link #findDerivedTypes(ClassOrInterfaceDeclaration, Consumer)}
      */
+    @Deprecated
     public <T extends Node> void findByPredicate(Class<T> type, Predicate<T> predicate, Consumer<T> consumer) {
+        metrics.recordFullScan();
         fileManager.walkFileTree(file ->
             this.parseSourceFile(file).ifPresent(compilationUnit ->
                 compilationUnit.findAll(type, predicate).forEach(consumer)
         ));
     }
 
-    private void configureSymbolSolver() {
+    /**
+     * Find the types directly extending the provided type using the type hierarchy index.
+     *
+     * @param type type to find the derived types of
+     * @param consumer callback called for each derived type
+     */
+    public void findDerivedTypes(ClassOrInterfaceDeclaration type, Consumer<ClassOrInterfaceDeclaration> consumer) {
+        String qualifiedName = type.resolve().getQualifiedName();
+        collector.recordSupertype(qualifiedName);
+
+        for (DeclaredType derivedType : getTypeHierarchyIndex().getDirectSubtypes(qualifiedName)) {
+            if (!derivedType.isExtensionOf(qualifiedName)) continue;
+
+            parseSourceFile(derivedType.getFile())
+                .flatMap(unit -> unit.findFirst(ClassOrInterfaceDeclaration.class, declaration ->
+                    declaration.resolve().getQualifiedName().equals(derivedType.getQualifiedName())))
+                .ifPresent(consumer);
+        }
+    }
+
+    private static CompilationUnitCache createCompilationUnitCache(AnalyzeOptions options) {
+        var policy = Objects.requireNonNullElse(options.getParseCacheEvictionPolicy(), CacheEvictionPolicy.SIZE_BOUNDED);
+        return new CompilationUnitCache(options.getParseCacheSize(), policy);
+    }
+
+    /**
+     * Create the configuration of the parser of this context. Every context parses with its own parser and symbol
+     * solver instead of the global configuration of {@code StaticJavaParser}, so contexts in the same JVM no longer
+     * replace each other's symbol solver. The facades of the symbol solvers are kept in a JVM-wide map by
+     * {@link JavaParserFacade#get}, which synchronizes its lookups, so contexts can resolve symbols concurrently. A
+     * parser is only used by the thread analyzing with its context.
+     */
+    private ParserConfiguration createParserConfiguration() {
+        return new ParserConfiguration()
+            .setSymbolResolver(createSymbolSolver())
+            .setLanguageLevel(options.getLanguageLevel());
+    }
+
+    private JavaSymbolSolver createSymbolSolver() {
         var typeSolver = new CombinedTypeSolver(
             new ClassLoaderTypeSolver(options.getClassLoader()),
             new ReflectionTypeSolver(false)
         );
 
-        JavaSymbolSolver symbolSolver = new JavaSymbolSolver(typeSolver);
-        StaticJavaParser.getConfiguration().setSymbolResolver(symbolSolver);
+        return new JavaSymbolSolver(typeSolver);
+    }
+
+    private static class AnalyzedFile {
+        private final List<Invocation> rootInvocations;
+        private final Dependencies dependencies;
 
-        StaticJavaParser.getConfiguration().setLanguageLevel(options.getLanguageLevel());
+        private AnalyzedFile(List<Invocation> rootInvocations, Dependencies dependencies) {
+            this.rootInvocations = rootInvocations;
+            this.dependencies = dependencies;
+        }
     }
 }
@@ -40,4 +40,11 @@ public interface FileManager {
      * @param handler Handler function that will be called for each file
      */
     void walkFileTree(Consumer<File> handler);
+
+    /**
+     * Discard any information cached about the files in the project directory, so added and removed files are
+     * found by subsequent calls. File managers that do not cache anything do not have to implement this.
+     */
+    default void refresh() {
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+
+/**
+ * Reporter adapter that receives the root invocations one by one while the analysis is running, instead of the
+ * complete report once the analysis has finished. Root invocations are not retained by the analyzer when only
+ * streaming reporters are registered, so they can be released as soon as they have been reported.
+ *
+ * All callbacks are made from the thread that started the analysis, with the root invocations in the same order as
+ * they would appear in the complete report.
+ */
+public interface StreamingReporter extends Reporter {
+    /**
+     * Start reporting analysis results
+     *
+     * @param report report containing the details of the analyzed project, without root invocations
+     */
+    void beginReport(AnalysisReport report);
+
+    /**
+     * Report a root invocation of which the invocation tree is complete
+     *
+     * @param rootInvocation root invocation to report
+     */
+    void reportRootInvocation(Invocation rootInvocation);
+
+    /**
+     * Finish reporting analysis results, called once all root invocations have been reported
+     *
+     * @param report report containing the details of the analyzed project
+     */
+    void endReport(AnalysisReport report);
+
+    /**
+     * Report complete analysis results by streaming its root invocations
+     *
+     * @param report analysis result to report
+     */
+    @Override
+    default void report(AnalysisReport report) {
+        beginReport(report);
+        report.getRootInvocations().forEach(this::reportRootInvocation);
+        endReport(report);
+    }
+}
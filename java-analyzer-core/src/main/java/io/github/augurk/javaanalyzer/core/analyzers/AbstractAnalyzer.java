@@ -17,7 +17,6 @@
 package io.github.augurk.javaanalyzer.core.analyzers;
 
 import static io.github.augurk.javaanalyzer.core.analyzers.Predicates.isInCurrentCompilationUnit;
-import static io.github.augurk.javaanalyzer.core.analyzers.Predicates.isTargetMethodDeclaration;
 
 import java.io.File;
 import java.util.Optional;
@@ -91,7 +90,7 @@ public abstract class AbstractAnalyzer extends VoidVisitorAdapter<InvocationColl
     }
 
     protected Optional<MethodDeclaration> findInvokedMethod(ClassOrInterfaceDeclaration type, String signature) {
-        return type.findFirst(MethodDeclaration.class, isTargetMethodDeclaration(signature));
+        return MethodIndex.of(type).findBySignature(signature);
     }
 
     protected Optional<MethodDeclaration> findInterfaceDefinitions(ClassOrInterfaceType type, String signature) {
@@ -16,9 +16,6 @@
 
 package io.github.augurk.javaanalyzer.core.analyzers;
 
-import static io.github.augurk.javaanalyzer.core.analyzers.Predicates.isDerivedTypeOf;
-import static io.github.augurk.javaanalyzer.core.analyzers.Predicates.isTargetMethod;
-
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +67,8 @@ public class InvocationTreeAnalyzer extends AbstractAnalyzer implements Resolvab
 
     @Override
     public void visit(MethodCallExpr expression, InvocationCollector collector) {
+        if (context.getCollector().isCutOff()) return;
+
         Consumer<ResolvedMethodDeclaration> consumer = method -> handleSolvableMethodCallExpr(method, expression);
         Runnable orElse = () -> handleUnsolvableMethodCallExpr(expression);
         resolvedMethodDeclarationOf(expression).ifPresentOrElse(consumer, orElse);
@@ -84,12 +83,13 @@ public class InvocationTreeAnalyzer extends AbstractAnalyzer implements Resolvab
     private void handleUnsolvableMethodCallExpr(MethodCallExpr expression) {
         ClassOrInterfaceType declaringType = variableTypeOf(expression, variableTypeMap);
         CompilationUnit unit = compilationUnitOf(declaringType).orElse(currentCompilationUnit);
-        var predicate = isTargetMethod(expression.getNameAsString(), expression.getArguments().size());
+        String methodName = expression.getNameAsString();
+        int arity = expression.getArguments().size();
 
         Consumer<MethodDeclaration> consumer = method -> handleInvocation(unit, resolvedMethodDeclarationOf(method), expression);
         Runnable orElse = () -> logger.warn("Unable to resolve suitable type for {}", expression);
 
-        findTargetType(MethodDeclaration.class, unit, predicate).ifPresentOrElse(consumer, orElse);
+        MethodIndex.of(unit).findByNameAndArity(methodName, arity).ifPresentOrElse(consumer, orElse);
     }
 
     private void handleInvocation(CompilationUnit unit, ResolvedMethodDeclaration method, MethodCallExpr expression) {
@@ -174,7 +174,7 @@ public class InvocationTreeAnalyzer extends AbstractAnalyzer implements Resolvab
     }
 
     private void handleAbstractMethod(ClassOrInterfaceDeclaration type, String signature) {
-        context.findByPredicate(ClassOrInterfaceDeclaration.class, isDerivedTypeOf(type), derivedType ->
+        context.findDerivedTypes(type, derivedType ->
            findInvokedMethod(derivedType, signature).ifPresent(invokedMethod -> {
                collect(invokedMethod);
 
@@ -232,7 +232,14 @@ public class InvocationTreeAnalyzer extends AbstractAnalyzer implements Resolvab
     }
 
     private void stepInto(CompilationUnit unit, MethodDeclaration method) {
-        stepIntoWith(InvocationTreeAnalyzer.class, unit, method);
+        InvocationCollector collector = context.getCollector();
+
+        if (!collector.isSkipping() && !collector.spliceSubtree()) {
+            collector.beginSubtree();
+            stepIntoWith(InvocationTreeAnalyzer.class, unit, method);
+            collector.endSubtree();
+        }
+
         stepOut();
     }
 
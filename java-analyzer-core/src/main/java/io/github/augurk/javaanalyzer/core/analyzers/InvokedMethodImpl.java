@@ -25,12 +25,18 @@ import io.github.augurk.javaanalyzer.core.collectors.InvokedMethod;
 import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
+/**
+ * A method invoked from an invocation. The qualified signature of the method and the hash code are computed once,
+ * because invoked methods are compared against every method on the call stack of an analysis.
+ */
 public class InvokedMethodImpl implements InvokedMethod, Signature, QualifiedName {
     private final String declaringType;
+    private final String signature;
     private final List<ImmutablePair<String, String>> argumentTypes;
     private final ResolvedMethodDeclaration method;
     private final List<MethodDeclaration> interfaceDefinitions;
     private final boolean isLocal;
+    private final int hash;
 
     public InvokedMethodImpl(ResolvedMethodDeclaration method, List<MethodDeclaration> interfaceDefinitions,
                              List<ImmutablePair<String, String>> argumentTypes, boolean isLocal) {
@@ -40,6 +46,8 @@ public class InvokedMethodImpl implements InvokedMethod, Signature, QualifiedNam
         this.method = method;
         this.interfaceDefinitions = interfaceDefinitions;
         this.isLocal = isLocal;
+        this.signature = qualifiedSignatureOf(method);
+        this.hash = calculateHash();
     }
 
     @Override
@@ -61,7 +69,7 @@ public class InvokedMethodImpl implements InvokedMethod, Signature, QualifiedNam
 
     @Override
     public String getSignature() {
-        return qualifiedSignatureOf(method);
+        return signature;
     }
 
     @Override
@@ -83,15 +91,24 @@ public class InvokedMethodImpl implements InvokedMethod, Signature, QualifiedNam
 
         InvokedMethodImpl that = (InvokedMethodImpl) o;
 
-        return Objects.equals(declaringType, that.declaringType)
-            && Objects.equals(interfaceDefinitions, that.interfaceDefinitions)
-            && Objects.equals(getSignature(), that.getSignature())
-            && Objects.equals(argumentTypes.size(), that.argumentTypes.size())
-            && Objects.equals(isLocal, that.isLocal);
+        return hash == that.hash
+            && isLocal == that.isLocal
+            && argumentTypes.size() == that.argumentTypes.size()
+            && Objects.equals(signature, that.signature)
+            && Objects.equals(declaringType, that.declaringType)
+            && Objects.equals(interfaceDefinitions, that.interfaceDefinitions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(declaringType, interfaceDefinitions, getSignature(), argumentTypes.size(), isLocal);
+        return hash;
+    }
+
+    /**
+     * Calculate the hash code from the cheap to compare members only. The interface definitions are left out, as
+     * hashing a declaration hashes its complete syntax tree.
+     */
+    private int calculateHash() {
+        return Objects.hash(declaringType, signature, argumentTypes.size(), isLocal);
     }
 }
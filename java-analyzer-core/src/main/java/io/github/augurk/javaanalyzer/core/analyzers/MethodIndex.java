@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.analyzers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+/**
+ * Index of the method declarations within a type declaration or compilation unit, looked up by signature or by name.
+ * Methods are kept in the order in which they are declared, so lookups return the same method a pre-order search of
+ * the scope would. Signatures require resolving a method and are therefore only indexed up to the method that was
+ * asked for. The index is attached to the node it covers and is shared by all analyzers visiting that node.
+ */
+final class MethodIndex {
+    private static final DataKey<MethodIndex> METHOD_INDEX = new DataKey<>() { };
+
+    private final List<MethodDeclaration> methods;
+    private final Map<String, List<MethodDeclaration>> methodsByName;
+    private final Map<String, MethodDeclaration> methodsBySignature;
+    private int indexedSignatures;
+
+    private MethodIndex(List<MethodDeclaration> methods) {
+        this.methods = methods;
+        this.methodsByName = new HashMap<>();
+        this.methodsBySignature = new HashMap<>();
+
+        methods.forEach(method ->
+            methodsByName.computeIfAbsent(method.getNameAsString(), name -> new ArrayList<>()).add(method));
+    }
+
+    /**
+     * Returns the index of the methods declared within the given scope, including those of nested and anonymous
+     * classes. The index is built on first use.
+     */
+    static MethodIndex of(Node scope) {
+        return Resolutions.memoize(scope, METHOD_INDEX, () -> new MethodIndex(scope.findAll(MethodDeclaration.class)));
+    }
+
+    /**
+     * Finds the first method with the given (unqualified) signature.
+     */
+    Optional<MethodDeclaration> findBySignature(String signature) {
+        var method = methodsBySignature.get(signature);
+
+        while (method == null && indexedSignatures < methods.size()) {
+            var next = methods.get(indexedSignatures);
+            methodsBySignature.putIfAbsent(Resolutions.signatureOf(next), next);
+            indexedSignatures++;
+            method = methodsBySignature.get(signature);
+        }
+
+        return Optional.ofNullable(method);
+    }
+
+    /**
+     * Finds all methods with the given name in order of declaration.
+     */
+    List<MethodDeclaration> findByName(String name) {
+        return Collections.unmodifiableList(methodsByName.getOrDefault(name, Collections.emptyList()));
+    }
+
+    /**
+     * Finds the method with the given name and number of parameters, provided exactly one such method exists.
+     */
+    Optional<MethodDeclaration> findByNameAndArity(String name, int arity) {
+        List<MethodDeclaration> matches = findByName(name).stream()
+            .filter(method -> method.getParameters().size() == arity)
+            .collect(Collectors.toList());
+
+        return matches.size() == 1 ? Optional.of(matches.get(0)) : Optional.empty();
+    }
+}
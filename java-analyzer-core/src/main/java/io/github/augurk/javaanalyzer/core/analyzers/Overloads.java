@@ -16,13 +16,10 @@
 
 package io.github.augurk.javaanalyzer.core.analyzers;
 
-import static io.github.augurk.javaanalyzer.core.analyzers.Predicates.isTargetMethod;
-
 import java.util.List;
 import java.util.stream.Collectors;
 
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
 import io.github.augurk.javaanalyzer.core.domain.OverloadHandling;
 
@@ -34,7 +31,7 @@ interface Overloads extends Signature {
     }
 
     default List<String> overloadSignaturesOf(CompilationUnit unit, String methodName) {
-        return unit.findAll(MethodDeclaration.class, isTargetMethod(methodName)).stream()
+        return MethodIndex.of(unit).findByName(methodName).stream()
             .map(this::qualifiedSignatureOf)
             .collect(Collectors.toUnmodifiableList());
     }
@@ -20,8 +20,6 @@ import java.util.function.Predicate;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 
 interface Predicates {
@@ -31,35 +29,12 @@ interface Predicates {
 
     static Predicate<ClassOrInterfaceDeclaration> isInCurrentCompilationUnit(ResolvedMethodDeclaration declaration) {
         return cid -> {
-            String qualifiedName = declaration.declaringType().getQualifiedName();
-            return cid.resolve().getQualifiedName().equals(qualifiedName);
+            String qualifiedName = Resolutions.qualifiedNameOfDeclaringType(declaration);
+            return Resolutions.qualifiedNameOf(cid).equals(qualifiedName);
         };
     }
 
     static Predicate<ClassOrInterfaceDeclaration> isTargetClassOrInterfaceDeclaration(String qualifiedName) {
-        return cid -> cid.resolve().getQualifiedName().equals(qualifiedName);
-    }
-
-    static Predicate<ClassOrInterfaceType> isTargetClassOrInterfaceType(String qualifiedName) {
-        return cit -> cit.resolve().getQualifiedName().equals(qualifiedName);
-    }
-
-    static Predicate<ClassOrInterfaceDeclaration> isDerivedTypeOf(ClassOrInterfaceDeclaration declaration) {
-        String qualifiedName = declaration.resolve().getQualifiedName();
-
-        return cid -> cid.getExtendedTypes().stream()
-            .anyMatch(isTargetClassOrInterfaceType(qualifiedName));
-    }
-
-    static Predicate<MethodDeclaration> isTargetMethodDeclaration(String signature) {
-        return md -> md.resolve().getSignature().equals(signature);
-    }
-
-    static Predicate<MethodDeclaration> isTargetMethod(String methodName) {
-        return md -> md.getNameAsString().equals(methodName);
-    }
-
-    static Predicate<MethodDeclaration> isTargetMethod(String methodName, int params) {
-        return md -> md.getNameAsString().equals(methodName) && md.getParameters().size() == params;
+        return cid -> Resolutions.qualifiedNameOf(cid).equals(qualifiedName);
     }
 }
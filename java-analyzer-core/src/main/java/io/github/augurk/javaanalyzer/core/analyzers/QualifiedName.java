@@ -25,15 +25,15 @@ import com.github.javaparser.resolution.types.ResolvedReferenceType;
 
 interface QualifiedName {
     default String qualifiedNameOf(NormalAnnotationExpr type) {
-        return qualifiedNameOf(type.resolve());
+        return Resolutions.qualifiedNameOf(type);
     }
 
     default String qualifiedNameOf(ClassOrInterfaceDeclaration type) {
-        return qualifiedNameOf(type.resolve());
+        return Resolutions.qualifiedNameOf(type);
     }
 
     default String qualifiedNameOf(ClassOrInterfaceType type) {
-        return qualifiedNameOf(type.resolve());
+        return Resolutions.qualifiedNameOf(type);
     }
 
     default String qualifiedNameOf(ResolvedReferenceType type) {
@@ -41,7 +41,7 @@ interface QualifiedName {
     }
 
     default String qualifiedNameOfDeclaringType(ResolvedMethodDeclaration method) {
-        return qualifiedNameOf(method.declaringType());
+        return Resolutions.qualifiedNameOfDeclaringType(method);
     }
 
     default String qualifiedNameOf(ResolvedReferenceTypeDeclaration type) {
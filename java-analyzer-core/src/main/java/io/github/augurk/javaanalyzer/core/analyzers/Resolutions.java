@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.analyzers;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserMethodDeclaration;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
+
+/**
+ * Memoizes symbol resolution results on the nodes they were resolved from. Resolving the same node over and over
+ * again is the dominant cost of an analysis, as every resolution walks the scopes of the compilation unit and
+ * consults the type solvers. Results are stored as node data, which keys them by node identity and ties their
+ * lifetime to the compilation unit the node belongs to. Failed resolutions are remembered as well, so an unsolvable
+ * symbol is only attempted once. Every resolution that is not memoized is recorded in the metrics of the analysis.
+ */
+final class Resolutions {
+    private static final DataKey<Optional<ResolvedMethodDeclaration>> INVOKED_METHOD = new DataKey<>() { };
+    private static final DataKey<Optional<ResolvedType>> EXPRESSION_TYPE = new DataKey<>() { };
+    private static final DataKey<Resolution<ResolvedMethodDeclaration>> DECLARED_METHOD = new DataKey<>() { };
+    private static final DataKey<Resolution<String>> SIGNATURE = new DataKey<>() { };
+    private static final DataKey<Resolution<String>> QUALIFIED_SIGNATURE = new DataKey<>() { };
+    private static final DataKey<Resolution<String>> DECLARING_TYPE = new DataKey<>() { };
+    private static final DataKey<Resolution<String>> QUALIFIED_NAME = new DataKey<>() { };
+
+    private Resolutions() {
+    }
+
+    static Optional<ResolvedMethodDeclaration> resolvedMethodDeclarationOf(MethodCallExpr expression) {
+        return memoize(expression, INVOKED_METHOD, () -> {
+            try {
+                return Optional.of(measure(expression, expression::resolve));
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    static Optional<ResolvedType> resolvedTypeOf(Expression expression) {
+        return memoize(expression, EXPRESSION_TYPE, () -> {
+            try {
+                return Optional.of(measure(expression, expression::calculateResolvedType));
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    static ResolvedMethodDeclaration resolvedMethodDeclarationOf(MethodDeclaration method) {
+        return resolve(method, DECLARED_METHOD, () -> measure(method, method::resolve));
+    }
+
+    static String signatureOf(MethodDeclaration method) {
+        return resolve(method, SIGNATURE, () -> resolvedMethodDeclarationOf(method).getSignature());
+    }
+
+    static String signatureOf(ResolvedMethodDeclaration method) {
+        return declarationOf(method)
+            .map(Resolutions::signatureOf)
+            .orElseGet(method::getSignature);
+    }
+
+    static String qualifiedSignatureOf(MethodDeclaration method) {
+        return resolve(method, QUALIFIED_SIGNATURE, () -> resolvedMethodDeclarationOf(method).getQualifiedSignature());
+    }
+
+    static String qualifiedSignatureOf(ResolvedMethodDeclaration method) {
+        return declarationOf(method)
+            .map(Resolutions::qualifiedSignatureOf)
+            .orElseGet(method::getQualifiedSignature);
+    }
+
+    static String qualifiedNameOfDeclaringType(ResolvedMethodDeclaration method) {
+        return declarationOf(method)
+            .map(declaration -> resolve(declaration, DECLARING_TYPE, () -> method.declaringType().getQualifiedName()))
+            .orElseGet(() -> method.declaringType().getQualifiedName());
+    }
+
+    static String qualifiedNameOf(ClassOrInterfaceDeclaration type) {
+        return resolve(type, QUALIFIED_NAME, () -> measure(type, type::resolve).getQualifiedName());
+    }
+
+    static String qualifiedNameOf(ClassOrInterfaceType type) {
+        return resolve(type, QUALIFIED_NAME, () -> measure(type, type::resolve).getQualifiedName());
+    }
+
+    static String qualifiedNameOf(NormalAnnotationExpr annotation) {
+        return resolve(annotation, QUALIFIED_NAME, () -> measure(annotation, annotation::resolve).getQualifiedName());
+    }
+
+    private static Optional<MethodDeclaration> declarationOf(ResolvedMethodDeclaration method) {
+        return method instanceof JavaParserMethodDeclaration
+            ? Optional.of(((JavaParserMethodDeclaration) method).getWrappedNode())
+            : Optional.empty();
+    }
+
+    static <T> T memoize(Node node, DataKey<T> key, Supplier<T> supplier) {
+        if (node.containsData(key)) {
+            return node.getData(key);
+        }
+
+        T value = supplier.get();
+        node.setData(key, value);
+        return value;
+    }
+
+    private static <T> T measure(Node node, Supplier<T> resolver) {
+        var metrics = AnalysisMetrics.of(node);
+        if (metrics.isEmpty()) return resolver.get();
+
+        long startTime = System.nanoTime();
+        boolean resolved = false;
+
+        try {
+            T value = resolver.get();
+            resolved = true;
+            return value;
+        } finally {
+            metrics.get().recordResolve(System.nanoTime() - startTime, resolved);
+        }
+    }
+
+    private static <T> T resolve(Node node, DataKey<Resolution<T>> key, Supplier<T> resolver) {
+        return memoize(node, key, () -> Resolution.of(resolver)).get();
+    }
+
+    /**
+     * The outcome of a resolution that either produced a value or failed with an exception, which is rethrown
+     * every time the outcome is requested.
+     */
+    private static final class Resolution<T> {
+        private final T value;
+        private final RuntimeException failure;
+
+        private Resolution(T value, RuntimeException failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        static <T> Resolution<T> of(Supplier<T> supplier) {
+            try {
+                return new Resolution<>(supplier.get(), null);
+            } catch (RuntimeException e) {
+                return new Resolution<>(null, e);
+            }
+        }
+
+        T get() {
+            if (failure != null) {
+                throw failure;
+            }
+
+            return value;
+        }
+    }
+}
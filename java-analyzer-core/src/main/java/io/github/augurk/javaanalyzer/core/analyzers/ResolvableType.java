@@ -26,22 +26,14 @@ import com.github.javaparser.resolution.types.ResolvedType;
 
 interface ResolvableType {
     default Optional<ResolvedMethodDeclaration> resolvedMethodDeclarationOf(MethodCallExpr expression) {
-        try {
-            return Optional.of(expression.resolve());
-        } catch (RuntimeException e) {
-            return Optional.empty();
-        }
+        return Resolutions.resolvedMethodDeclarationOf(expression);
     }
 
     default Optional<ResolvedType> resolvedTypeOf(Expression expression) {
-        try  {
-            return Optional.of(expression.calculateResolvedType());
-        } catch (RuntimeException e) {
-            return Optional.empty();
-        }
+        return Resolutions.resolvedTypeOf(expression);
     }
 
     default ResolvedMethodDeclaration resolvedMethodDeclarationOf(MethodDeclaration method) {
-        return method.resolve();
+        return Resolutions.resolvedMethodDeclarationOf(method);
     }
 }
@@ -21,14 +21,14 @@ import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 
 interface Signature {
     default String signatureOf(ResolvedMethodDeclaration method) {
-        return method.getSignature();
+        return Resolutions.signatureOf(method);
     }
 
     default String qualifiedSignatureOf(MethodDeclaration method) {
-        return qualifiedSignatureOf(method.resolve());
+        return Resolutions.qualifiedSignatureOf(method);
     }
 
     default String qualifiedSignatureOf(ResolvedMethodDeclaration method) {
-        return method.getQualifiedSignature();
+        return Resolutions.qualifiedSignatureOf(method);
     }
 }
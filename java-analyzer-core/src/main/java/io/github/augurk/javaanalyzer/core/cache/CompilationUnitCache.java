@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.augurk.javaanalyzer.core.cache;
+
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.augurk.javaanalyzer.core.options.CacheEvictionPolicy;
+
+/**
+ * Cache of parsed compilation units, keyed by the path of the source file. An entry is only considered valid as long
+ * as the modification time and size of the source file are unchanged.
+ */
+public class CompilationUnitCache {
+    private final int maximumSize;
+    private final CacheEvictionPolicy policy;
+    private final Map<String, Entry> entries;
+    private final ReferenceQueue<CompilationUnit> collectedUnits;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create a new compilation unit cache.
+     *
+     * @param maximumSize maximum number of cached compilation units, a value of zero or less means unbounded
+     * @param policy eviction policy of the cache
+     */
+    public CompilationUnitCache(int maximumSize, CacheEvictionPolicy policy) {
+        this.maximumSize = maximumSize;
+        this.policy = policy;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.collectedUnits = new ReferenceQueue<>();
+    }
+
+    /**
+     * Return the compilation unit of the provided file, parsing it with the provided parser when there is no valid
+     * cached entry. Failed parse attempts are not cached.
+     *
+     * @param file source file to return the compilation unit of
+     * @param parser function used to parse the file on a cache miss
+     * @return Optional containing the compilation unit
+     */
+    public Optional<CompilationUnit> get(File file, Function<File, Optional<CompilationUnit>> parser) {
+        String key = keyOf(file);
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        CompilationUnit cached = lookup(key, lastModified, length);
+        if (cached != null) return Optional.of(cached);
+
+        Optional<CompilationUnit> compilationUnit = parser.apply(file);
+        compilationUnit.ifPresent(unit -> store(key, unit, lastModified, length));
+        return compilationUnit;
+    }
+
+    /**
+     * Remove the cached compilation unit of the provided file.
+     *
+     * @param file source file to invalidate
+     */
+    public synchronized void invalidate(File file) {
+        entries.remove(keyOf(file));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private synchronized CompilationUnit lookup(String key, long lastModified, long length) {
+        Entry entry = entries.get(key);
+        CompilationUnit unit = entry != null && entry.isValid(lastModified, length) ? entry.get() : null;
+
+        if (unit != null) {
+            hitCount++;
+            return unit;
+        }
+
+        if (entry != null) {
+            entries.remove(key);
+            evictionCount++;
+        }
+
+        missCount++;
+        return null;
+    }
+
+    private synchronized void store(String key, CompilationUnit unit, long lastModified, long length) {
+        if (policy == CacheEvictionPolicy.SOFT_REFERENCE) {
+            purgeCollectedEntries();
+            entries.put(key, new Entry(new KeyedReference(key, unit, collectedUnits), lastModified, length));
+        } else {
+            entries.put(key, new Entry(unit, lastModified, length));
+            if (maximumSize > 0) evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (entries.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private void purgeCollectedEntries() {
+        Reference<? extends CompilationUnit> reference;
+
+        while ((reference = collectedUnits.poll()) != null) {
+            String key = ((KeyedReference) reference).key;
+            Entry entry = entries.get(key);
+
+            if (entry != null && entry.reference == reference) {
+                entries.remove(key);
+                evictionCount++;
+            }
+        }
+    }
+
+    private static String keyOf(File file) {
+        return file.getAbsolutePath();
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final long length;
+        private final CompilationUnit unit;
+        private final KeyedReference reference;
+
+        private Entry(CompilationUnit unit, long lastModified, long length) {
+            this.unit = unit;
+            this.reference = null;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private Entry(KeyedReference reference, long lastModified, long length) {
+            this.unit = null;
+            this.reference = reference;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private CompilationUnit get() {
+            return reference != null ? reference.get() : unit;
+        }
+
+        private boolean isValid(long lastModified, long length) {
+            return this.lastModified == lastModified && this.length == length;
+        }
+    }
+
+    private static final class KeyedReference extends SoftReference<CompilationUnit> {
+        private final String key;
+
+        private KeyedReference(String key, CompilationUnit unit, ReferenceQueue<CompilationUnit> queue) {
+            super(unit, queue);
+            this.key = key;
+        }
+    }
+}
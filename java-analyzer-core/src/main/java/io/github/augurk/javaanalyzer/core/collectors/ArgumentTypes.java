@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+/**
+ * The actual types of the arguments declared along a chain of invocations, keyed by the qualified name of the declared
+ * type. The top-most invocation that declares an argument type for a type determines its actual type, so declarations
+ * are only ever added going down the call stack. An invocation that does not declare a new type shares the argument
+ * types of its parent. Otherwise its declarations are added to a persistent hash trie, which copies only the nodes on
+ * the path to each new declaration and shares the rest with its parent. Adding a declaration to k declarations
+ * therefore takes O(log k) instead of copying all k, and a lookup does not depend on the depth of the invocation.
+ */
+final class ArgumentTypes {
+    private static final ArgumentTypes EMPTY = new ArgumentTypes(Trie.EMPTY);
+
+    private final Trie declarations;
+
+    private ArgumentTypes(Trie declarations) {
+        this.declarations = declarations;
+    }
+
+    static ArgumentTypes empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Return the argument types including the provided argument types of an invocation at the provided depth. Types
+     * that are already declared keep their actual type. When an invocation provides a type more than once, the first
+     * pair determines its actual type; when that pair has no actual type, the invocation does not declare the type.
+     *
+     * @param argumentTypes pairs of declared and actual type of the arguments of the invocation
+     * @param depth depth of the invocation
+     * @return argument types including those of the invocation, or these argument types when nothing is added
+     */
+    ArgumentTypes with(List<ImmutablePair<String, String>> argumentTypes, int depth) {
+        Trie added = declarations;
+
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            var typePair = argumentTypes.get(i);
+            if (typePair.right == null || isProvidedBefore(argumentTypes, i) || added.get(typePair.left) != null) {
+                continue;
+            }
+
+            added = added.put(new Entry(typePair.left, new Declaration(typePair.right, depth), null), 0);
+        }
+
+        return added == declarations ? this : new ArgumentTypes(added);
+    }
+
+    private static boolean isProvidedBefore(List<ImmutablePair<String, String>> argumentTypes, int index) {
+        for (int i = 0; i < index; i++) {
+            if (argumentTypes.get(i).left.equals(argumentTypes.get(index).left)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Return the declaration of the argument type for the provided type.
+     *
+     * @param qualifiedName qualified name of the type
+     * @return declaration, or null when no invocation declares an argument type
+     */
+    Declaration get(String qualifiedName) {
+        return declarations.get(qualifiedName);
+    }
+
+    static final class Declaration {
+        private final String actualType;
+        private final int depth;
+
+        private Declaration(String actualType, int depth) {
+            this.actualType = actualType;
+            this.depth = depth;
+        }
+
+        String getActualType() {
+            return actualType;
+        }
+
+        /**
+         * Return the depth of the top-most invocation that declares the argument type.
+         *
+         * @return depth of the declaring invocation
+         */
+        int getDepth() {
+            return depth;
+        }
+    }
+
+    /**
+     * Node of a hash array mapped trie. Each level uses five bits of the hash of a type to pick one of 32 slots, of
+     * which only the used ones are stored, in the order of their bits in the bitmap. A slot holds either a child node
+     * or the entries of the types sharing that part of the hash. Nodes are never changed once created.
+     */
+    private static final class Trie {
+        private static final Trie EMPTY = new Trie(0, new Object[0]);
+        private static final int BITS = 5;
+        private static final int MASK = (1 << BITS) - 1;
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Trie(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private Declaration get(String key) {
+            int hash = key.hashCode();
+            Trie node = this;
+
+            for (int shift = 0; ; shift += BITS) {
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0) return null;
+
+                Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+                if (slot instanceof Entry) return ((Entry) slot).find(key);
+
+                node = (Trie) slot;
+            }
+        }
+
+        /**
+         * Return a trie that includes the provided entry, which must not be in this trie yet.
+         */
+        private Trie put(Entry entry, int shift) {
+            int bit = 1 << ((entry.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+
+            if ((bitmap & bit) == 0) {
+                Object[] added = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, added, 0, index);
+                added[index] = entry;
+                System.arraycopy(slots, index, added, index + 1, slots.length - index);
+                return new Trie(bitmap | bit, added);
+            }
+
+            Object slot = slots[index];
+            Object[] replaced = slots.clone();
+
+            if (slot instanceof Trie) {
+                replaced[index] = ((Trie) slot).put(entry, shift + BITS);
+            } else if (((Entry) slot).hash == entry.hash) {
+                replaced[index] = new Entry(entry.key, entry.declaration, (Entry) slot);
+            } else {
+                replaced[index] = EMPTY.put((Entry) slot, shift + BITS).put(entry, shift + BITS);
+            }
+
+            return new Trie(bitmap, replaced);
+        }
+    }
+
+    /**
+     * Declaration of an argument type in the trie, linked to the other entries of which the type has the same hash.
+     */
+    private static final class Entry {
+        private final String key;
+        private final int hash;
+        private final Declaration declaration;
+        private final Entry next;
+
+        private Entry(String key, Declaration declaration, Entry next) {
+            this.key = key;
+            this.hash = key.hashCode();
+            this.declaration = declaration;
+            this.next = next;
+        }
+
+        private Declaration find(String key) {
+            for (Entry entry = this; entry != null; entry = entry.next) {
+                if (entry.key.equals(key)) return entry.declaration;
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Everything the invocation trees of an analysis depended on outside of the analyzed source: the source files that
+ * were parsed, the qualified names that could not be found in the project and the types of which the derived types
+ * were looked up. Used by the incremental analysis to decide which entry points have to be analyzed again.
+ */
+public class Dependencies {
+    private final Set<String> sourceFiles;
+    private final Set<String> unresolvedTypes;
+    private final Set<String> supertypes;
+
+    public Dependencies() {
+        this(new HashSet<>(), new HashSet<>(), new HashSet<>());
+    }
+
+    public Dependencies(Set<String> sourceFiles, Set<String> unresolvedTypes, Set<String> supertypes) {
+        this.sourceFiles = sourceFiles;
+        this.unresolvedTypes = unresolvedTypes;
+        this.supertypes = supertypes;
+    }
+
+    /**
+     * Return the absolute paths of the source files that were parsed.
+     *
+     * @return set of absolute paths
+     */
+    public Set<String> getSourceFiles() {
+        return Collections.unmodifiableSet(sourceFiles);
+    }
+
+    /**
+     * Return the qualified names that were looked up, but could not be found in the project.
+     *
+     * @return set of qualified names
+     */
+    public Set<String> getUnresolvedTypes() {
+        return Collections.unmodifiableSet(unresolvedTypes);
+    }
+
+    /**
+     * Return the qualified names of the types of which the derived types were looked up.
+     *
+     * @return set of qualified names
+     */
+    public Set<String> getSupertypes() {
+        return Collections.unmodifiableSet(supertypes);
+    }
+
+    public void addSourceFile(String path) {
+        sourceFiles.add(path);
+    }
+
+    public void addUnresolvedType(String qualifiedName) {
+        unresolvedTypes.add(qualifiedName);
+    }
+
+    public void addSupertype(String qualifiedName) {
+        supertypes.add(qualifiedName);
+    }
+
+    public void addAll(Dependencies dependencies) {
+        sourceFiles.addAll(dependencies.sourceFiles);
+        unresolvedTypes.addAll(dependencies.unresolvedTypes);
+        supertypes.addAll(dependencies.supertypes);
+    }
+}
@@ -16,32 +16,89 @@
 
 package io.github.augurk.javaanalyzer.core.collectors;
 
+import java.io.File;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Queues;
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.CompactInvocation;
 import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationGraph;
+import io.github.augurk.javaanalyzer.core.domain.SignatureTable;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.ReportLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class InvocationCollector {
+    private static final Logger logger = LoggerFactory.getLogger(InvocationCollector.class);
+    private static final String DEPTH_TRUNCATION = "exceeded maximum depth of ";
+
     private final AnalysisReport report;
+    private final InvocationSummaries summaries;
+    private final AnalysisMetrics metrics;
+    private final int maxDepth;
+    private final int maxInvocationCount;
+    private final long rootTimeBudgetNanos;
+    private final SignatureTable signatureTable;
+    private final InvocationGraph invocationGraph;
 
+    private Consumer<Invocation> rootInvocationHandler;
     private Deque<InvokedMethod> callStack;
+    private Multiset<InvokedMethod> methodsOnCallStack;
     private InvocationWrapper rootInvocation;
     private InvocationWrapper currentInvocation;
+    private Set<String> reachedSignatures;
+    private Dependencies dependencies;
+    private long rootStartTime;
+    private int rootInvocationCount;
+    private int skippedInvocations;
+    private String truncation;
+    private boolean timeBudgetExceeded;
 
     public InvocationCollector(AnalyzeOptions options) {
+        this(options, new AnalysisMetrics());
+    }
+
+    public InvocationCollector(AnalyzeOptions options, AnalysisMetrics metrics) {
         String projectName = options.getProjectName();
         String projectVersion = options.getVersion();
 
         report = new AnalysisReport(projectName, projectVersion);
+        rootInvocationHandler = report::addRootInvocation;
         callStack = Queues.newArrayDeque();
+        methodsOnCallStack = HashMultiset.create();
+        summaries = options.isMemoizeSubtrees() ? new InvocationSummaries(metrics, options.getSubtreeCacheSize()) : null;
+        dependencies = options.getIncrementalStateFile() != null ? new Dependencies() : null;
+        this.metrics = metrics;
+        maxDepth = options.getMaxInvocationDepth();
+        maxInvocationCount = options.getMaxInvocationCount();
+        rootTimeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(options.getRootTimeBudgetMillis());
+        signatureTable = options.isCompactInvocationTrees() ? new SignatureTable() : null;
+        invocationGraph = options.getReportLayout() == ReportLayout.DAG ? new InvocationGraph() : null;
     }
 
     public AnalysisReport getReport() {
         return report;
     }
 
+    /**
+     * Replace the handler of completed root invocations. By default root invocations are added to the report.
+     *
+     * @param handler handler called with each root invocation once its invocation tree is complete
+     */
+    public void setRootInvocationHandler(Consumer<Invocation> handler) {
+        rootInvocationHandler = handler;
+    }
+
     public Invocation beginRootInvocation(String signature, String whenExpression, AutomationTarget automationTarget) {
         automationTarget = automationTarget == null
             ? DefaultAutomationTarget.getInstance()
@@ -49,36 +106,264 @@ public class InvocationCollector {
 
         InvocationWrapper invocation = new InvocationWrapper(signature, whenExpression, automationTarget);
         rootInvocation = invocation;
+        reachedSignatures = new HashSet<>();
+        rootStartTime = System.nanoTime();
+        rootInvocationCount = 0;
+        skippedInvocations = 0;
+        truncation = null;
         return step(invocation);
     }
 
     public void endRootInvocation() {
         rootInvocation.process();
-        report.addRootInvocation(rootInvocation);
+        rootInvocation.recordReachedSignatures(reachedSignatures);
+        metrics.recordRootInvocation(rootInvocation.getSignature(), System.nanoTime() - rootStartTime);
+        if (truncation != null) logger.warn("Truncated invocation tree of {}: {}", rootInvocation.getSignature(), truncation);
+        rootInvocationHandler.accept(finished(rootInvocation));
         callStack = Queues.newArrayDeque();
+        methodsOnCallStack = HashMultiset.create();
         rootInvocation = currentInvocation = null;
+        reachedSignatures = null;
+        if (summaries != null) summaries.reset();
+    }
+
+    private Invocation finished(InvocationWrapper rootInvocation) {
+        if (invocationGraph != null) return invocationGraph.add(rootInvocation);
+        if (signatureTable != null) return new CompactInvocation(rootInvocation, signatureTable);
+        return rootInvocation;
     }
 
+    /**
+     * Step out of the current invocation to its parent. Steps out of an invocation that has been left out are
+     * ignored. The analysis of the root invocation is cut off when it exceeded its time budget.
+     *
+     * @return the invocation stepped out to
+     */
     public Invocation stepOut() {
-        callStack.poll();
+        if (skippedInvocations > 0) {
+            skippedInvocations--;
+            return currentInvocation;
+        }
+
+        var method = callStack.poll();
+        if (method != null) methodsOnCallStack.remove(method);
         var parent = currentInvocation.getParent();
-        return parent == null ? rootInvocation : step(parent);
+        var invocation = parent == null ? rootInvocation : step(parent);
+        if (isTimeBudgetExceeded()) truncateByTimeBudget();
+        return invocation;
     }
 
+    /**
+     * Collect an invocation of the provided method from the current invocation and step into it. The invocation is
+     * left out when it exceeds the maximum depth or the analysis of the root invocation has been cut off, in which
+     * case the current invocation is marked as truncated and the matching {@link #stepOut()} is ignored.
+     *
+     * @param method invoked method
+     * @return the collected invocation, or the current invocation when the invocation has been left out
+     */
     public Invocation collect(InvokedMethod method) {
+        if (skippedInvocations > 0 || !isWithinBudget(currentInvocation.getDepth() + 1)) {
+            skippedInvocations++;
+            return currentInvocation;
+        }
+
         callStack.push(method);
+        methodsOnCallStack.add(method);
+        if (summaries != null) summaries.recordCollected(method, currentInvocation.getDepth() + 1);
         InvocationWrapper invocation = currentInvocation.addInvocation(method);
+        reachedSignatures.add(method.getSignature());
+        metrics.recordInvocation(invocation.getDepth());
+        rootInvocationCount++;
         return step(invocation);
     }
 
+    /**
+     * Return whether the invocations made from the current invocation are left out. This is the case when the
+     * current invocation has been left out itself, or the analysis of the root invocation has been cut off.
+     *
+     * @return true when the current invocation should not be analyzed further
+     */
+    public boolean isSkipping() {
+        return skippedInvocations > 0 || isCutOff();
+    }
+
+    /**
+     * Return whether the analysis of the current root invocation has been cut off, because it exceeded the maximum
+     * number of invocations or its time budget.
+     *
+     * @return true when no further invocations are collected for the current root invocation
+     */
+    public boolean isCutOff() {
+        return truncation != null && !truncation.startsWith(DEPTH_TRUNCATION);
+    }
+
+    private boolean isWithinBudget(int depth) {
+        if (isCutOff()) return false;
+
+        if (maxInvocationCount > 0 && rootInvocationCount >= maxInvocationCount) {
+            truncate("exceeded maximum of " + maxInvocationCount + " invocations");
+            return false;
+        }
+
+        if (isTimeBudgetExceeded()) {
+            truncateByTimeBudget();
+            return false;
+        }
+
+        if (maxDepth > 0 && depth > maxDepth) {
+            if (truncation == null) truncation = DEPTH_TRUNCATION + maxDepth;
+            markTruncated();
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isTimeBudgetExceeded() {
+        return rootTimeBudgetNanos > 0 && System.nanoTime() - rootStartTime > rootTimeBudgetNanos;
+    }
+
+    /**
+     * Cut off the analysis of the current root invocation because it exceeded its time budget. Where the invocation
+     * tree is cut off depends on the speed of this analysis, so the dependencies recorded for it are discarded.
+     */
+    private void truncateByTimeBudget() {
+        if (isCutOff()) return;
+
+        timeBudgetExceeded = true;
+        truncate("exceeded time budget of " + toMillis(rootTimeBudgetNanos) + " ms");
+    }
+
+    private void truncate(String reason) {
+        if (isCutOff()) return;
+
+        truncation = reason;
+        markTruncated();
+    }
+
+    private void markTruncated() {
+        currentInvocation.truncate();
+        rootInvocation.truncate();
+        if (summaries != null) summaries.recordTruncation();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Return whether the provided method is already on the call stack, which means it is invoked recursively. The
+     * methods on the call stack are counted in a hash multiset, so the call stack is only walked to determine the depth
+     * of the recursion when memoizing subtrees.
+     *
+     * @param invokedMethod invoked method
+     * @return true when the method is already on the call stack
+     */
     public boolean isAlreadyCollected(InvokedMethod invokedMethod) {
-        return callStack.contains(invokedMethod);
+        if (!methodsOnCallStack.contains(invokedMethod)) return false;
+        if (summaries == null) return true;
+
+        int depth = 1;
+
+        for (Iterator<InvokedMethod> it = callStack.descendingIterator(); it.hasNext(); depth++) {
+            if (it.next().equals(invokedMethod)) {
+                summaries.recordRecursion(depth);
+                return true;
+            }
+        }
+
+        return false;
     }
 
     public String getActualType(String qualifiedName) {
+        if (summaries != null) summaries.recordLookup(currentInvocation, qualifiedName);
         return currentInvocation.findArgumentType(qualifiedName);
     }
 
+    /**
+     * Add the memoized subtree of the method of the current invocation, when the method has been analyzed before in
+     * an equivalent context. The methods invoked in the subtree are recorded as reached by the root invocation, and
+     * its invocations count towards the maximum number of invocations of the root invocation. A subtree that does not
+     * fit in the remaining budget is not added.
+     *
+     * @return true when the subtree has been added and the method does not have to be analyzed
+     */
+    public boolean spliceSubtree() {
+        if (summaries == null) return false;
+
+        int remainingInvocationCount = maxInvocationCount > 0
+            ? maxInvocationCount - rootInvocationCount
+            : Integer.MAX_VALUE;
+        int splicedCount = summaries.splice(currentInvocation, callStack, dependencies, reachedSignatures, maxDepth,
+            remainingInvocationCount);
+
+        if (splicedCount < 0) return false;
+
+        rootInvocationCount += splicedCount;
+        return true;
+    }
+
+    /**
+     * Start memoizing the subtree of the method of the current invocation. Must be followed by a call to
+     * {@link #endSubtree()} once the method has been analyzed.
+     */
+    public void beginSubtree() {
+        if (summaries != null) summaries.begin(currentInvocation, currentInvocation.getDepth());
+    }
+
+    public void endSubtree() {
+        if (summaries != null) summaries.end(currentInvocation);
+    }
+
+    /**
+     * Return the dependencies recorded since the last call and start recording a new set. Dependencies are only
+     * recorded for an incremental analysis. No dependencies are returned when a root invocation has been cut off by its
+     * time budget since the last call, so an incremental analysis does not restore it but analyzes it again.
+     *
+     * @return recorded dependencies, or null when dependencies are not recorded or a time budget has been exceeded
+     */
+    public Dependencies resetDependencies() {
+        Dependencies recorded = timeBudgetExceeded ? null : dependencies;
+        if (dependencies != null) dependencies = new Dependencies();
+        timeBudgetExceeded = false;
+        return recorded;
+    }
+
+    public void recordSourceFile(File file) {
+        recordDependency(recorded -> recorded.addSourceFile(file.getAbsolutePath()));
+    }
+
+    public void recordUnresolvedType(String qualifiedName) {
+        recordDependency(recorded -> recorded.addUnresolvedType(qualifiedName));
+    }
+
+    public void recordSupertype(String qualifiedName) {
+        recordDependency(recorded -> recorded.addSupertype(qualifiedName));
+    }
+
+    private void recordDependency(Consumer<Dependencies> recorder) {
+        if (dependencies == null) return;
+
+        recorder.accept(dependencies);
+        if (summaries != null) summaries.recordDependency(recorder);
+    }
+
+    /**
+     * Drop the memoized subtrees once the analysis has ended, so they are not kept for the lifetime of the collector.
+     * Subtrees are memoized again when the collector is used for another analysis.
+     */
+    public void clearSubtrees() {
+        if (summaries != null) summaries.clear();
+    }
+
+    public long getSubtreeHitCount() {
+        return summaries != null ? summaries.getHitCount() : 0;
+    }
+
+    public long getSubtreeMissCount() {
+        return summaries != null ? summaries.getMissCount() : 0;
+    }
+
     private Invocation step(InvocationWrapper invocation) {
         currentInvocation = invocation;
         return currentInvocation;
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
+
+/**
+ * Summaries of the invocation subtrees of analyzed methods, keyed by the qualified signature of the method. A summary
+ * records everything the subtree depended on outside of itself: the argument types that were looked up and the
+ * signatures of the methods that were collected, which are checked against the call stack for recursion. A summary is
+ * only reused when those dependencies resolve to the same result, so a spliced subtree is identical to a traversed
+ * one. The {@link Dependencies} of a subtree are kept with its summary, so they are also known when the subtree is
+ * spliced. The same holds for the number of invocations and the height of the subtree, which are recorded in the
+ * metrics.
+ * <p>
+ * A summary keeps a detached copy of the subtree, without the parents, argument types and invoked methods the
+ * collector needs, so it does not keep the trees of root invocations or parsed sources reachable. The copy replaces
+ * the collected subtree, so the subtree is shared by the tree it was collected in, the trees it is spliced into and
+ * the summaries of enclosing methods. The children of the shared invocations are read-only, so changing the tree of
+ * one root invocation does not change the trees of others.
+ * <p>
+ * The number of invocations kept by the summaries can be bounded, the least recently used summaries are dropped when
+ * it is exceeded. Summaries are dropped altogether with {@link #clear()} once the analysis has ended.
+ */
+class InvocationSummaries {
+    private final Map<String, Summary> summaries;
+    private final Deque<Frame> frames;
+    private final AnalysisMetrics metrics;
+    private final int maxInvocationCount;
+
+    private long invocationCount;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param metrics metrics to record spliced invocations in
+     * @param maxInvocationCount maximum number of invocations kept by the summaries, zero or less for unbounded
+     */
+    InvocationSummaries(AnalysisMetrics metrics, int maxInvocationCount) {
+        this.summaries = new LinkedHashMap<>(16, 0.75f, true);
+        this.frames = new ArrayDeque<>();
+        this.metrics = metrics;
+        this.maxInvocationCount = maxInvocationCount;
+    }
+
+    long getHitCount() {
+        return hitCount;
+    }
+
+    long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Splice the summary of the provided invocation into it, when there is a summary valid for the current call stack
+     * that does not exceed the maximum depth or the number of invocations left in the budget of the root invocation.
+     * A summary exceeding either is not spliced, so the subtree is traversed and truncated where the budget runs out.
+     *
+     * @param invocation invocation to add the summarized subtree to
+     * @param callStack current call stack, including the method of the invocation
+     * @param dependencies dependencies of the current analysis, or null when they are not tracked
+     * @param reachedSignatures signatures reached by the current root invocation, to add the spliced methods to
+     * @param maxDepth maximum depth of the invocation tree, zero or less for unlimited
+     * @param maxInvocationCount maximum number of invocations that may be spliced in
+     * @return number of invocations spliced in, or -1 when no summary has been spliced
+     */
+    int splice(InvocationWrapper invocation, Deque<InvokedMethod> callStack, Dependencies dependencies,
+               Set<String> reachedSignatures, int maxDepth, int maxInvocationCount) {
+
+        Summary summary = summaries.get(invocation.getSignature());
+
+        if (summary == null || !summary.isValidFor(invocation, callStack) || summary.exceeds(invocation, maxDepth)
+            || summary.nodeCount > maxInvocationCount) {
+
+            missCount++;
+            return -1;
+        }
+
+        summary.lookups.keySet().forEach(qualifiedName -> recordLookup(invocation, qualifiedName));
+        if (!frames.isEmpty()) frames.peek().collected.addAll(summary.collected);
+        if (!frames.isEmpty()) frames.peek().dependencies.addAll(summary.dependencies);
+        if (!frames.isEmpty()) frames.peek().recordDepth(invocation.getDepth() + summary.height);
+        if (!frames.isEmpty()) frames.peek().nodeCount += summary.nodeCount;
+        if (dependencies != null) dependencies.addAll(summary.dependencies);
+        reachedSignatures.addAll(summary.collected);
+        metrics.recordInvocations(summary.nodeCount, invocation.getDepth() + summary.height);
+
+        invocation.addInvocations(summary.invocations);
+        hitCount++;
+        return summary.nodeCount;
+    }
+
+    /**
+     * Start recording the summary of the provided invocation.
+     *
+     * @param invocation invocation of which the subtree is about to be analyzed
+     * @param depth depth of the invocation in the call stack
+     */
+    void begin(InvocationWrapper invocation, int depth) {
+        frames.push(new Frame(invocation, depth));
+    }
+
+    /**
+     * Stop recording the current summary and store it, unless the subtree depended on the call stack outside of it.
+     *
+     * @param currentInvocation invocation the collector is currently at
+     */
+    void end(InvocationWrapper currentInvocation) {
+        Frame frame = frames.pop();
+
+        if (currentInvocation != frame.invocation) {
+            frames.forEach(enclosing -> enclosing.tainted = true);
+            frame.tainted = true;
+        }
+
+        if (!frame.tainted && (maxInvocationCount <= 0 || frame.nodeCount <= maxInvocationCount)) {
+            var summary = new Summary(frame);
+            store(frame.invocation.getSignature(), summary);
+            frame.invocation.replaceInvocations(summary.invocations);
+        }
+
+        if (!frames.isEmpty()) {
+            frames.peek().collected.addAll(frame.collected);
+            frames.peek().dependencies.addAll(frame.dependencies);
+            frames.peek().recordDepth(frame.maxDepth);
+            frames.peek().nodeCount += frame.nodeCount;
+        }
+    }
+
+    private void store(String signature, Summary summary) {
+        Summary replaced = summaries.put(signature, summary);
+        if (replaced != null) invocationCount -= replaced.nodeCount;
+        invocationCount += summary.nodeCount;
+
+        if (maxInvocationCount <= 0) return;
+
+        Iterator<Summary> leastRecentlyUsed = summaries.values().iterator();
+        while (invocationCount > maxInvocationCount) {
+            invocationCount -= leastRecentlyUsed.next().nodeCount;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    void recordCollected(InvokedMethod method, int depth) {
+        if (frames.isEmpty()) return;
+
+        frames.peek().collected.add(method.getSignature());
+        frames.peek().recordDepth(depth);
+        frames.peek().nodeCount++;
+    }
+
+    void recordDependency(Consumer<Dependencies> recorder) {
+        if (!frames.isEmpty()) recorder.accept(frames.peek().dependencies);
+    }
+
+    /**
+     * Record an argument type lookup for all summaries being recorded.
+     *
+     * @param invocation invocation the lookup is done from
+     * @param qualifiedName qualified name of the looked up type
+     */
+    void recordLookup(InvocationWrapper invocation, String qualifiedName) {
+        if (frames.isEmpty()) return;
+
+        ArgumentTypes.Declaration declaration = invocation.findArgumentTypeDeclaration(qualifiedName);
+
+        for (Frame frame : frames) {
+            if (frame.lookups.containsKey(qualifiedName)) continue;
+
+            boolean isOutside = declaration != null && declaration.getDepth() <= frame.depth;
+            frame.lookups.put(qualifiedName, isOutside ? declaration.getActualType() : null);
+        }
+    }
+
+    /**
+     * Record a recursion found at the provided depth of the call stack. Summaries of invocations at or below that
+     * depth depend on the call stack outside of their subtree and are not stored.
+     *
+     * @param depth depth of the recursive method in the call stack
+     */
+    void recordRecursion(int depth) {
+        for (Frame frame : frames) {
+            if (frame.depth < depth) break;
+            frame.tainted = true;
+        }
+    }
+
+    /**
+     * Record that invocations of the current root invocation have been left out. None of the summaries being recorded
+     * is complete and none of them is stored.
+     */
+    void recordTruncation() {
+        frames.forEach(frame -> frame.tainted = true);
+    }
+
+    void reset() {
+        frames.clear();
+    }
+
+    /**
+     * Drop all summaries, once the analysis they have been recorded for has ended.
+     */
+    void clear() {
+        reset();
+        summaries.clear();
+        invocationCount = 0;
+    }
+
+    private static class Frame {
+        private final InvocationWrapper invocation;
+        private final int depth;
+        private final Map<String, String> lookups;
+        private final Set<String> collected;
+        private final Dependencies dependencies;
+        private boolean tainted;
+        private int maxDepth;
+        private int nodeCount;
+
+        private Frame(InvocationWrapper invocation, int depth) {
+            this.invocation = invocation;
+            this.depth = depth;
+            this.lookups = new HashMap<>();
+            this.collected = new HashSet<>();
+            this.dependencies = new Dependencies();
+            this.maxDepth = depth;
+        }
+
+        private void recordDepth(int depth) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+    }
+
+    private static class Summary {
+        private final List<Invocation> invocations;
+        private final Map<String, String> lookups;
+        private final Set<String> collected;
+        private final Dependencies dependencies;
+        private final int height;
+        private final int nodeCount;
+
+        private Summary(Frame frame) {
+            this.invocations = new ArrayList<>(frame.invocation.getInvocations().size());
+            frame.invocation.getInvocations().forEach(invocation -> invocations.add(detach(invocation)));
+            this.lookups = frame.lookups;
+            this.collected = frame.collected;
+            this.dependencies = frame.dependencies;
+            this.height = frame.maxDepth - frame.depth;
+            this.nodeCount = frame.nodeCount;
+        }
+
+        /**
+         * Return a copy of the provided invocation without the state the collector keeps with it. Invocations that
+         * have been detached before, because they are part of a stored or spliced subtree, are shared.
+         */
+        private static Invocation detach(Invocation invocation) {
+            if (!(invocation instanceof InvocationWrapper)) return invocation;
+
+            var detached = new SummarizedInvocation(invocation);
+            invocation.getInvocations().forEach(child -> detached.add(detach(child)));
+            return detached;
+        }
+
+        private boolean exceeds(InvocationWrapper invocation, int maxDepth) {
+            return maxDepth > 0 && invocation.getDepth() + height > maxDepth;
+        }
+
+        private boolean isValidFor(InvocationWrapper invocation, Deque<InvokedMethod> callStack) {
+            for (InvokedMethod method : callStack) {
+                if (collected.contains(method.getSignature())) return false;
+            }
+
+            for (Map.Entry<String, String> lookup : lookups.entrySet()) {
+                ArgumentTypes.Declaration declaration = invocation.findArgumentTypeDeclaration(lookup.getKey());
+                String argumentType = declaration != null ? declaration.getActualType() : null;
+
+                if (!Objects.equals(argumentType, lookup.getValue())) return false;
+            }
+
+            return true;
+        }
+    }
+}
@@ -16,32 +16,36 @@
 
 package io.github.augurk.javaanalyzer.core.collectors;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import io.github.augurk.javaanalyzer.core.domain.Invocation;
 import io.github.augurk.javaanalyzer.core.domain.OverloadHandling;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 
 class InvocationWrapper extends Invocation {
     private final InvocationWrapper parent;
-    private final List<ImmutablePair<String, String>> argumentTypes;
+    private final int depth;
+    private final ArgumentTypes argumentTypes;
     private final AutomationTarget automationTarget;
 
     public InvocationWrapper(String signature, String whenExpression, AutomationTarget automationTarget) {
         super(signature, whenExpression);
         parent = null;
-        argumentTypes = Lists.newArrayList();
+        depth = 0;
+        argumentTypes = ArgumentTypes.empty();
         this.automationTarget = automationTarget;
     }
 
     public InvocationWrapper(InvokedMethod method, InvocationWrapper parent) {
         super(method.getKind(), method.getSignature(), method.getInterfaceDefinitions(), method.isLocal());
         this.parent = parent;
-        this.argumentTypes = method.getArgumentTypes();
+        this.depth = parent.depth + 1;
+        this.argumentTypes = parent.argumentTypes.with(method.getArgumentTypes(), depth);
         automationTarget = DefaultAutomationTarget.getInstance();
     }
 
@@ -49,6 +53,9 @@ class InvocationWrapper extends Invocation {
         return parent;
     }
 
+    public int getDepth() {
+        return depth;
+    }
 
     public InvocationWrapper addInvocation(InvokedMethod method) {
         var invocation = new InvocationWrapper(method, this);
@@ -56,6 +63,28 @@ class InvocationWrapper extends Invocation {
         return invocation;
     }
 
+    public void truncate() {
+        setTruncated(true);
+    }
+
+    public void recordReachedSignatures(Set<String> reachedSignatures) {
+        setReachedSignatures(reachedSignatures);
+    }
+
+    public void addInvocations(Collection<Invocation> invocations) {
+        invocations.forEach(super::addInvocation);
+    }
+
+    /**
+     * Replace the invocations of this invocation by equal ones, such as detached copies of them.
+     *
+     * @param invocations invocations to replace the current invocations with
+     */
+    public void replaceInvocations(Collection<Invocation> invocations) {
+        getInvocations().clear();
+        addInvocations(invocations);
+    }
+
     public void process() {
         if (automationTarget instanceof DefaultAutomationTarget) return;
         List<String> automationTargets = process(getInvocations(), null);
@@ -63,20 +92,19 @@ class InvocationWrapper extends Invocation {
     }
 
     public String findArgumentType(String qualifiedName) {
-        return findArgumentType(this, qualifiedName, qualifiedName);
+        ArgumentTypes.Declaration declaration = findArgumentTypeDeclaration(qualifiedName);
+        return declaration != null ? declaration.getActualType() : qualifiedName;
     }
 
-    private String findArgumentType(InvocationWrapper invocation, String search, String found) {
-        for (var typePair : invocation.argumentTypes) {
-            if (typePair.left.equals(search)) {
-                found = typePair.right;
-                break;
-            }
-        }
-
-        return invocation.parent != null
-            ? findArgumentType(invocation.parent, search, found)
-            : found;
+    /**
+     * Return the declaration of the top-most invocation in the chain of parents that declares an argument type for
+     * the provided type.
+     *
+     * @param qualifiedName qualified name of the type
+     * @return declaration, or null when no invocation declares an argument type
+     */
+    public ArgumentTypes.Declaration findArgumentTypeDeclaration(String qualifiedName) {
+        return argumentTypes.get(qualifiedName);
     }
 
     private List<String> process(Deque<Invocation> invocations, List<String> found) {
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import java.util.Deque;
+
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+
+/**
+ * Invocation of a memoized subtree, detached from the invocation tree it has been collected in. The subtree is shared
+ * by the invocation trees it has been spliced into, so the invocations made from it cannot be changed.
+ */
+class SummarizedInvocation extends Invocation {
+    SummarizedInvocation(Invocation invocation) {
+        super(invocation.getKind(), invocation.getSignature(), invocation.getInterfaceDefinitions(),
+            invocation.isLocal());
+        setTruncated(invocation.isTruncated());
+    }
+
+    void add(Invocation invocation) {
+        addInvocation(invocation);
+    }
+
+    @Override
+    public Deque<Invocation> getInvocations() {
+        return new UnmodifiableDeque<>(super.getInvocations());
+    }
+}
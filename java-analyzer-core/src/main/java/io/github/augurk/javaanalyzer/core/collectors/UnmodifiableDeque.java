@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import java.util.AbstractCollection;
+import java.util.Deque;
+import java.util.Iterator;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * Read-only view of a deque. Every method that would change the deque throws an
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <E> type of the elements
+ */
+class UnmodifiableDeque<E> extends AbstractCollection<E> implements Deque<E> {
+    private final Deque<E> deque;
+
+    UnmodifiableDeque(Deque<E> deque) {
+        this.deque = deque;
+    }
+
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return deque.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return Iterators.unmodifiableIterator(deque.iterator());
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return Iterators.unmodifiableIterator(deque.descendingIterator());
+    }
+
+    @Override
+    public E getFirst() {
+        return deque.getFirst();
+    }
+
+    @Override
+    public E getLast() {
+        return deque.getLast();
+    }
+
+    @Override
+    public E peekFirst() {
+        return deque.peekFirst();
+    }
+
+    @Override
+    public E peekLast() {
+        return deque.peekLast();
+    }
+
+    @Override
+    public E element() {
+        return deque.element();
+    }
+
+    @Override
+    public E peek() {
+        return deque.peek();
+    }
+
+    @Override
+    public void addFirst(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addLast(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E removeFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E removeLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E poll() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void push(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E pop() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+}
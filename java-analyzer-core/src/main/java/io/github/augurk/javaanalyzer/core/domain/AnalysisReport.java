@@ -18,19 +18,27 @@ package io.github.augurk.javaanalyzer.core.domain;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class AnalysisReport {
     private String analyzedProject;
     private String version;
     private LocalDateTime timestamp;
     private List<Invocation> rootInvocations;
+    private InvocationIndex invocationIndex;
 
     public AnalysisReport(String analyzedProject, String version) {
+        this(analyzedProject, version, LocalDateTime.now());
+    }
+
+    public AnalysisReport(String analyzedProject, String version, LocalDateTime timestamp) {
         this.analyzedProject = analyzedProject;
         this.version = version;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = timestamp;
         this.rootInvocations = new ArrayList<>();
+        this.invocationIndex = new InvocationIndex();
     }
 
     public String getAnalyzedProject() {
@@ -45,11 +53,59 @@ public class AnalysisReport {
         return timestamp;
     }
 
+    /**
+     * Return the root invocations of this report. Root invocations are added through
+     * {@link #addRootInvocation(Invocation)}, which keeps them in line with the invocation index.
+     *
+     * @return unmodifiable list of root invocations
+     */
     public List<Invocation> getRootInvocations() {
-        return rootInvocations;
+        return Collections.unmodifiableList(rootInvocations);
     }
 
+    /**
+     * Return the index of the methods invoked from the root invocations of this report. The identifiers in the index
+     * are positions in {@link #getRootInvocations()}.
+     *
+     * @return invocation index
+     */
+    public InvocationIndex getInvocationIndex() {
+        return invocationIndex;
+    }
+
+    /**
+     * Return the root invocations from which the method with the provided signature is invoked, directly or
+     * indirectly.
+     *
+     * @param signature signature of the invoked method
+     * @return root invocations in the order of the report
+     */
+    public List<Invocation> findRootInvocationsReaching(String signature) {
+        int[] ids = invocationIndex.getRootInvocationIds(signature);
+        List<Invocation> invocations = new ArrayList<>(ids.length);
+
+        for (int id : ids) {
+            invocations.add(rootInvocations.get(id));
+        }
+
+        return invocations;
+    }
+
+    /**
+     * Add a root invocation to the report and the invocation index. The signatures recorded with the root invocation
+     * are indexed, the invocation tree is only walked for root invocations without recorded signatures. Once indexed,
+     * the recorded signatures are dropped from the root invocation.
+     *
+     * @param invocation root invocation to add
+     */
     public void addRootInvocation(Invocation invocation) {
+        Set<String> reachedSignatures = invocation.getReachedSignatures();
+        if (reachedSignatures == null) {
+            reachedSignatures = InvocationIndex.reachedSignatures(InvocationView.of(invocation));
+        }
+
+        invocationIndex.add(rootInvocations.size(), reachedSignatures);
+        invocation.setReachedSignatures(null);
         rootInvocations.add(invocation);
     }
 }
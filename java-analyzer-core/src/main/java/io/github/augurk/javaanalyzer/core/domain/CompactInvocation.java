@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.Deque;
+
+/**
+ * Root invocation of which the invocation tree is kept in the compact representation. Reporters read the tree through
+ * {@link InvocationView#of(Invocation)} without copying it. {@link #getInvocations()} creates plain invocations of the
+ * invocations made from the root invocation on every call, for readers that do not use views.
+ */
+public class CompactInvocation extends Invocation {
+    private final CompactInvocationTree tree;
+
+    public CompactInvocation(Invocation root, SignatureTable table) {
+        super(root.getSignature(), root.getRegularExpression()[0]);
+        this.tree = CompactInvocationTree.of(root, table);
+        setAutomationTargets(root.getAutomationTargets());
+        setTruncated(root.isTruncated());
+        setReachedSignatures(root.getReachedSignatures());
+    }
+
+    public CompactInvocationTree getTree() {
+        return tree;
+    }
+
+    @Override
+    public Deque<Invocation> getInvocations() {
+        var invocation = new Invocation(getSignature(), null);
+        tree.copyInvocationsTo(invocation, 0);
+        return invocation.getInvocations();
+    }
+}
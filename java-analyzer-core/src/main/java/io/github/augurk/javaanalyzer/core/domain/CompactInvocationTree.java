@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Invocation tree of a root invocation in a compact representation. The invocations are stored in depth-first order
+ * in parallel arrays, referring to their signatures and interface definitions by their IDs in a {@link SignatureTable}.
+ * The invocations made from an invocation follow it directly, the next sibling of an invocation follows its subtree.
+ * The tree is immutable and read through {@link InvocationView views} of its invocations.
+ */
+public final class CompactInvocationTree {
+    private static final InvocationKind[] KINDS = InvocationKind.values();
+    private static final int KIND_MASK = 0x0F;
+    private static final int LOCAL = 0x10;
+    private static final int TRUNCATED = 0x20;
+
+    private final SignatureTable table;
+    private final List<String> regularExpressions;
+    private final List<String> automationTargets;
+    private final int[] signatures;
+    private final int[] interfaceDefinitions;
+    private final int[] subtreeSizes;
+    private final int[] invocationCounts;
+    private final byte[] flags;
+
+    private CompactInvocationTree(SignatureTable table, Invocation root, int size) {
+        this.table = table;
+        this.regularExpressions = table.signaturesOf(table.idOf(root.getRegularExpression()));
+        this.automationTargets = table.signaturesOf(table.idOf(root.getAutomationTargets()));
+        this.signatures = new int[size];
+        this.interfaceDefinitions = new int[size];
+        this.subtreeSizes = new int[size];
+        this.invocationCounts = new int[size];
+        this.flags = new byte[size];
+    }
+
+    /**
+     * Create the compact representation of the invocation tree of the provided root invocation.
+     *
+     * @param root root invocation
+     * @param table table the signatures are added to
+     * @return compact invocation tree
+     */
+    public static CompactInvocationTree of(Invocation root, SignatureTable table) {
+        var tree = new CompactInvocationTree(table, root, sizeOf(root));
+        tree.add(root, 0);
+        return tree;
+    }
+
+    /**
+     * Return the number of invocations in the tree, including the root invocation.
+     *
+     * @return number of invocations
+     */
+    public int size() {
+        return signatures.length;
+    }
+
+    public InvocationView getRoot() {
+        return new Node(0);
+    }
+
+    private static int sizeOf(Invocation invocation) {
+        int size = 1;
+        for (Invocation child : invocation.getInvocations()) {
+            size += sizeOf(child);
+        }
+
+        return size;
+    }
+
+    private int add(Invocation invocation, int index) {
+        signatures[index] = table.idOf(invocation.getSignature());
+        interfaceDefinitions[index] = table.idOf(invocation.getInterfaceDefinitions());
+        invocationCounts[index] = invocation.getInvocations().size();
+        flags[index] = (byte) (invocation.getKind().ordinal()
+            | (invocation.isLocal() ? LOCAL : 0)
+            | (invocation.isTruncated() ? TRUNCATED : 0));
+
+        int next = index + 1;
+        for (Invocation child : invocation.getInvocations()) {
+            next = add(child, next);
+        }
+
+        subtreeSizes[index] = next - index;
+        return next;
+    }
+
+    /**
+     * Create plain invocations of the invocations made from the invocation at the provided index.
+     */
+    void copyInvocationsTo(Invocation target, int index) {
+        int child = index + 1;
+
+        for (int i = 0; i < invocationCounts[index]; i++) {
+            var invocation = new Invocation(kindOf(child), table.signatureOf(signatures[child]),
+                table.signaturesOf(interfaceDefinitions[child]).toArray(String[]::new), is(child, LOCAL));
+            invocation.setTruncated(is(child, TRUNCATED));
+            copyInvocationsTo(invocation, child);
+            target.addInvocation(invocation);
+            child += subtreeSizes[child];
+        }
+    }
+
+    private InvocationKind kindOf(int index) {
+        return KINDS[flags[index] & KIND_MASK];
+    }
+
+    private boolean is(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    private class Node implements InvocationView {
+        private final int index;
+
+        private Node(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public InvocationKind getKind() {
+            return kindOf(index);
+        }
+
+        @Override
+        public String getSignature() {
+            return table.signatureOf(signatures[index]);
+        }
+
+        @Override
+        public boolean isLocal() {
+            return is(index, LOCAL);
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return is(index, TRUNCATED);
+        }
+
+        @Override
+        public List<String> regularExpressions() {
+            return index == 0 ? regularExpressions : Collections.emptyList();
+        }
+
+        @Override
+        public List<String> interfaceDefinitions() {
+            return table.signaturesOf(interfaceDefinitions[index]);
+        }
+
+        @Override
+        public List<String> automationTargets() {
+            return index == 0 ? automationTargets : Collections.emptyList();
+        }
+
+        @Override
+        public int getInvocationCount() {
+            return invocationCounts[index];
+        }
+
+        @Override
+        public Iterable<InvocationView> invocations() {
+            return () -> new Iterator<>() {
+                private int remaining = invocationCounts[index];
+                private int next = index + 1;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public InvocationView next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+
+                    var node = new Node(next);
+                    next += subtreeSizes[next];
+                    remaining--;
+                    return node;
+                }
+            };
+        }
+    }
+}
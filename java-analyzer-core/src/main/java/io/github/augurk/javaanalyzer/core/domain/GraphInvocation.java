@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Root invocation of which the invocations are nodes of an {@link InvocationGraph}, shared with the other root
+ * invocations of the graph. Reporters read the invocations through {@link InvocationView#of(Invocation)}.
+ * {@link #getInvocations()} expands the shared subtrees to plain invocation trees on every call, for readers that do
+ * not use views.
+ */
+public class GraphInvocation extends Invocation {
+    private final List<InvocationGraph.Node> nodes;
+
+    GraphInvocation(Invocation root, List<InvocationGraph.Node> nodes) {
+        super(root.getSignature(), root.getRegularExpression()[0]);
+        this.nodes = nodes;
+        setAutomationTargets(root.getAutomationTargets());
+        setTruncated(root.isTruncated());
+        setReachedSignatures(root.getReachedSignatures());
+    }
+
+    /**
+     * Return the nodes of the invocations made from this root invocation.
+     *
+     * @return unmodifiable list of nodes
+     */
+    public List<InvocationGraph.Node> getNodes() {
+        return nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    InvocationView view() {
+        return new InvocationAdapter(this) {
+            @Override
+            public int getInvocationCount() {
+                return nodes.size();
+            }
+
+            @Override
+            public Iterable<InvocationView> invocations() {
+                return (Iterable<InvocationView>) (Iterable<? extends InvocationView>) nodes;
+            }
+        };
+    }
+
+    @Override
+    public Deque<Invocation> getInvocations() {
+        var invocation = new Invocation(getSignature(), null);
+        nodes.forEach(node -> invocation.addInvocation(InvocationGraph.expand(node)));
+        return invocation.getInvocations();
+    }
+}
@@ -18,7 +18,9 @@ package io.github.augurk.javaanalyzer.core.domain;
 
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.Set;
 
 public class Invocation {
     private InvocationKind kind;
@@ -28,6 +30,8 @@ public class Invocation {
     private String[] interfaceDefinitions;
     private String[] automationTargets;
     private Deque<Invocation> invocations;
+    private boolean truncated;
+    private Set<String> reachedSignatures;
 
     public Invocation(InvocationKind kind, String signature, String[] interfaceDefinitions, boolean isLocal) {
         this.kind = kind;
@@ -59,23 +63,79 @@ public class Invocation {
         return Arrays.copyOf(regularExpression, regularExpression.length);
     }
 
+    /**
+     * Return the regular expressions of a root invocation without copying them, for views on this invocation.
+     *
+     * @return regular expressions, or null for invocations that are not a root invocation
+     */
+    String[] regularExpressions() {
+        return regularExpression;
+    }
+
     public String[] getInterfaceDefinitions() {
         return Arrays.copyOf(interfaceDefinitions, interfaceDefinitions.length);
     }
 
+    /**
+     * Return the interface definitions of this invocation without copying them, for views on this invocation.
+     *
+     * @return interface definitions
+     */
+    String[] interfaceDefinitions() {
+        return interfaceDefinitions;
+    }
+
     public String[] getAutomationTargets() {
         return Arrays.copyOf(automationTargets, automationTargets.length);
     }
 
+    /**
+     * Return the automation targets of this invocation without copying them, for views on this invocation.
+     *
+     * @return automation targets
+     */
+    String[] automationTargets() {
+        return automationTargets;
+    }
+
     public Deque<Invocation> getInvocations() {
         return invocations;
     }
 
+    /**
+     * Return whether invocations of this invocation have been left out, because the analysis of its root invocation
+     * exceeded one of its budgets. A truncated root invocation has at least one truncated invocation in its tree.
+     *
+     * @return true when the invocations of this invocation are incomplete
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Return the signatures of the methods invoked from this root invocation, directly or indirectly, when they have
+     * been recorded while its invocation tree was collected or read. The signatures are dropped once the root
+     * invocation has been added to an {@link AnalysisReport}, use {@link AnalysisReport#getInvocationIndex()} instead.
+     *
+     * @return unmodifiable set of signatures, or null when the signatures have not been recorded or have been indexed
+     */
+    public Set<String> getReachedSignatures() {
+        return reachedSignatures != null ? Collections.unmodifiableSet(reachedSignatures) : null;
+    }
+
     protected void addInvocation(Invocation invocation) {
         invocations.add(invocation);
     }
 
+    protected void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
     protected void setAutomationTargets(String[] automationTargets) {
         this.automationTargets = automationTargets;
     }
+
+    protected void setReachedSignatures(Set<String> reachedSignatures) {
+        this.reachedSignatures = reachedSignatures;
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * View of an invocation through its getters.
+ */
+class InvocationAdapter implements InvocationView {
+    private final Invocation invocation;
+
+    InvocationAdapter(Invocation invocation) {
+        this.invocation = invocation;
+    }
+
+    @Override
+    public InvocationKind getKind() {
+        return invocation.getKind();
+    }
+
+    @Override
+    public String getSignature() {
+        return invocation.getSignature();
+    }
+
+    @Override
+    public boolean isLocal() {
+        return invocation.isLocal();
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return invocation.isTruncated();
+    }
+
+    @Override
+    public List<String> regularExpressions() {
+        String[] regularExpressions = invocation.regularExpressions();
+        return regularExpressions != null ? listOf(regularExpressions) : Collections.emptyList();
+    }
+
+    @Override
+    public List<String> interfaceDefinitions() {
+        return listOf(invocation.interfaceDefinitions());
+    }
+
+    @Override
+    public List<String> automationTargets() {
+        return listOf(invocation.automationTargets());
+    }
+
+    @Override
+    public int getInvocationCount() {
+        return invocation.getInvocations() != null ? invocation.getInvocations().size() : 0;
+    }
+
+    @Override
+    public Iterable<InvocationView> invocations() {
+        if (invocation.getInvocations() == null) return Collections.emptyList();
+        return Iterables.transform(invocation.getInvocations(), InvocationView::of);
+    }
+
+    private static List<String> listOf(String[] values) {
+        return values != null ? Collections.unmodifiableList(Arrays.asList(values)) : null;
+    }
+}
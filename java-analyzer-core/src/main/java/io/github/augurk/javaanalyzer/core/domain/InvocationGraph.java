@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Invocation trees in which identical subtrees are shared. Invocations are hash-consed: an invocation added to the
+ * graph is replaced by the node of an identical invocation with identical invocations made from it, when the graph
+ * already contains one. Nodes are immutable and get an ID in the order they are added, so the invocations made from a
+ * node always have a lower ID than the node itself.
+ */
+public class InvocationGraph {
+    private final Map<Node, Node> nodes = new HashMap<>();
+    private final List<Node> nodesById = new ArrayList<>();
+    private final Map<Node, Node> internedNodes = new IdentityHashMap<>();  // nodes of other graphs
+
+    /**
+     * Add the invocation tree of the provided root invocation to the graph.
+     *
+     * @param rootInvocation root invocation
+     * @return root invocation of which the invocations are nodes of the graph
+     */
+    public GraphInvocation add(Invocation rootInvocation) {
+        return new GraphInvocation(rootInvocation, internAll(InvocationView.of(rootInvocation).invocations()));
+    }
+
+    /**
+     * Return the node of the graph identical to the provided invocation, adding it and the invocations made from it
+     * when the graph does not contain them yet.
+     *
+     * @param invocation invocation to add
+     * @return node of the graph
+     */
+    public synchronized Node intern(InvocationView invocation) {
+        if (invocation instanceof Node) {
+            Node interned = nodes.get(invocation) == invocation ? (Node) invocation : internedNodes.get(invocation);
+            if (interned != null) return interned;
+        }
+
+        var candidate = new Node(invocation, internAll(invocation.invocations()));
+        Node node = nodes.get(candidate);
+
+        if (node == null) {
+            node = candidate;
+            node.id = nodesById.size();
+            nodes.put(node, node);
+            nodesById.add(node);
+        }
+
+        if (invocation instanceof Node) internedNodes.put((Node) invocation, node);
+        return node;
+    }
+
+    /**
+     * Return the number of distinct invocations in the graph.
+     *
+     * @return number of nodes
+     */
+    public synchronized int size() {
+        return nodesById.size();
+    }
+
+    /**
+     * Return the nodes of the graph in order of their IDs.
+     *
+     * @return unmodifiable list of nodes
+     */
+    public synchronized List<Node> getNodes() {
+        return List.copyOf(nodesById);
+    }
+
+    private List<Node> internAll(Iterable<InvocationView> invocations) {
+        List<Node> interned = new ArrayList<>();
+        for (InvocationView invocation : invocations) {
+            interned.add(intern(invocation));
+        }
+
+        return interned.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(interned);
+    }
+
+    /**
+     * Create a plain invocation tree of the provided node, repeating shared subtrees.
+     *
+     * @param node node to expand
+     * @return invocation with the expanded invocation trees of the invocations made from it
+     */
+    public static Invocation expand(Node node) {
+        var invocation = new Invocation(node.kind, node.signature, node.interfaceDefinitions.toArray(String[]::new),
+            node.local);
+        invocation.setTruncated(node.truncated);
+        node.invocations.forEach(child -> invocation.addInvocation(expand(child)));
+        return invocation;
+    }
+
+    /**
+     * Invocation of a graph, shared by all invocations it is made from.
+     */
+    public static final class Node implements InvocationView {
+        private final InvocationKind kind;
+        private final String signature;
+        private final boolean local;
+        private final boolean truncated;
+        private final List<String> interfaceDefinitions;
+        private final List<Node> invocations;
+        private final int hash;
+        private int id;
+
+        private Node(InvocationView invocation, List<Node> invocations) {
+            this.kind = invocation.getKind();
+            this.signature = invocation.getSignature();
+            this.local = invocation.isLocal();
+            this.truncated = invocation.isTruncated();
+            this.interfaceDefinitions = invocation.interfaceDefinitions() != null
+                ? Collections.unmodifiableList(new ArrayList<>(invocation.interfaceDefinitions()))
+                : Collections.emptyList();
+            this.invocations = invocations;
+            this.hash = Objects.hash(kind, signature, local, truncated, interfaceDefinitions, hashOf(invocations));
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public InvocationKind getKind() {
+            return kind;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return local;
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public List<String> regularExpressions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> interfaceDefinitions() {
+            return interfaceDefinitions;
+        }
+
+        @Override
+        public List<String> automationTargets() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int getInvocationCount() {
+            return invocations.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterable<InvocationView> invocations() {
+            return (Iterable<InvocationView>) (Iterable<? extends InvocationView>) invocations;
+        }
+
+        /**
+         * Return the nodes of the invocations made from this invocation.
+         *
+         * @return unmodifiable list of nodes
+         */
+        public List<Node> getNodes() {
+            return invocations;
+        }
+
+        /**
+         * Nodes are equal when their members are equal and they refer to the same nodes, which are the same
+         * instances for identical invocations of the same graph.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Node)) return false;
+
+            Node that = (Node) o;
+
+            return hash == that.hash
+                && local == that.local
+                && truncated == that.truncated
+                && kind == that.kind
+                && Objects.equals(signature, that.signature)
+                && interfaceDefinitions.equals(that.interfaceDefinitions)
+                && isSameNodes(invocations, that.invocations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static int hashOf(List<Node> nodes) {
+            int hash = 1;
+            for (Node node : nodes) {
+                hash = 31 * hash + System.identityHashCode(node);
+            }
+
+            return hash;
+        }
+
+        private static boolean isSameNodes(List<Node> nodes, List<Node> others) {
+            if (nodes.size() != others.size()) return false;
+
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i) != others.get(i)) return false;
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index of the invocations of a report, mapping the signature of every invoked method to the identifiers of
+ * the root invocations from which it is invoked, directly or indirectly. The identifier of a root invocation is its
+ * position in the report. Finding the root invocations that exercise a method is a single lookup, instead of a walk
+ * over every invocation tree.
+ */
+public class InvocationIndex {
+    private static final int[] NO_ROOT_INVOCATIONS = new int[0];
+
+    private final Map<String, BitSet> rootInvocationIds = new HashMap<>();
+
+    /**
+     * Add a root invocation to the index.
+     *
+     * @param rootInvocationId identifier of the root invocation
+     * @param reachedSignatures signatures of the methods invoked from the root invocation
+     */
+    public void add(int rootInvocationId, Collection<String> reachedSignatures) {
+        for (String signature : reachedSignatures) {
+            rootInvocationIds.computeIfAbsent(signature, key -> new BitSet()).set(rootInvocationId);
+        }
+    }
+
+    /**
+     * Return the identifiers of the root invocations from which the method with the provided signature is invoked.
+     *
+     * @param signature signature of the invoked method
+     * @return identifiers in ascending order, empty when the method is not invoked from any root invocation
+     */
+    public int[] getRootInvocationIds(String signature) {
+        BitSet ids = rootInvocationIds.get(signature);
+        return ids != null ? ids.stream().toArray() : NO_ROOT_INVOCATIONS;
+    }
+
+    /**
+     * Return the signatures of all methods invoked from a root invocation.
+     *
+     * @return unmodifiable set of signatures
+     */
+    public Set<String> getSignatures() {
+        return Collections.unmodifiableSet(rootInvocationIds.keySet());
+    }
+
+    /**
+     * Collect the signatures of the methods invoked from the provided root invocation, by walking its invocation tree.
+     * Used for root invocations of which the signatures have not been recorded while the tree was collected. The root
+     * invocation itself does not count, unless it is invoked recursively.
+     *
+     * @param rootInvocation root invocation to walk
+     * @return signatures of the invoked methods
+     */
+    public static Set<String> reachedSignatures(InvocationView rootInvocation) {
+        Set<String> signatures = new HashSet<>();
+        Deque<InvocationView> pending = new ArrayDeque<>();
+        rootInvocation.invocations().forEach(pending::push);
+
+        while (!pending.isEmpty()) {
+            InvocationView invocation = pending.pop();
+            signatures.add(invocation.getSignature());
+            invocation.invocations().forEach(pending::push);
+        }
+
+        return signatures;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.List;
+
+/**
+ * Read-only view of an invocation and its invocations. The lists of a view are not copied, so reading a view does not
+ * allocate a copy of every member, the way the getters of an {@link Invocation} do. Views of an invocation tree in
+ * the compact representation read the arrays of the tree directly.
+ */
+public interface InvocationView {
+    InvocationKind getKind();
+
+    String getSignature();
+
+    boolean isLocal();
+
+    boolean isTruncated();
+
+    /**
+     * Return the regular expressions of a root invocation.
+     *
+     * @return unmodifiable list of regular expressions, empty for invocations that are not a root invocation
+     */
+    List<String> regularExpressions();
+
+    /**
+     * Return the signatures of the interface methods the invoked method implements.
+     *
+     * @return unmodifiable list of signatures
+     */
+    List<String> interfaceDefinitions();
+
+    /**
+     * Return the signatures of the automation targets of a root invocation.
+     *
+     * @return unmodifiable list of signatures
+     */
+    List<String> automationTargets();
+
+    int getInvocationCount();
+
+    /**
+     * Return views of the invocations made from this invocation, in the order in which they were made.
+     *
+     * @return invocations made from this invocation
+     */
+    Iterable<InvocationView> invocations();
+
+    /**
+     * Return a view of the provided invocation. Root invocations in the compact representation or of an invocation
+     * graph are viewed without copying, any other invocation is viewed through its getters.
+     *
+     * @param invocation invocation to view
+     * @return view of the invocation
+     */
+    static InvocationView of(Invocation invocation) {
+        if (invocation instanceof CompactInvocation) return ((CompactInvocation) invocation).getTree().getRoot();
+        if (invocation instanceof GraphInvocation) return ((GraphInvocation) invocation).view();
+        return new InvocationAdapter(invocation);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Symbol table of the signatures in the invocation trees of an analysis. Every distinct signature, and every distinct
+ * array of signatures, is stored once and referred to by an int ID, so trees that repeat the same signatures share
+ * them. The table is safe to use from multiple threads.
+ */
+public class SignatureTable {
+    private final Map<String, Integer> signatureIds = new HashMap<>();
+    private final List<String> signatures = new ArrayList<>();
+    private final Map<List<String>, Integer> signatureListIds = new HashMap<>();
+    private final List<List<String>> signatureLists = new ArrayList<>();
+
+    /**
+     * Return the ID of the provided signature, adding it to the table when it has not been added before.
+     *
+     * @param signature signature
+     * @return ID of the signature
+     */
+    public synchronized int idOf(String signature) {
+        return signatureIds.computeIfAbsent(signature, key -> {
+            signatures.add(key);
+            return signatures.size() - 1;
+        });
+    }
+
+    public synchronized String signatureOf(int id) {
+        return signatures.get(id);
+    }
+
+    /**
+     * Return the ID of the provided array of signatures, adding a copy of it to the table when an equal array has not
+     * been added before.
+     *
+     * @param values array of signatures
+     * @return ID of the array
+     */
+    public synchronized int idOf(String[] values) {
+        Integer id = signatureListIds.get(Arrays.asList(values));
+        if (id != null) return id;
+
+        List<String> signatureList = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(values, values.length)));
+        signatureLists.add(signatureList);
+        signatureListIds.put(signatureList, signatureLists.size() - 1);
+        return signatureLists.size() - 1;
+    }
+
+    /**
+     * Return the array of signatures with the provided ID, which is shared by all invocations referring to it.
+     *
+     * @param id ID of the array
+     * @return unmodifiable list of signatures
+     */
+    public synchronized List<String> signaturesOf(int id) {
+        return signatureLists.get(id);
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+}
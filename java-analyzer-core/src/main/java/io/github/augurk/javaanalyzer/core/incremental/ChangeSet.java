@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.incremental;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+
+/**
+ * Changes between the state of a previous and the current incremental analysis.
+ */
+public class ChangeSet {
+    private final Set<String> changedSourceFiles;
+    private final Set<String> changedSupertypes;
+
+    private ChangeSet(Set<String> changedSourceFiles, Set<String> changedSupertypes) {
+        this.changedSourceFiles = changedSourceFiles;
+        this.changedSupertypes = changedSupertypes;
+    }
+
+    /**
+     * Compare the source files of both states. A source file has changed when it has been added, removed or when its
+     * content is different. A supertype has changed when a changed source file declared or declares a type deriving
+     * from it, so the derived types of the supertype may be different.
+     *
+     * @param previous state of the previous analysis
+     * @param current state of the current analysis
+     * @return changes between the states
+     */
+    public static ChangeSet between(IncrementalState previous, IncrementalState current) {
+        Set<String> changedSourceFiles = new HashSet<>();
+        Set<String> changedSupertypes = new HashSet<>();
+
+        for (SourceFileState sourceFile : current.getSourceFiles()) {
+            var previousSourceFile = previous.get(sourceFile.getPath()).orElse(null);
+
+            if (sourceFile.hasSameContent(previousSourceFile)) continue;
+
+            changedSourceFiles.add(sourceFile.getPath());
+            addSupertypes(changedSupertypes, sourceFile.getTypes());
+            if (previousSourceFile != null) addSupertypes(changedSupertypes, previousSourceFile.getTypes());
+        }
+
+        for (SourceFileState previousSourceFile : previous.getSourceFiles()) {
+            if (current.get(previousSourceFile.getPath()).isEmpty()) {
+                changedSourceFiles.add(previousSourceFile.getPath());
+                addSupertypes(changedSupertypes, previousSourceFile.getTypes());
+            }
+        }
+
+        return new ChangeSet(changedSourceFiles, changedSupertypes);
+    }
+
+    public Set<String> getChangedSourceFiles() {
+        return Collections.unmodifiableSet(changedSourceFiles);
+    }
+
+    public Set<String> getChangedSupertypes() {
+        return Collections.unmodifiableSet(changedSupertypes);
+    }
+
+    /**
+     * Return whether an analysis with the provided dependencies is affected by the changes.
+     *
+     * @param dependencies dependencies of the analysis, null when unknown
+     * @param isResolvable predicate testing whether a qualified name can be found in the project now
+     * @return true when the analysis has to be done again
+     */
+    public boolean affects(Dependencies dependencies, Predicate<String> isResolvable) {
+        if (dependencies == null) return true;
+
+        return dependencies.getSourceFiles().stream().anyMatch(changedSourceFiles::contains)
+            || dependencies.getSupertypes().stream().anyMatch(changedSupertypes::contains)
+            || dependencies.getUnresolvedTypes().stream().anyMatch(isResolvable);
+    }
+
+    private static void addSupertypes(Set<String> supertypes, List<DeclaredType> types) {
+        for (DeclaredType type : types) {
+            supertypes.addAll(type.getExtendedTypes());
+            supertypes.addAll(type.getImplementedTypes());
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of an incremental analysis, stored in a binary state file between runs. The state contains an entry for every
+ * source file of the project, see {@link SourceFileState}. A state is only reused by an analysis with the same
+ * fingerprint, the fingerprint covers the options that influence the analysis result.
+ */
+public class IncrementalState {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalState.class);
+
+    private static final int MAGIC = 0x41554753;
+    private static final int FORMAT_VERSION = 2;
+
+    private final String fingerprint;
+    private final Map<String, SourceFileState> sourceFiles;
+
+    public IncrementalState(String fingerprint) {
+        this.fingerprint = fingerprint;
+        this.sourceFiles = new LinkedHashMap<>();
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Optional<SourceFileState> get(File file) {
+        return get(file.getAbsolutePath());
+    }
+
+    public Optional<SourceFileState> get(String path) {
+        return Optional.ofNullable(sourceFiles.get(path));
+    }
+
+    public void put(SourceFileState sourceFile) {
+        sourceFiles.put(sourceFile.getPath(), sourceFile);
+    }
+
+    public Collection<SourceFileState> getSourceFiles() {
+        return sourceFiles.values();
+    }
+
+    /**
+     * Read the state stored by a previous analysis. An empty state is returned when there is no state file, when it
+     * can not be read or when it has been stored by an analysis with a different fingerprint.
+     *
+     * @param stateFile file the state is stored in
+     * @param fingerprint fingerprint of the current analysis
+     * @return previous state of the analysis
+     */
+    public static IncrementalState read(File stateFile, String fingerprint) {
+        if (!stateFile.isFile()) return new IncrementalState(fingerprint);
+
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                logger.info("Ignore incremental state {}, unsupported format", stateFile);
+                return new IncrementalState(fingerprint);
+            }
+
+            if (!readString(input).equals(fingerprint)) {
+                logger.info("Ignore incremental state {}, analysis options have changed", stateFile);
+                return new IncrementalState(fingerprint);
+            }
+
+            var state = new IncrementalState(fingerprint);
+            int count = input.readInt();
+
+            for (int i = 0; i < count; i++) {
+                state.put(readSourceFile(input));
+            }
+
+            return state;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to read incremental state {}", stateFile, e);
+            return new IncrementalState(fingerprint);
+        }
+    }
+
+    /**
+     * Write the state to the provided file. The state is written to a temporary file first, which replaces the state
+     * file once completely written.
+     *
+     * @param stateFile file to store the state in
+     * @throws IOException when the state could not be written
+     */
+    public void write(File stateFile) throws IOException {
+        Path target = stateFile.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), stateFile.getName(), ".tmp");
+
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, fingerprint);
+                output.writeInt(sourceFiles.size());
+
+                for (SourceFileState sourceFile : sourceFiles.values()) {
+                    writeSourceFile(output, sourceFile);
+                }
+            }
+
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeSourceFile(DataOutputStream output, SourceFileState sourceFile) throws IOException {
+        writeString(output, sourceFile.getPath());
+        output.writeLong(sourceFile.getLastModified());
+        output.writeLong(sourceFile.getLength());
+        output.writeInt(sourceFile.getHash().length);
+        output.write(sourceFile.getHash());
+
+        output.writeInt(sourceFile.getTypes().size());
+        for (DeclaredType type : sourceFile.getTypes()) {
+            writeString(output, type.getQualifiedName());
+            writeStrings(output, type.getExtendedTypes());
+            writeStrings(output, type.getImplementedTypes());
+        }
+
+        output.writeBoolean(sourceFile.isAnalyzed());
+        if (!sourceFile.isAnalyzed()) return;
+
+        Dependencies dependencies = sourceFile.getDependencies();
+        writeStrings(output, dependencies.getSourceFiles());
+        writeStrings(output, dependencies.getUnresolvedTypes());
+        writeStrings(output, dependencies.getSupertypes());
+
+        output.writeInt(sourceFile.getRootInvocations().size());
+        for (Invocation invocation : sourceFile.getRootInvocations()) {
+            writeInvocation(output, InvocationView.of(invocation));
+        }
+    }
+
+    private static SourceFileState readSourceFile(DataInputStream input) throws IOException {
+        String path = readString(input);
+        long lastModified = input.readLong();
+        long length = input.readLong();
+        byte[] hash = new byte[input.readInt()];
+        input.readFully(hash);
+
+        var sourceFile = new SourceFileState(path, lastModified, length, hash);
+        var file = new File(path);
+
+        int typeCount = input.readInt();
+        List<DeclaredType> types = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            types.add(new DeclaredType(readString(input), file, readStrings(input), readStrings(input)));
+        }
+        sourceFile.setTypes(types);
+
+        if (!input.readBoolean()) return sourceFile;
+
+        var dependencies = new Dependencies(
+            new HashSet<>(readStrings(input)),
+            new HashSet<>(readStrings(input)),
+            new HashSet<>(readStrings(input))
+        );
+
+        int rootCount = input.readInt();
+        List<Invocation> rootInvocations = new ArrayList<>(rootCount);
+        for (int i = 0; i < rootCount; i++) {
+            rootInvocations.add(readInvocation(input));
+        }
+
+        sourceFile.setAnalysis(rootInvocations, dependencies);
+        return sourceFile;
+    }
+
+    private static void writeInvocation(DataOutputStream output, InvocationView invocation) throws IOException {
+        writeString(output, invocation.getKind().name());
+        writeString(output, invocation.getSignature());
+
+        if (invocation.getKind() == InvocationKind.WHEN) {
+            writeString(output, invocation.regularExpressions().get(0));
+        } else {
+            output.writeBoolean(invocation.isLocal());
+            writeStrings(output, invocation.interfaceDefinitions());
+        }
+
+        writeStrings(output, invocation.automationTargets());
+        output.writeBoolean(invocation.isTruncated());
+        output.writeInt(invocation.getInvocationCount());
+
+        for (InvocationView child : invocation.invocations()) {
+            writeInvocation(output, child);
+        }
+    }
+
+    private static Invocation readInvocation(DataInputStream input) throws IOException {
+        var kind = InvocationKind.valueOf(readString(input));
+        String signature = readString(input);
+
+        RestoredInvocation invocation;
+
+        if (kind == InvocationKind.WHEN) {
+            invocation = new RestoredInvocation(signature, readString(input));
+        } else {
+            boolean isLocal = input.readBoolean();
+            String[] interfaceDefinitions = readStrings(input).toArray(String[]::new);
+            invocation = new RestoredInvocation(kind, signature, interfaceDefinitions, isLocal);
+        }
+
+        invocation.restoreAutomationTargets(readStrings(input).toArray(String[]::new));
+        invocation.restoreTruncated(input.readBoolean());
+        int count = input.readInt();
+
+        for (int i = 0; i < count; i++) {
+            invocation.add(readInvocation(input));
+        }
+
+        return invocation;
+    }
+
+    private static void writeStrings(DataOutputStream output, Collection<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        List<String> values = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            values.add(readString(input));
+        }
+
+        return values;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
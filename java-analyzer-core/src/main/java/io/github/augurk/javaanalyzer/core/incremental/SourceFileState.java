@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of a single source file in an incremental analysis: its content hash, the types it declares and, once it has
+ * been analyzed, the root invocations found in it together with everything they depended on.
+ */
+public class SourceFileState {
+    private static final Logger logger = LoggerFactory.getLogger(SourceFileState.class);
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final String path;
+    private final long lastModified;
+    private final long length;
+    private final byte[] hash;
+
+    private List<DeclaredType> types;
+    private List<Invocation> rootInvocations;
+    private Dependencies dependencies;
+
+    public SourceFileState(String path, long lastModified, long length, byte[] hash) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.hash = hash;
+        this.types = Collections.emptyList();
+        this.rootInvocations = Collections.emptyList();
+    }
+
+    /**
+     * Create the state of the provided file. The content hash of the previous state is reused when the modification
+     * time and size of the file are unchanged, otherwise the file is hashed.
+     *
+     * @param file source file
+     * @param previous state of the file in the previous analysis, or null
+     * @return state of the file
+     */
+    public static SourceFileState of(File file, SourceFileState previous) {
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        boolean isUnchanged = previous != null && previous.lastModified == lastModified && previous.length == length;
+        byte[] hash = isUnchanged ? previous.hash : hashOf(file);
+
+        return new SourceFileState(file.getAbsolutePath(), lastModified, length, hash);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    byte[] getHash() {
+        return hash;
+    }
+
+    public boolean hasSameContent(SourceFileState other) {
+        return other != null && hash.length > 0 && Arrays.equals(hash, other.hash);
+    }
+
+    public List<DeclaredType> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<DeclaredType> types) {
+        this.types = types;
+    }
+
+    public List<Invocation> getRootInvocations() {
+        return rootInvocations;
+    }
+
+    public Dependencies getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Set the result of the analysis of this file.
+     *
+     * @param rootInvocations root invocations found in the file
+     * @param dependencies dependencies of the root invocations
+     */
+    public void setAnalysis(List<Invocation> rootInvocations, Dependencies dependencies) {
+        this.rootInvocations = rootInvocations;
+        this.dependencies = dependencies;
+    }
+
+    public boolean isAnalyzed() {
+        return dependencies != null;
+    }
+
+    private static byte[] hashOf(File file) {
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            var digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            byte[] buffer = new byte[8192];
+
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+
+            return digest.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.warn("Unable to hash source file {}", file, e);
+            return new byte[0];
+        }
+    }
+}
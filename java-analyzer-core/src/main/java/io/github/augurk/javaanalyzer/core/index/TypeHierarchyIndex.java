@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import io.github.augurk.javaanalyzer.core.FileManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the type hierarchy of the analyzed project. Maps the qualified name of each type to the types extending or
+ * implementing it, together with the file they are declared in. Only qualified names and files are stored, so the
+ * index can be shared between analyzer contexts that parse the project independently.
+ */
+public class TypeHierarchyIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TypeHierarchyIndex.class);
+
+    private final Map<File, List<DeclaredType>> typesByFile;
+    private final Map<String, List<DeclaredType>> directSubtypes;
+
+    public TypeHierarchyIndex() {
+        this.typesByFile = new LinkedHashMap<>();
+        this.directSubtypes = new HashMap<>();
+    }
+
+    /**
+     * Build the index in a single pass over the project files.
+     *
+     * @param fileManager file manager used to walk the project files
+     * @param parser function returning the compilation unit of a file
+     * @return index of all types declared in the project
+     */
+    public static TypeHierarchyIndex build(FileManager fileManager, Function<File, Optional<CompilationUnit>> parser) {
+        var index = new TypeHierarchyIndex();
+        fileManager.walkFileTree(file -> parser.apply(file).ifPresent(unit -> index.addFile(file, unit)));
+
+        logger.info("Indexed {} types in {} files", index.size(), index.typesByFile.size());
+        return index;
+    }
+
+    /**
+     * Add all class and interface declarations of the provided compilation unit to the index.
+     *
+     * @param file file the compilation unit has been parsed from
+     * @param unit compilation unit to index
+     */
+    public void addFile(File file, CompilationUnit unit) {
+        addTypes(file, typesOf(file, unit));
+    }
+
+    /**
+     * Return the class and interface declarations of the provided compilation unit, in declaration order.
+     *
+     * @param file file the compilation unit has been parsed from
+     * @param unit compilation unit to return the types of
+     * @return list of declared types
+     */
+    public static List<DeclaredType> typesOf(File file, CompilationUnit unit) {
+        List<DeclaredType> types = new ArrayList<>();
+
+        unit.findAll(ClassOrInterfaceDeclaration.class).forEach(declaration -> types.add(new DeclaredType(
+            declaration.resolve().getQualifiedName(),
+            file,
+            qualifiedNamesOf(declaration.getExtendedTypes()),
+            qualifiedNamesOf(declaration.getImplementedTypes())
+        )));
+
+        return types;
+    }
+
+    /**
+     * Add previously indexed types of the provided file to the index.
+     *
+     * @param file file the types are declared in
+     * @param types types declared in the file, in declaration order
+     */
+    public void addTypes(File file, List<DeclaredType> types) {
+        typesByFile.put(file, types);
+
+        types.forEach(type -> {
+            type.getExtendedTypes().forEach(supertype -> addSubtype(supertype, type));
+            type.getImplementedTypes().forEach(supertype -> addSubtype(supertype, type));
+        });
+    }
+
+    /**
+     * Return the types directly extending or implementing the provided type, in the order the files were indexed.
+     *
+     * @param qualifiedName qualified name of the supertype
+     * @return list of direct subtypes
+     */
+    public List<DeclaredType> getDirectSubtypes(String qualifiedName) {
+        return directSubtypes.getOrDefault(qualifiedName, Collections.emptyList());
+    }
+
+    /**
+     * Return all types directly or transitively extending or implementing the provided type. Direct subtypes are
+     * returned first, followed by their subtypes.
+     *
+     * @param qualifiedName qualified name of the supertype
+     * @return list of direct and transitive subtypes
+     */
+    public List<DeclaredType> getSubtypes(String qualifiedName) {
+        Set<DeclaredType> subtypes = new LinkedHashSet<>(getDirectSubtypes(qualifiedName));
+        List<DeclaredType> pending = new ArrayList<>(subtypes);
+
+        for (int i = 0; i < pending.size(); i++) {
+            for (DeclaredType subtype : getDirectSubtypes(pending.get(i).getQualifiedName())) {
+                if (subtypes.add(subtype)) pending.add(subtype);
+            }
+        }
+
+        return new ArrayList<>(subtypes);
+    }
+
+    /**
+     * Return the types declared in the provided file.
+     *
+     * @param file indexed file
+     * @return list of types declared in the file
+     */
+    public List<DeclaredType> getTypesOf(File file) {
+        return typesByFile.getOrDefault(file, Collections.emptyList());
+    }
+
+    public int size() {
+        return typesByFile.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void addSubtype(String supertype, DeclaredType subtype) {
+        directSubtypes.computeIfAbsent(supertype, key -> new ArrayList<>()).add(subtype);
+    }
+
+    private static List<String> qualifiedNamesOf(List<ClassOrInterfaceType> types) {
+        List<String> qualifiedNames = new ArrayList<>();
+
+        for (ClassOrInterfaceType type : types) {
+            try {
+                qualifiedNames.add(type.resolve().getQualifiedName());
+            } catch (RuntimeException e) {
+                logger.debug("Unable to resolve supertype {}", type, e);
+            }
+        }
+
+        return qualifiedNames;
+    }
+
+    /**
+     * Class or interface declared in the analyzed project.
+     */
+    public static class DeclaredType {
+        private final String qualifiedName;
+        private final File file;
+        private final List<String> extendedTypes;
+        private final List<String> implementedTypes;
+
+        public DeclaredType(String qualifiedName, File file, List<String> extendedTypes, List<String> implementedTypes) {
+            this.qualifiedName = qualifiedName;
+            this.file = file;
+            this.extendedTypes = extendedTypes;
+            this.implementedTypes = implementedTypes;
+        }
+
+        public String getQualifiedName() {
+            return qualifiedName;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public List<String> getExtendedTypes() {
+            return extendedTypes;
+        }
+
+        public List<String> getImplementedTypes() {
+            return implementedTypes;
+        }
+
+        public boolean isExtensionOf(String qualifiedName) {
+            return extendedTypes.contains(qualifiedName);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import io.github.augurk.javaanalyzer.core.options.MetricsFormat;
+
+/**
+ * Registry of the counters and timers of an analysis, used to find out where an analysis spends its time. A registry
+ * is shared by a context and its workers, so all counters are safe to update concurrently. The registry is attached
+ * to the compilation units parsed during the analysis, which lets code that only has a node at hand record against
+ * it as well.
+ */
+public class AnalysisMetrics {
+    private static final DataKey<AnalysisMetrics> METRICS = new DataKey<>() { };
+    private static final String PREFIX = "augurk_analysis_";
+
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder resolveCount = new LongAdder();
+    private final LongAdder resolveFailureCount = new LongAdder();
+    private final LongAdder resolveNanos = new LongAdder();
+    private final LongAdder walkedFileCount = new LongAdder();
+    private final LongAdder fullScanCount = new LongAdder();
+    private final LongAdder invocationCount = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final Queue<RootInvocationTime> rootInvocationTimes = new ConcurrentLinkedQueue<>();
+    private volatile long analysisNanos;
+
+    /**
+     * Return the registry attached to the compilation unit of the given node.
+     *
+     * @param node node to find the registry of
+     * @return Optional containing the registry, empty when the node was not parsed during an analysis
+     */
+    public static Optional<AnalysisMetrics> of(Node node) {
+        return node.findCompilationUnit()
+            .filter(unit -> unit.containsData(METRICS))
+            .map(unit -> unit.getData(METRICS));
+    }
+
+    /**
+     * Attach this registry to a compilation unit, see {@link #of(Node)}.
+     *
+     * @param unit compilation unit to attach the registry to
+     */
+    public void attachTo(CompilationUnit unit) {
+        unit.setData(METRICS, this);
+    }
+
+    /**
+     * Reset all counters and timers, so the registry can be reused for the next analysis.
+     */
+    public void reset() {
+        parseCount.reset();
+        parseNanos.reset();
+        resolveCount.reset();
+        resolveFailureCount.reset();
+        resolveNanos.reset();
+        walkedFileCount.reset();
+        fullScanCount.reset();
+        invocationCount.reset();
+        maxDepth.reset();
+        rootInvocationTimes.clear();
+        analysisNanos = 0;
+    }
+
+    public void recordParse(long nanos) {
+        parseCount.increment();
+        parseNanos.add(nanos);
+    }
+
+    public void recordResolve(long nanos, boolean resolved) {
+        resolveCount.increment();
+        resolveNanos.add(nanos);
+        if (!resolved) resolveFailureCount.increment();
+    }
+
+    public void recordWalkedFile() {
+        walkedFileCount.increment();
+    }
+
+    public void recordFullScan() {
+        fullScanCount.increment();
+    }
+
+    public void recordInvocation(int depth) {
+        invocationCount.increment();
+        maxDepth.accumulate(depth);
+    }
+
+    /**
+     * Record the invocations of a subtree that has been added at once, such as a memoized subtree.
+     *
+     * @param count number of invocations in the subtree
+     * @param depth depth of the deepest invocation of the subtree
+     */
+    public void recordInvocations(int count, int depth) {
+        invocationCount.add(count);
+        maxDepth.accumulate(depth);
+    }
+
+    public void recordRootInvocation(String signature, long nanos) {
+        rootInvocationTimes.add(new RootInvocationTime(signature, nanos));
+    }
+
+    public void recordAnalysis(long nanos) {
+        analysisNanos = nanos;
+    }
+
+    public long getParseCount() {
+        return parseCount.sum();
+    }
+
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+
+    public long getResolveCount() {
+        return resolveCount.sum();
+    }
+
+    public long getResolveFailureCount() {
+        return resolveFailureCount.sum();
+    }
+
+    public long getResolveNanos() {
+        return resolveNanos.sum();
+    }
+
+    public long getWalkedFileCount() {
+        return walkedFileCount.sum();
+    }
+
+    public long getFullScanCount() {
+        return fullScanCount.sum();
+    }
+
+    public long getInvocationCount() {
+        return invocationCount.sum();
+    }
+
+    public int getMaxDepth() {
+        return (int) maxDepth.get();
+    }
+
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+
+    /**
+     * Return the analysis times of the root invocations in the order in which they were completed.
+     *
+     * @return analysis times of the root invocations
+     */
+    public List<RootInvocationTime> getRootInvocationTimes() {
+        return new ArrayList<>(rootInvocationTimes);
+    }
+
+    /**
+     * Return the root invocations that took the longest to analyze, the slowest first.
+     *
+     * @param limit maximum number of root invocations to return
+     * @return slowest root invocations
+     */
+    public List<RootInvocationTime> getSlowestRootInvocations(int limit) {
+        return rootInvocationTimes.stream()
+            .sorted(Comparator.comparingLong(RootInvocationTime::getNanos).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Write the metrics in the given format.
+     *
+     * @param writer writer to write the metrics to
+     * @param format format to write the metrics in
+     * @throws IOException when writing fails
+     */
+    public void write(Writer writer, MetricsFormat format) throws IOException {
+        if (format == MetricsFormat.PROMETHEUS) {
+            writePrometheus(writer);
+        } else {
+            writeJson(writer);
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Writer writer) throws IOException {
+        writer.write("{\n");
+        writeJsonField(writer, "analysisMillis", toMillis(analysisNanos));
+        writeJsonField(writer, "parseCount", getParseCount());
+        writeJsonField(writer, "parseMillis", toMillis(getParseNanos()));
+        writeJsonField(writer, "resolveCount", getResolveCount());
+        writeJsonField(writer, "resolveFailureCount", getResolveFailureCount());
+        writeJsonField(writer, "resolveMillis", toMillis(getResolveNanos()));
+        writeJsonField(writer, "walkedFileCount", getWalkedFileCount());
+        writeJsonField(writer, "fullScanCount", getFullScanCount());
+        writeJsonField(writer, "invocationCount", getInvocationCount());
+        writeJsonField(writer, "maxDepth", getMaxDepth());
+        writer.write("  \"rootInvocations\": [");
+
+        String separator = "\n";
+        for (RootInvocationTime rootInvocation : rootInvocationTimes) {
+            writer.write(separator);
+            writer.write("    { \"signature\": ");
+            writeJsonString(writer, rootInvocation.getSignature());
+            writer.write(", \"millis\": " + toMillis(rootInvocation.getNanos()) + " }");
+            separator = ",\n";
+        }
+
+        writer.write(rootInvocationTimes.isEmpty() ? "]\n" : "\n  ]\n");
+        writer.write("}\n");
+    }
+
+    private static void writeJsonField(Writer writer, String name, Object value) throws IOException {
+        writer.write("  \"" + name + "\": " + value + ",\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+
+        writer.write('"');
+    }
+
+    private void writePrometheus(Writer writer) throws IOException {
+        writeGauge(writer, "seconds", "Duration of the analysis", toSeconds(analysisNanos));
+        writeCounter(writer, "parses_total", "Source files parsed", getParseCount());
+        writeCounter(writer, "parse_seconds_total", "Time spent parsing source files", toSeconds(getParseNanos()));
+        writeCounter(writer, "resolves_total", "Symbol resolutions", getResolveCount());
+        writeCounter(writer, "resolve_failures_total", "Failed symbol resolutions", getResolveFailureCount());
+        writeCounter(writer, "resolve_seconds_total", "Time spent resolving symbols", toSeconds(getResolveNanos()));
+        writeCounter(writer, "walked_files_total", "Source files walked for entry points", getWalkedFileCount());
+        writeCounter(writer, "full_scans_total", "Scans parsing all source files", getFullScanCount());
+        writeCounter(writer, "invocations_total", "Invocations collected", getInvocationCount());
+        writeGauge(writer, "max_depth", "Maximum depth of the collected invocations", getMaxDepth());
+
+        String name = PREFIX + "root_invocation_seconds";
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+
+        for (RootInvocationTime rootInvocation : rootInvocationTimes) {
+            count++;
+            sum += rootInvocation.getNanos();
+            max = Math.max(max, rootInvocation.getNanos());
+        }
+
+        writer.write("# HELP " + name + " Analysis time of the root invocations\n");
+        writer.write("# TYPE " + name + " summary\n");
+        writer.write(name + "_count " + count + "\n");
+        writer.write(name + "_sum " + toSeconds(sum) + "\n");
+        writeGauge(writer, "root_invocation_max_seconds", "Longest analysis time of a root invocation", toSeconds(max));
+    }
+
+    private static void writeCounter(Writer writer, String name, String help, Object value) throws IOException {
+        writeMetric(writer, name, "counter", help, value);
+    }
+
+    private static void writeGauge(Writer writer, String name, String help, Object value) throws IOException {
+        writeMetric(writer, name, "gauge", help, value);
+    }
+
+    private static void writeMetric(Writer writer, String name, String type, String help, Object value)
+        throws IOException {
+
+        writer.write("# HELP " + PREFIX + name + " " + help + "\n");
+        writer.write("# TYPE " + PREFIX + name + " " + type + "\n");
+        writer.write(PREFIX + name + " " + value + "\n");
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    /**
+     * The time it took to analyze the invocation tree of a root invocation.
+     */
+    public static final class RootInvocationTime {
+        private final String signature;
+        private final long nanos;
+
+        RootInvocationTime(String signature, long nanos) {
+            this.signature = signature;
+            this.nanos = nanos;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
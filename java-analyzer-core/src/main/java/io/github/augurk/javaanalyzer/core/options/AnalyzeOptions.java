@@ -16,12 +16,16 @@
 
 package io.github.augurk.javaanalyzer.core.options;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 
 import com.github.javaparser.ParserConfiguration;
 
 public class AnalyzeOptions {
+    public static final int DEFAULT_PARSE_CACHE_SIZE = 2048;
+    public static final int DEFAULT_SUBTREE_CACHE_SIZE = 100_000;
+
     private final ClassLoader classLoader;
     private final JavaVersion javaVersion;
     private final String projectName;
@@ -29,6 +33,23 @@ public class AnalyzeOptions {
     private final String augurkURL;
     private final List<String> filter;
 
+    private int parseCacheSize = DEFAULT_PARSE_CACHE_SIZE;
+    private CacheEvictionPolicy parseCacheEvictionPolicy = CacheEvictionPolicy.SIZE_BOUNDED;
+    private int workerCount = 1;
+    private boolean memoizeSubtrees = true;
+    private int subtreeCacheSize = DEFAULT_SUBTREE_CACHE_SIZE;
+    private File incrementalStateFile;
+    private boolean compressReport;
+    private boolean chunkedReportUpload;
+    private int reportBatchSize;
+    private File metricsFile;
+    private MetricsFormat metricsFormat = MetricsFormat.JSON;
+    private int maxInvocationDepth;
+    private int maxInvocationCount;
+    private long rootTimeBudgetMillis;
+    private boolean compactInvocationTrees;
+    private ReportLayout reportLayout = ReportLayout.TREE;
+
     public AnalyzeOptions(ClassLoader classLoader, JavaVersion javaVersion, String projectName,
                           String version, String augurkURL, List<String> filter) {
 
@@ -79,4 +100,231 @@ public class AnalyzeOptions {
     public boolean filterContains(String value) {
         return filter.contains(value);
     }
+
+    public List<String> getFilter() {
+        return filter == null ? Collections.emptyList() : Collections.unmodifiableList(filter);
+    }
+
+    public int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    /**
+     * Set the maximum number of parsed compilation units kept in memory, only used by the
+     * {@link CacheEvictionPolicy#SIZE_BOUNDED} policy. A value of zero or less means unbounded.
+     *
+     * @param parseCacheSize maximum number of cached compilation units
+     */
+    public void setParseCacheSize(int parseCacheSize) {
+        this.parseCacheSize = parseCacheSize;
+    }
+
+    public CacheEvictionPolicy getParseCacheEvictionPolicy() {
+        return parseCacheEvictionPolicy;
+    }
+
+    public void setParseCacheEvictionPolicy(CacheEvictionPolicy parseCacheEvictionPolicy) {
+        this.parseCacheEvictionPolicy = parseCacheEvictionPolicy;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Set the number of workers analyzing the project files in parallel. Every worker keeps its own parse cache,
+     * a value of one (the default) analyzes the files sequentially.
+     *
+     * @param workerCount number of workers
+     */
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public boolean isMemoizeSubtrees() {
+        return memoizeSubtrees;
+    }
+
+    /**
+     * Enable or disable memoization of the invocation subtrees of analyzed methods. When enabled (the default), the
+     * subtree of a method is analyzed once and reused by later invocations in an equivalent context.
+     *
+     * @param memoizeSubtrees true to memoize invocation subtrees
+     */
+    public void setMemoizeSubtrees(boolean memoizeSubtrees) {
+        this.memoizeSubtrees = memoizeSubtrees;
+    }
+
+    public int getSubtreeCacheSize() {
+        return subtreeCacheSize;
+    }
+
+    /**
+     * Set the maximum number of invocations kept by the memoized subtrees, counted per subtree. The least recently
+     * used subtrees are dropped when it is exceeded. A value of zero or less means unbounded.
+     *
+     * @param subtreeCacheSize maximum number of memoized invocations
+     */
+    public void setSubtreeCacheSize(int subtreeCacheSize) {
+        this.subtreeCacheSize = subtreeCacheSize;
+    }
+
+    public File getIncrementalStateFile() {
+        return incrementalStateFile;
+    }
+
+    /**
+     * Enable the incremental analysis by setting the file the analysis state is stored in between runs. Only entry
+     * points depending on changed source files are analyzed again, the invocation trees of the other entry points are
+     * restored from the state file. A value of null (the default) disables the incremental analysis.
+     *
+     * @param incrementalStateFile file to store the analysis state in
+     */
+    public void setIncrementalStateFile(File incrementalStateFile) {
+        this.incrementalStateFile = incrementalStateFile;
+    }
+
+    public boolean isCompressReport() {
+        return compressReport;
+    }
+
+    /**
+     * Enable or disable gzip compression of the reports posted to Augurk. Disabled by default.
+     *
+     * @param compressReport true to compress reports
+     */
+    public void setCompressReport(boolean compressReport) {
+        this.compressReport = compressReport;
+    }
+
+    public boolean isChunkedReportUpload() {
+        return chunkedReportUpload;
+    }
+
+    /**
+     * Enable or disable chunked transfer encoding of the reports posted to Augurk. When enabled, a report is written
+     * to the connection while it is being serialized. When disabled (the default), a report is serialized up front so
+     * its length can be sent along.
+     *
+     * @param chunkedReportUpload true to upload reports using chunked transfer encoding
+     */
+    public void setChunkedReportUpload(boolean chunkedReportUpload) {
+        this.chunkedReportUpload = chunkedReportUpload;
+    }
+
+    public int getReportBatchSize() {
+        return reportBatchSize;
+    }
+
+    /**
+     * Set the maximum number of root invocations posted to Augurk in a single request. The report is split into
+     * batches that are posted one after another. A value of zero or less (the default) posts the report at once.
+     *
+     * @param reportBatchSize maximum number of root invocations per request
+     */
+    public void setReportBatchSize(int reportBatchSize) {
+        this.reportBatchSize = reportBatchSize;
+    }
+
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Set the file the metrics of an analysis are written to once the analysis is complete. A value of null (the
+     * default) only logs a summary of the metrics.
+     *
+     * @param metricsFile file to write the metrics to
+     */
+    public void setMetricsFile(File metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    public MetricsFormat getMetricsFormat() {
+        return metricsFormat;
+    }
+
+    /**
+     * Set the format of the metrics file, {@link MetricsFormat#JSON} by default.
+     *
+     * @param metricsFormat format of the metrics file
+     */
+    public void setMetricsFormat(MetricsFormat metricsFormat) {
+        this.metricsFormat = metricsFormat;
+    }
+
+    public int getMaxInvocationDepth() {
+        return maxInvocationDepth;
+    }
+
+    /**
+     * Set the maximum depth of the invocation tree of a root invocation. Invocations beyond that depth are left out
+     * and the invocation they were made from is marked as truncated. A value of zero or less (the default) means
+     * unlimited.
+     *
+     * @param maxInvocationDepth maximum depth of an invocation tree
+     */
+    public void setMaxInvocationDepth(int maxInvocationDepth) {
+        this.maxInvocationDepth = maxInvocationDepth;
+    }
+
+    public int getMaxInvocationCount() {
+        return maxInvocationCount;
+    }
+
+    /**
+     * Set the maximum number of invocations collected for a root invocation. The analysis of a root invocation that
+     * exceeds it is cut off and the root invocation is marked as truncated. A value of zero or less (the default)
+     * means unlimited.
+     *
+     * @param maxInvocationCount maximum number of collected invocations per root invocation
+     */
+    public void setMaxInvocationCount(int maxInvocationCount) {
+        this.maxInvocationCount = maxInvocationCount;
+    }
+
+    public long getRootTimeBudgetMillis() {
+        return rootTimeBudgetMillis;
+    }
+
+    /**
+     * Set the time the analysis of a single root invocation may take. The analysis of a root invocation that exceeds
+     * it is cut off and the root invocation is marked as truncated. A value of zero or less (the default) means
+     * unlimited.
+     *
+     * @param rootTimeBudgetMillis time budget per root invocation in milliseconds
+     */
+    public void setRootTimeBudgetMillis(long rootTimeBudgetMillis) {
+        this.rootTimeBudgetMillis = rootTimeBudgetMillis;
+    }
+
+    public boolean isCompactInvocationTrees() {
+        return compactInvocationTrees;
+    }
+
+    /**
+     * Enable or disable the compact representation of finished invocation trees. When enabled, the invocation tree
+     * of a root invocation is converted to parallel arrays referring to shared signatures once it is complete, which
+     * takes a fraction of the memory of a tree of invocations. Disabled by default.
+     *
+     * @param compactInvocationTrees true to keep invocation trees in the compact representation
+     */
+    public void setCompactInvocationTrees(boolean compactInvocationTrees) {
+        this.compactInvocationTrees = compactInvocationTrees;
+    }
+
+    public ReportLayout getReportLayout() {
+        return reportLayout;
+    }
+
+    /**
+     * Set the layout of the invocation trees, {@link ReportLayout#TREE} by default. With {@link ReportLayout#DAG},
+     * identical subtrees of finished invocation trees are shared, which takes precedence over the compact
+     * representation, and reporters that support it report the shared subtrees once.
+     *
+     * @param reportLayout layout of the invocation trees
+     */
+    public void setReportLayout(ReportLayout reportLayout) {
+        this.reportLayout = reportLayout;
+    }
 }
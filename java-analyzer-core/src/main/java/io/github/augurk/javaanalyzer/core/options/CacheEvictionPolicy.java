@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.augurk.javaanalyzer.core.options;
+
+/**
+ * Eviction policies supported by the compilation unit cache.
+ */
+public enum CacheEvictionPolicy {
+    /**
+     * Keep at most a fixed number of compilation units, evicting the least recently used one first.
+     */
+    SIZE_BOUNDED,
+
+    /**
+     * Keep compilation units softly reachable, leaving eviction to the garbage collector under memory pressure.
+     */
+    SOFT_REFERENCE
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.options;
+
+/**
+ * Formats the metrics of an analysis can be written in.
+ */
+public enum MetricsFormat {
+    /**
+     * A JSON document with the counters, timers and the analysis time of each root invocation.
+     */
+    JSON,
+
+    /**
+     * The Prometheus text exposition format, suitable for the textfile collector of the node exporter.
+     */
+    PROMETHEUS
+}
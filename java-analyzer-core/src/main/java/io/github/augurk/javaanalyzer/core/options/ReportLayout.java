@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.options;
+
+/**
+ * Layouts the invocation trees of a report can be kept and reported in.
+ */
+public enum ReportLayout {
+    /**
+     * Every root invocation has its own invocation tree, identical subtrees are repeated.
+     */
+    TREE,
+
+    /**
+     * Identical invocation subtrees are shared by all invocations they are made from, turning the invocation trees
+     * into a directed acyclic graph. Reports refer to shared invocations by their ID.
+     */
+    DAG
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.github.augurk.javaanalyzer.core.Reporter;
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reporter that writes the analysis results to a file in the {@link BinaryReportFormat binary format}, to archive
+ * and compare the results of different builds. The file is read with {@link BinaryReportReader}.
+ */
+public class BinaryFileReporter implements Reporter {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryFileReporter.class);
+
+    private final File reportFile;
+
+    public BinaryFileReporter(File reportFile) {
+        logger.info("Add adapter: {}", this.getClass().getCanonicalName());
+        this.reportFile = reportFile;
+    }
+
+    @Override
+    public void report(AnalysisReport report) {
+        try {
+            BinaryReportWriter.write(report, reportFile);
+            logger.info("Written report to: {}", reportFile);
+        } catch (IOException e) {
+            logger.warn("Unable to write report {}", reportFile, e);
+        }
+    }
+}
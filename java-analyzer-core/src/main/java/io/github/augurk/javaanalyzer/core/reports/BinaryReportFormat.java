@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+
+/**
+ * Binary format of analysis reports. A report starts with a magic number and the format version, followed by
+ * sections. Every section starts with a tag byte and the length of its content, so readers can skip sections they do
+ * not know:
+ * <ul>
+ * <li>{@link #STRINGS}: the number of strings, followed by every string as its length and UTF-8 bytes. All other
+ * sections refer to strings by their position in this table plus one, zero refers to an absent string.</li>
+ * <li>{@link #HEADER}: references to the analyzed project, its version and the timestamp of the report.</li>
+ * <li>{@link #ROOT_INDEX}: the number of root invocations, followed by the position of every root invocation in the
+ * root invocations section as a four byte integer, so a root invocation can be found without reading the others.</li>
+ * <li>{@link #ROOT_HASHES}: the number of root invocations, followed by the hash of every invocation tree as an eight
+ * byte integer, so unchanged invocation trees can be recognized without reading them.</li>
+ * <li>{@link #ROOT_INVOCATIONS}: the number of root invocations, followed by the invocation trees depth-first.</li>
+ * <li>{@link #SIGNATURE_INDEX}: optional, the number of strings, followed by a four byte integer for every string,
+ * which is the position of the root invocations that reach the string as a signature, relative to the end of this
+ * table, or -1 for strings that are not reached. Then follow, in the order of the strings, the number of those root
+ * invocations and their positions in the report, in ascending order as the differences with the previous one.</li>
+ * </ul>
+ * An invocation starts with its kind and flags in a single number, followed by a reference to its signature. A When
+ * invocation continues with its regular expression, other invocations with their interface definitions. Then follow
+ * the automation targets, the number of invocations made from the invocation and those invocations. Numbers are
+ * written as variable-length integers of seven bits per byte, least significant bits first.
+ */
+final class BinaryReportFormat {
+    static final int MAGIC = 0x41554752;
+    static final int FORMAT_VERSION = 1;
+
+    static final int STRINGS = 1;
+    static final int HEADER = 2;
+    static final int ROOT_INVOCATIONS = 3;
+    static final int ROOT_INDEX = 4;
+    static final int ROOT_HASHES = 5;
+    static final int SIGNATURE_INDEX = 6;
+
+    static final int LOCAL = 1;
+    static final int TRUNCATED = 2;
+    static final int FLAG_BITS = 2;
+
+    private static final InvocationKind[] KINDS = InvocationKind.values();
+
+    private BinaryReportFormat() {
+    }
+
+    static int encodeKind(InvocationKind kind, boolean isLocal, boolean isTruncated) {
+        return kind.ordinal() << FLAG_BITS | (isLocal ? LOCAL : 0) | (isTruncated ? TRUNCATED : 0);
+    }
+
+    static InvocationKind decodeKind(int header) throws IOException {
+        int ordinal = header >>> FLAG_BITS;
+        if (ordinal >= KINDS.length) throw new IOException("Unknown invocation kind " + ordinal);
+        return KINDS[ordinal];
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        output.writeByte(value);
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+
+        throw new IllegalStateException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static io.github.augurk.javaanalyzer.core.reports.BinaryReportFormat.readVarInt;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+
+/**
+ * Reads analysis reports written by {@link BinaryReportWriter}. Sections the reader does not know are skipped, so
+ * sections can be added to the format without breaking existing readers. The root index and hashes are skipped as well,
+ * they are only needed to query a report without reading it completely, see {@link MappedReport}. The signature index
+ * is restored with the root invocations, so the invocation index of the report is built without walking their trees.
+ */
+public class BinaryReportReader {
+    private String[] strings;
+    private String[] header;
+    private List<ReadInvocation> rootInvocations;
+    private List<Set<String>> reachedSignatures;
+
+    private BinaryReportReader() {
+    }
+
+    /**
+     * Read the report stored in the provided file.
+     *
+     * @param reportFile file to read the report from
+     * @return report stored in the file
+     * @throws IOException when the file could not be read or does not contain a report
+     */
+    public static AnalysisReport read(File reportFile) throws IOException {
+        try (var input = new BufferedInputStream(Files.newInputStream(reportFile.toPath()))) {
+            return read(input);
+        }
+    }
+
+    /**
+     * Read a report from the provided stream, which is not closed.
+     *
+     * @param input stream to read the report from
+     * @return report read from the stream
+     * @throws IOException when the stream could not be read or does not contain a report
+     */
+    public static AnalysisReport read(InputStream input) throws IOException {
+        return new BinaryReportReader().readReport(new DataInputStream(input));
+    }
+
+    private AnalysisReport readReport(DataInputStream input) throws IOException {
+        if (input.readInt() != BinaryReportFormat.MAGIC) throw new IOException("Not an analysis report");
+
+        int version = input.readInt();
+        if (version != BinaryReportFormat.FORMAT_VERSION) {
+            throw new IOException("Unsupported report format version " + version);
+        }
+
+        for (int tag = input.read(); tag >= 0; tag = input.read()) {
+            int length = readVarInt(input);
+
+            switch (tag) {
+                case BinaryReportFormat.STRINGS:
+                    strings = readStringTable(input);
+                    break;
+                case BinaryReportFormat.HEADER:
+                    header = new String[] { readString(input), readString(input), readString(input) };
+                    break;
+                case BinaryReportFormat.ROOT_INVOCATIONS:
+                    rootInvocations = readRootInvocations(input);
+                    break;
+                case BinaryReportFormat.SIGNATURE_INDEX:
+                    reachedSignatures = readSignatureIndex(input);
+                    break;
+                default:
+                    skip(input, length);
+            }
+        }
+
+        if (header == null) throw new IOException("Report has no header");
+
+        var report = new AnalysisReport(header[0], header[1], header[2] != null ? LocalDateTime.parse(header[2]) : null);
+        if (rootInvocations == null) return report;
+
+        if (reachedSignatures != null) {
+            if (reachedSignatures.size() > rootInvocations.size()) {
+                int id = reachedSignatures.size() - 1;
+                throw new IOException("Signature index refers to unknown root invocation " + id);
+            }
+
+            for (int i = 0; i < rootInvocations.size(); i++) {
+                boolean isReached = i < reachedSignatures.size() && reachedSignatures.get(i) != null;
+                rootInvocations.get(i).readReachedSignatures(isReached ? reachedSignatures.get(i) : new HashSet<>());
+            }
+        }
+
+        rootInvocations.forEach(report::addRootInvocation);
+        return report;
+    }
+
+    private static String[] readStringTable(DataInputStream input) throws IOException {
+        String[] table = new String[readVarInt(input)];
+
+        for (int i = 0; i < table.length; i++) {
+            byte[] bytes = new byte[readVarInt(input)];
+            input.readFully(bytes);
+            table[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return table;
+    }
+
+    private List<ReadInvocation> readRootInvocations(DataInputStream input) throws IOException {
+        int count = readVarInt(input);
+        List<ReadInvocation> invocations = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            invocations.add(readInvocation(input));
+        }
+
+        return invocations;
+    }
+
+    private ReadInvocation readInvocation(DataInputStream input) throws IOException {
+        int kindAndFlags = readVarInt(input);
+        InvocationKind kind = BinaryReportFormat.decodeKind(kindAndFlags);
+        String signature = readString(input);
+
+        ReadInvocation invocation;
+
+        if (kind == InvocationKind.WHEN) {
+            invocation = new ReadInvocation(signature, readString(input));
+        } else {
+            boolean isLocal = (kindAndFlags & BinaryReportFormat.LOCAL) != 0;
+            invocation = new ReadInvocation(kind, signature, readStrings(input), isLocal);
+        }
+
+        invocation.readAutomationTargets(readStrings(input));
+        invocation.readTruncated((kindAndFlags & BinaryReportFormat.TRUNCATED) != 0);
+        int count = readVarInt(input);
+
+        for (int i = 0; i < count; i++) {
+            invocation.add(readInvocation(input));
+        }
+
+        return invocation;
+    }
+
+    /**
+     * Read the signature index, inverted to the signatures reached by every root invocation. The positions of the
+     * lists of root invocations are not needed, the lists are read in the order of the strings.
+     */
+    private List<Set<String>> readSignatureIndex(DataInputStream input) throws IOException {
+        int count = readVarInt(input);
+        boolean[] isIndexed = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            isIndexed[i] = input.readInt() >= 0;
+        }
+
+        List<Set<String>> signaturesByRoot = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            if (!isIndexed[i]) continue;
+
+            String signature = readString(i + 1);
+            int id = 0;
+
+            for (int remaining = readVarInt(input); remaining > 0; remaining--) {
+                id += readVarInt(input);
+                while (signaturesByRoot.size() <= id) signaturesByRoot.add(null);
+                if (signaturesByRoot.get(id) == null) signaturesByRoot.set(id, new HashSet<>());
+                signaturesByRoot.get(id).add(signature);
+            }
+        }
+
+        return signaturesByRoot;
+    }
+
+    private String[] readStrings(DataInputStream input) throws IOException {
+        String[] values = new String[readVarInt(input)];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(input);
+        }
+
+        return values;
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        return readString(readVarInt(input));
+    }
+
+    private String readString(int reference) throws IOException {
+        if (reference == 0) return null;
+
+        if (strings == null || reference > strings.length) {
+            throw new IOException("Reference to unknown string " + reference);
+        }
+
+        return strings[reference - 1];
+    }
+
+    private static void skip(DataInputStream input, int length) throws IOException {
+        for (int remaining = length; remaining > 0;) {
+            int skipped = input.skipBytes(remaining);
+            if (skipped <= 0) throw new EOFException();
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static io.github.augurk.javaanalyzer.core.reports.BinaryReportFormat.writeVarInt;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationIndex;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+
+/**
+ * Writes analysis reports in the {@link BinaryReportFormat binary format}. Every distinct string is written once, in
+ * the string table, which is written before the sections that refer to it. Those sections are buffered while the
+ * string table is built, so a report is written in a single walk over its invocation trees.
+ */
+public class BinaryReportWriter {
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Section stringTable = new Section();
+
+    private BinaryReportWriter() {
+    }
+
+    /**
+     * Write the report to the provided file. The report is written to a temporary file first, which replaces the
+     * report file once completely written.
+     *
+     * @param report report to write
+     * @param reportFile file to write the report to
+     * @throws IOException when the report could not be written
+     */
+    public static void write(AnalysisReport report, File reportFile) throws IOException {
+        Path target = reportFile.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), reportFile.getName(), ".tmp");
+
+        try {
+            try (var output = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                write(report, output);
+            }
+
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Write the report to the provided stream, which is not closed.
+     *
+     * @param report report to write
+     * @param output stream to write the report to
+     * @throws IOException when the report could not be written
+     */
+    public static void write(AnalysisReport report, OutputStream output) throws IOException {
+        new BinaryReportWriter().writeReport(report, new DataOutputStream(output));
+    }
+
+    private void writeReport(AnalysisReport report, DataOutputStream output) throws IOException {
+        var header = new Section();
+        writeString(header, report.getAnalyzedProject());
+        writeString(header, report.getVersion());
+        writeString(header, report.getTimestamp() != null ? report.getTimestamp().toString() : null);
+
+        var rootIndex = new Section();
+        var rootHashes = new Section();
+        var rootInvocations = new Section();
+        writeVarInt(rootIndex, report.getRootInvocations().size());
+        writeVarInt(rootHashes, report.getRootInvocations().size());
+        writeVarInt(rootInvocations, report.getRootInvocations().size());
+
+        for (Invocation rootInvocation : report.getRootInvocations()) {
+            rootIndex.writeInt(rootInvocations.size());
+            rootHashes.writeLong(writeInvocation(rootInvocations, InvocationView.of(rootInvocation)));
+        }
+
+        var signatureIndex = new Section();
+        writeSignatureIndex(signatureIndex, report.getInvocationIndex());
+
+        output.writeInt(BinaryReportFormat.MAGIC);
+        output.writeInt(BinaryReportFormat.FORMAT_VERSION);
+
+        var stringCount = new Section();
+        writeVarInt(stringCount, strings.size());
+        writeSection(output, BinaryReportFormat.STRINGS, stringCount, stringTable);
+        writeSection(output, BinaryReportFormat.HEADER, header);
+        writeSection(output, BinaryReportFormat.ROOT_INDEX, rootIndex);
+        writeSection(output, BinaryReportFormat.ROOT_HASHES, rootHashes);
+        writeSection(output, BinaryReportFormat.ROOT_INVOCATIONS, rootInvocations);
+        writeSection(output, BinaryReportFormat.SIGNATURE_INDEX, signatureIndex);
+        output.flush();
+    }
+
+    /**
+     * Write the tree of the provided invocation and return its {@link SubtreeHash hash}.
+     */
+    private long writeInvocation(DataOutputStream output, InvocationView invocation) throws IOException {
+        InvocationKind kind = invocation.getKind();
+        writeVarInt(output, BinaryReportFormat.encodeKind(kind, invocation.isLocal(), invocation.isTruncated()));
+        writeString(output, invocation.getSignature());
+
+        if (kind == InvocationKind.WHEN) {
+            writeString(output, invocation.regularExpressions().get(0));
+        } else {
+            writeStrings(output, invocation.interfaceDefinitions());
+        }
+
+        writeStrings(output, invocation.automationTargets());
+        writeVarInt(output, invocation.getInvocationCount());
+
+        long[] invocationHashes = new long[invocation.getInvocationCount()];
+        int i = 0;
+
+        for (InvocationView child : invocation.invocations()) {
+            invocationHashes[i++] = writeInvocation(output, child);
+        }
+
+        return SubtreeHash.of(invocation, invocationHashes);
+    }
+
+    /**
+     * Write the invocation index, by the references of the signatures. Signatures have been added to the string table
+     * by the invocation trees, so the table has its final size once their references are known.
+     */
+    private void writeSignatureIndex(DataOutputStream output, InvocationIndex index) throws IOException {
+        Map<Integer, int[]> rootInvocationIds = new HashMap<>();
+        for (String signature : index.getSignatures()) {
+            rootInvocationIds.put(referenceOf(signature), index.getRootInvocationIds(signature));
+        }
+
+        var lists = new Section();
+        writeVarInt(output, strings.size());
+
+        for (int reference = 1; reference <= strings.size(); reference++) {
+            int[] ids = rootInvocationIds.get(reference);
+            output.writeInt(ids != null ? lists.size() : -1);
+            if (ids == null) continue;
+
+            writeVarInt(lists, ids.length);
+            int previous = 0;
+
+            for (int id : ids) {
+                writeVarInt(lists, id - previous);
+                previous = id;
+            }
+        }
+
+        lists.writeTo(output);
+    }
+
+    private void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(output, 0);
+            return;
+        }
+
+        writeVarInt(output, values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        writeVarInt(output, value != null ? referenceOf(value) : 0);
+    }
+
+    private int referenceOf(String value) throws IOException {
+        Integer reference = strings.get(value);
+
+        if (reference == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(stringTable, bytes.length);
+            stringTable.write(bytes);
+
+            reference = strings.size() + 1;
+            strings.put(value, reference);
+        }
+
+        return reference;
+    }
+
+    private static void writeSection(DataOutputStream output, int tag, Section... parts) throws IOException {
+        int length = 0;
+        for (Section part : parts) {
+            length += part.size();
+        }
+
+        output.writeByte(tag);
+        writeVarInt(output, length);
+
+        for (Section part : parts) {
+            part.writeTo(output);
+        }
+    }
+
+    /**
+     * Content of a section, buffered in memory until it is written.
+     */
+    private static class Section extends DataOutputStream {
+        Section() {
+            super(new ByteArrayOutputStream());
+        }
+
+        void writeTo(OutputStream output) throws IOException {
+            ((ByteArrayOutputStream) out).writeTo(output);
+        }
+    }
+}
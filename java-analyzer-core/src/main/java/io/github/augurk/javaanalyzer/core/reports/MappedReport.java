@@ -0,0 +1,442 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static io.github.augurk.javaanalyzer.core.reports.BinaryReportFormat.readVarInt;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+
+/**
+ * Report written by {@link BinaryReportWriter}, queried from a memory-mapped file. Opening a report only reads the
+ * section headers and the positions of the strings, queries read the parts of the report they need. Strings are
+ * compared as bytes and only decoded when they are returned, invocation trees are only created for the root
+ * invocations that are asked for. Reports with a signature index find the root invocations that reach a method from
+ * the index, instead of walking every invocation tree.
+ * <p>
+ * Queries can be made from multiple threads. The file stays mapped until the report is garbage collected.
+ */
+public class MappedReport {
+    private static final int NO_STRING = 0;
+
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private final int rootPositionsOffset;
+    private final int rootInvocationsOffset;
+    private final int rootHashesOffset;
+    private final int signatureIndexOffset;
+    private final int signatureIndexCount;
+    private final int rootCount;
+
+    private final String analyzedProject;
+    private final String version;
+    private final LocalDateTime timestamp;
+
+    private MappedReport(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        try {
+            if (buffer.getInt() != BinaryReportFormat.MAGIC) throw new IOException("Not an analysis report");
+
+            int formatVersion = buffer.getInt();
+            if (formatVersion != BinaryReportFormat.FORMAT_VERSION) {
+                throw new IOException("Unsupported report format version " + formatVersion);
+            }
+
+            int stringsOffset = -1;
+            int headerOffset = -1;
+            int indexOffset = -1;
+            int invocationsOffset = -1;
+            int hashesOffset = -1;
+            int signaturesOffset = -1;
+
+            while (buffer.hasRemaining()) {
+                int tag = buffer.get() & 0xFF;
+                int length = readVarInt(buffer);
+                int offset = buffer.position();
+
+                if (tag == BinaryReportFormat.STRINGS) stringsOffset = offset;
+                if (tag == BinaryReportFormat.HEADER) headerOffset = offset;
+                if (tag == BinaryReportFormat.ROOT_INDEX) indexOffset = offset;
+                if (tag == BinaryReportFormat.ROOT_INVOCATIONS) invocationsOffset = offset;
+                if (tag == BinaryReportFormat.ROOT_HASHES) hashesOffset = offset;
+                if (tag == BinaryReportFormat.SIGNATURE_INDEX) signaturesOffset = offset;
+
+                if (length > buffer.remaining()) throw new IOException("Report is incomplete");
+                buffer.position(offset + length);
+            }
+
+            if (stringsOffset < 0 || headerOffset < 0 || indexOffset < 0 || invocationsOffset < 0) {
+                throw new IOException("Report is incomplete");
+            }
+
+            this.stringOffsets = readStringOffsets(buffer.position(stringsOffset));
+            this.strings = new String[stringOffsets.length];
+            this.rootCount = readVarInt(buffer.position(indexOffset));
+            this.rootPositionsOffset = buffer.position();
+            this.rootInvocationsOffset = invocationsOffset;
+
+            if (hashesOffset >= 0) readVarInt(buffer.position(hashesOffset));
+            this.rootHashesOffset = hashesOffset >= 0 ? buffer.position() : -1;
+
+            this.signatureIndexCount = signaturesOffset >= 0 ? readVarInt(buffer.position(signaturesOffset)) : 0;
+            this.signatureIndexOffset = signaturesOffset >= 0 ? buffer.position() : -1;
+
+            ByteBuffer header = buffer.duplicate().position(headerOffset);
+            this.analyzedProject = readString(header);
+            this.version = readString(header);
+            String timestampString = readString(header);
+            this.timestamp = timestampString != null ? LocalDateTime.parse(timestampString) : null;
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException e) {
+            throw new IOException("Report is corrupt", e);
+        }
+    }
+
+    /**
+     * Map the report stored in the provided file.
+     *
+     * @param reportFile file the report is stored in
+     * @return mapped report
+     * @throws IOException when the file could not be mapped or does not contain a report
+     */
+    public static MappedReport open(File reportFile) throws IOException {
+        try (var channel = FileChannel.open(reportFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Report is too large to map");
+            return new MappedReport(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public String getAnalyzedProject() {
+        return analyzedProject;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public int getRootInvocationCount() {
+        return rootCount;
+    }
+
+    /**
+     * Return the signatures of the root invocations, in the order of the report.
+     *
+     * @return signatures of the root invocations
+     */
+    public List<String> getRootSignatures() {
+        List<String> signatures = new ArrayList<>(rootCount);
+
+        for (int i = 0; i < rootCount; i++) {
+            signatures.add(rootSignature(i));
+        }
+
+        return signatures;
+    }
+
+    /**
+     * Return the signatures of the root invocations from which an invocation of the provided signature is made,
+     * directly or indirectly.
+     *
+     * @param signature signature of the invoked method
+     * @return signatures of the root invocations that reach the method
+     */
+    public List<String> findRootsReaching(String signature) {
+        int reference = referenceOf(signature);
+        if (reference == NO_STRING) return Collections.emptyList();
+
+        List<String> signatures = new ArrayList<>();
+
+        if (signatureIndexOffset >= 0) {
+            for (int id : rootInvocationIdsReaching(reference)) {
+                signatures.add(rootSignature(id));
+            }
+        } else {
+            for (int i = 0; i < rootCount; i++) {
+                if (reaches(rootInvocation(i), reference)) signatures.add(rootSignature(i));
+            }
+        }
+
+        return signatures;
+    }
+
+    /**
+     * Return the first root invocation with the provided signature, including its complete invocation tree.
+     *
+     * @param signature signature of the root invocation
+     * @return root invocation, empty when the report has no root invocation with the signature
+     */
+    public Optional<Invocation> findRootInvocation(String signature) {
+        int reference = referenceOf(signature);
+        if (reference == NO_STRING) return Optional.empty();
+
+        for (int i = 0; i < rootCount; i++) {
+            ByteBuffer root = rootInvocation(i);
+            readVarInt(root);
+
+            if (readVarInt(root) == reference) {
+                return Optional.of(readInvocation(root.position(rootInvocationOffset(i))));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Return the root invocation at the provided position of the report, including its complete invocation tree.
+     *
+     * @param index position of the root invocation
+     * @return root invocation
+     * @throws IndexOutOfBoundsException when the report has no root invocation at the position
+     */
+    public Invocation getRootInvocation(int index) {
+        return readInvocation(rootInvocation(index));
+    }
+
+    /**
+     * Return the automation targets of all root invocations, without duplicates.
+     *
+     * @return automation targets in the order they are first found
+     */
+    public Set<String> getAutomationTargets() {
+        Set<String> automationTargets = new LinkedHashSet<>();
+
+        for (int i = 0; i < rootCount; i++) {
+            ByteBuffer root = rootInvocation(i);
+            int kindAndFlags = readVarInt(root);
+            readVarInt(root);
+            skipDefinitions(root, kindAndFlags);
+            automationTargets.addAll(Arrays.asList(readStrings(root)));
+        }
+
+        return automationTargets;
+    }
+
+    String rootSignature(int index) {
+        ByteBuffer root = rootInvocation(index);
+        readVarInt(root);
+        return readString(root);
+    }
+
+    /**
+     * Return the When expression of the root invocation at the provided position, which is null for root invocations
+     * of another kind.
+     */
+    String rootWhenExpression(int index) {
+        ByteBuffer root = rootInvocation(index);
+        int kindAndFlags = readVarInt(root);
+        readVarInt(root);
+        return decodeKind(kindAndFlags) == InvocationKind.WHEN ? readString(root) : null;
+    }
+
+    /**
+     * Return the {@link SubtreeHash hash} of the invocation tree of the root invocation at the provided position. The
+     * hash is calculated from the tree for reports that have been written without hashes.
+     */
+    long rootHash(int index) {
+        if (rootHashesOffset < 0) return SubtreeHash.of(InvocationView.of(getRootInvocation(index)));
+
+        checkIndex(index);
+        return buffer.getLong(rootHashesOffset + index * Long.BYTES);
+    }
+
+    /**
+     * Return the positions of the root invocations that reach the string with the provided reference as a signature,
+     * from the signature index.
+     */
+    private int[] rootInvocationIdsReaching(int reference) {
+        if (reference > signatureIndexCount) return new int[0];
+
+        int position = buffer.getInt(signatureIndexOffset + (reference - 1) * Integer.BYTES);
+        if (position < 0) return new int[0];
+
+        int listsOffset = signatureIndexOffset + signatureIndexCount * Integer.BYTES;
+        ByteBuffer list = buffer.duplicate().position(listsOffset + position);
+        int[] ids = new int[readVarInt(list)];
+        int id = 0;
+
+        for (int i = 0; i < ids.length; i++) {
+            id += readVarInt(list);
+            ids[i] = id;
+        }
+
+        return ids;
+    }
+
+    private ByteBuffer rootInvocation(int index) {
+        return buffer.duplicate().position(rootInvocationOffset(index));
+    }
+
+    private int rootInvocationOffset(int index) {
+        checkIndex(index);
+        return rootInvocationsOffset + buffer.getInt(rootPositionsOffset + index * Integer.BYTES);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= rootCount) throw new IndexOutOfBoundsException("Root invocation " + index);
+    }
+
+    /**
+     * Walk the invocation tree at the position of the buffer depth-first, until an invocation of the provided
+     * signature is found. The root invocation itself does not count.
+     */
+    private boolean reaches(ByteBuffer tree, int signature) {
+        boolean isRoot = true;
+
+        for (int remaining = 1; remaining > 0; remaining--) {
+            int kindAndFlags = readVarInt(tree);
+            if (readVarInt(tree) == signature && !isRoot) return true;
+
+            skipDefinitions(tree, kindAndFlags);
+            skipStrings(tree);
+            remaining += readVarInt(tree);
+            isRoot = false;
+        }
+
+        return false;
+    }
+
+    private Invocation readInvocation(ByteBuffer tree) {
+        int kindAndFlags = readVarInt(tree);
+        InvocationKind kind = decodeKind(kindAndFlags);
+        String signature = readString(tree);
+
+        ReadInvocation invocation;
+
+        if (kind == InvocationKind.WHEN) {
+            invocation = new ReadInvocation(signature, readString(tree));
+        } else {
+            boolean isLocal = (kindAndFlags & BinaryReportFormat.LOCAL) != 0;
+            invocation = new ReadInvocation(kind, signature, readStrings(tree), isLocal);
+        }
+
+        invocation.readAutomationTargets(readStrings(tree));
+        invocation.readTruncated((kindAndFlags & BinaryReportFormat.TRUNCATED) != 0);
+        int count = readVarInt(tree);
+
+        for (int i = 0; i < count; i++) {
+            invocation.add(readInvocation(tree));
+        }
+
+        return invocation;
+    }
+
+    /**
+     * Skip the regular expression or interface definitions of an invocation, which follow its signature.
+     */
+    private static void skipDefinitions(ByteBuffer tree, int kindAndFlags) {
+        if (decodeKind(kindAndFlags) == InvocationKind.WHEN) {
+            readVarInt(tree);
+        } else {
+            skipStrings(tree);
+        }
+    }
+
+    private static InvocationKind decodeKind(int kindAndFlags) {
+        try {
+            return BinaryReportFormat.decodeKind(kindAndFlags);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static void skipStrings(ByteBuffer buffer) {
+        int count = readVarInt(buffer);
+        for (int i = 0; i < count; i++) {
+            readVarInt(buffer);
+        }
+    }
+
+    private String[] readStrings(ByteBuffer buffer) {
+        String[] values = new String[readVarInt(buffer)];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(buffer);
+        }
+
+        return values;
+    }
+
+    private String readString(ByteBuffer buffer) {
+        return string(readVarInt(buffer));
+    }
+
+    private String string(int reference) {
+        if (reference == NO_STRING) return null;
+
+        // Strings are immutable, so a string decoded by two threads at once is stored twice without harm
+        String value = strings[reference - 1];
+        if (value == null) {
+            ByteBuffer bytes = buffer.duplicate().position(stringOffsets[reference - 1]);
+            byte[] data = new byte[readVarInt(bytes)];
+            bytes.get(data);
+            value = new String(data, StandardCharsets.UTF_8);
+            strings[reference - 1] = value;
+        }
+
+        return value;
+    }
+
+    /**
+     * Return the reference to the provided string, comparing the encoded string with the strings of the report
+     * without decoding them.
+     */
+    private int referenceOf(String value) {
+        ByteBuffer expected = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < stringOffsets.length; i++) {
+            ByteBuffer bytes = buffer.duplicate().position(stringOffsets[i]);
+            int length = readVarInt(bytes);
+
+            if (length == expected.limit() && bytes.limit(bytes.position() + length).equals(expected)) return i + 1;
+        }
+
+        return NO_STRING;
+    }
+
+    private static int[] readStringOffsets(ByteBuffer table) {
+        int[] offsets = new int[readVarInt(table)];
+
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = table.position();
+            int length = readVarInt(table);
+            table.position(table.position() + length);
+        }
+
+        return offsets;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.util.Set;
+
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+
+/**
+ * Invocation read from a binary report.
+ */
+class ReadInvocation extends Invocation {
+    ReadInvocation(InvocationKind kind, String signature, String[] interfaceDefinitions, boolean isLocal) {
+        super(kind, signature, interfaceDefinitions, isLocal);
+    }
+
+    ReadInvocation(String signature, String whenExpression) {
+        super(signature, whenExpression);
+    }
+
+    void add(Invocation invocation) {
+        addInvocation(invocation);
+    }
+
+    void readAutomationTargets(String[] automationTargets) {
+        setAutomationTargets(automationTargets);
+    }
+
+    void readTruncated(boolean truncated) {
+        setTruncated(truncated);
+    }
+
+    void readReachedSignatures(Set<String> reachedSignatures) {
+        setReachedSignatures(reachedSignatures);
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+import io.github.augurk.javaanalyzer.core.reports.ReportDifference.Type;
+
+/**
+ * Differences between the invocation trees of two reports. Root invocations are matched by their signature and When
+ * expression. Root invocations of which the {@link SubtreeHash hashes} are equal are unchanged, and are not read from
+ * {@link MappedReport mapped reports} at all. The trees of other root invocations are compared the same way: the
+ * invocations made from an invocation are matched by their hash first, so identical subtrees are skipped, and then by
+ * their signature, to find the invocations that have changed.
+ */
+public class ReportDiff {
+    private final List<ReportDifference> differences = new ArrayList<>();
+    private final Map<Invocation, Long> hashes = new IdentityHashMap<>();
+
+    private ReportDiff() {
+    }
+
+    /**
+     * Compare two reports stored in the binary report format.
+     *
+     * @param oldReport report of the previous analysis
+     * @param newReport report of the current analysis
+     * @return differences between the reports
+     */
+    public static ReportDiff compare(MappedReport oldReport, MappedReport newReport) {
+        var diff = new ReportDiff();
+        diff.compareRoots(rootsOf(oldReport), rootsOf(newReport));
+        return diff;
+    }
+
+    /**
+     * Compare two reports.
+     *
+     * @param oldReport report of the previous analysis
+     * @param newReport report of the current analysis
+     * @return differences between the reports
+     */
+    public static ReportDiff compare(AnalysisReport oldReport, AnalysisReport newReport) {
+        var diff = new ReportDiff();
+        diff.compareRoots(rootsOf(oldReport), rootsOf(newReport));
+        return diff;
+    }
+
+    /**
+     * Return the differences, first those of the root invocations of the old report in their order, then those of
+     * root invocations that have been added.
+     *
+     * @return unmodifiable list of differences
+     */
+    public List<ReportDifference> getDifferences() {
+        return Collections.unmodifiableList(differences);
+    }
+
+    public boolean isEmpty() {
+        return differences.isEmpty();
+    }
+
+    private void compareRoots(List<Root> oldRoots, List<Root> newRoots) {
+        Map<List<String>, Deque<Root>> newRootsByKey = new HashMap<>();
+        for (Root newRoot : newRoots) {
+            newRootsByKey.computeIfAbsent(newRoot.key(), key -> new ArrayDeque<>()).add(newRoot);
+        }
+
+        for (Root oldRoot : oldRoots) {
+            Deque<Root> candidates = newRootsByKey.get(oldRoot.key());
+            Root newRoot = candidates != null ? candidates.poll() : null;
+
+            if (newRoot == null) {
+                add(Type.REMOVED, oldRoot, List.of(oldRoot.signature), oldRoot.invocation.get());
+                continue;
+            }
+
+            newRoot.matched = true;
+            if (oldRoot.hash != newRoot.hash) {
+                compareInvocations(newRoot, List.of(newRoot.signature), oldRoot.invocation.get(),
+                    newRoot.invocation.get());
+            }
+        }
+
+        for (Root newRoot : newRoots) {
+            if (!newRoot.matched) add(Type.ADDED, newRoot, List.of(newRoot.signature), newRoot.invocation.get());
+        }
+    }
+
+    private void compareInvocations(Root root, List<String> path, Invocation oldInvocation, Invocation newInvocation) {
+        if (!hasSameMembers(InvocationView.of(oldInvocation), InvocationView.of(newInvocation))) {
+            add(Type.CHANGED, root, path, newInvocation);
+        }
+
+        // Root invocations in the compact representation create their invocations on every call
+        Collection<Invocation> oldChildren = oldInvocation.getInvocations();
+        Collection<Invocation> newChildren = newInvocation.getInvocations();
+
+        // Identical subtrees are skipped by their hash
+        Map<Long, Deque<Invocation>> newInvocationsByHash = new HashMap<>();
+        for (Invocation invocation : newChildren) {
+            newInvocationsByHash.computeIfAbsent(hashOf(invocation), hash -> new ArrayDeque<>()).add(invocation);
+        }
+
+        List<Invocation> oldInvocations = new ArrayList<>();
+        for (Invocation invocation : oldChildren) {
+            Deque<Invocation> identical = newInvocationsByHash.get(hashOf(invocation));
+            if (identical == null || identical.poll() == null) oldInvocations.add(invocation);
+        }
+
+        // Remaining invocations with the same signature have changed
+        Map<String, Deque<Invocation>> newInvocationsBySignature = new HashMap<>();
+        List<Invocation> newInvocations = new ArrayList<>();
+        for (Invocation invocation : newChildren) {
+            Deque<Invocation> identical = newInvocationsByHash.get(hashOf(invocation));
+
+            if (identical.remove(invocation)) {
+                newInvocations.add(invocation);
+                newInvocationsBySignature.computeIfAbsent(invocation.getSignature(), signature -> new ArrayDeque<>())
+                    .add(invocation);
+            }
+        }
+
+        Set<Invocation> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Invocation invocation : oldInvocations) {
+            Deque<Invocation> candidates = newInvocationsBySignature.get(invocation.getSignature());
+            Invocation candidate = candidates != null ? candidates.poll() : null;
+
+            if (candidate == null) {
+                add(Type.REMOVED, root, pathTo(path, invocation), invocation);
+            } else {
+                changed.add(candidate);
+                compareInvocations(root, pathTo(path, candidate), invocation, candidate);
+            }
+        }
+
+        for (Invocation invocation : newInvocations) {
+            if (!changed.contains(invocation)) add(Type.ADDED, root, pathTo(path, invocation), invocation);
+        }
+    }
+
+    private long hashOf(Invocation invocation) {
+        Long hash = hashes.get(invocation);
+        if (hash != null) return hash;
+
+        long[] invocationHashes = new long[invocation.getInvocations().size()];
+        int i = 0;
+
+        for (Invocation child : invocation.getInvocations()) {
+            invocationHashes[i++] = hashOf(child);
+        }
+
+        long calculated = SubtreeHash.of(InvocationView.of(invocation), invocationHashes);
+        hashes.put(invocation, calculated);
+        return calculated;
+    }
+
+    private void add(Type type, Root root, List<String> path, Invocation invocation) {
+        differences.add(new ReportDifference(type, root.whenExpression, path, invocation));
+    }
+
+    private static boolean hasSameMembers(InvocationView invocation, InvocationView other) {
+        return invocation.getKind() == other.getKind()
+            && invocation.isLocal() == other.isLocal()
+            && invocation.isTruncated() == other.isTruncated()
+            && Objects.equals(invocation.interfaceDefinitions(), other.interfaceDefinitions())
+            && Objects.equals(invocation.automationTargets(), other.automationTargets());
+    }
+
+    private static List<String> pathTo(List<String> path, Invocation invocation) {
+        List<String> extended = new ArrayList<>(path.size() + 1);
+        extended.addAll(path);
+        extended.add(invocation.getSignature());
+        return extended;
+    }
+
+    private static List<Root> rootsOf(MappedReport report) {
+        List<Root> roots = new ArrayList<>(report.getRootInvocationCount());
+
+        for (int i = 0; i < report.getRootInvocationCount(); i++) {
+            int index = i;
+            roots.add(new Root(report.rootSignature(i), report.rootWhenExpression(i), report.rootHash(i),
+                () -> report.getRootInvocation(index)));
+        }
+
+        return roots;
+    }
+
+    private static List<Root> rootsOf(AnalysisReport report) {
+        List<Root> roots = new ArrayList<>(report.getRootInvocations().size());
+
+        for (Invocation rootInvocation : report.getRootInvocations()) {
+            InvocationView view = InvocationView.of(rootInvocation);
+            String whenExpression = view.regularExpressions() != null && !view.regularExpressions().isEmpty()
+                ? view.regularExpressions().get(0)
+                : null;
+
+            roots.add(new Root(view.getSignature(), whenExpression, SubtreeHash.of(view), () -> rootInvocation));
+        }
+
+        return roots;
+    }
+
+    /**
+     * Root invocation of a report, of which the invocation tree is only read when it has changed.
+     */
+    private static class Root {
+        private final String signature;
+        private final String whenExpression;
+        private final long hash;
+        private final Supplier<Invocation> invocation;
+        private boolean matched;
+
+        Root(String signature, String whenExpression, long hash, Supplier<Invocation> invocation) {
+            this.signature = signature;
+            this.whenExpression = whenExpression;
+            this.hash = hash;
+            this.invocation = invocation;
+        }
+
+        List<String> key() {
+            return Arrays.asList(signature, whenExpression);
+        }
+    }
+}
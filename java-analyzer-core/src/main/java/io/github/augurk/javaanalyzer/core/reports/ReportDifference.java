@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.util.List;
+
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+
+/**
+ * Difference between the invocation trees of a root invocation in two reports, see {@link ReportDiff}.
+ */
+public class ReportDifference {
+    public enum Type {
+        /**
+         * The invocation is only made in the new report.
+         */
+        ADDED,
+
+        /**
+         * The invocation is only made in the old report.
+         */
+        REMOVED,
+
+        /**
+         * The invocation is made in both reports, but its kind, interface definitions, automation targets or whether
+         * it is local or truncated have changed.
+         */
+        CHANGED
+    }
+
+    private final Type type;
+    private final String whenExpression;
+    private final List<String> path;
+    private final Invocation invocation;
+
+    ReportDifference(Type type, String whenExpression, List<String> path, Invocation invocation) {
+        this.type = type;
+        this.whenExpression = whenExpression;
+        this.path = List.copyOf(path);
+        this.invocation = invocation;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getRootSignature() {
+        return path.get(0);
+    }
+
+    public String getWhenExpression() {
+        return whenExpression;
+    }
+
+    /**
+     * Return the signatures of the invocations from the root invocation down to the invocation that differs.
+     *
+     * @return signatures, starting with the signature of the root invocation
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * Return the invocation that differs, including the invocations made from it. This is the invocation of the old
+     * report for removed invocations, and of the new report otherwise.
+     *
+     * @return invocation that differs
+     */
+    public Invocation getInvocation() {
+        return invocation;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + String.join(" > ", path);
+    }
+}
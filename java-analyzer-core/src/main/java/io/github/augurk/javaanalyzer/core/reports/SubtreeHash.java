@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.domain.InvocationView;
+
+/**
+ * Hash of an invocation tree, which covers the members of every invocation in the tree, like the binary report format
+ * does: only When invocations have regular expressions. Identical trees have the
+ * same hash, in any report, so a tree with the same hash as another tree can be assumed unchanged.
+ */
+final class SubtreeHash {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private SubtreeHash() {
+    }
+
+    /**
+     * Return the hash of the tree of the provided invocation.
+     */
+    static long of(InvocationView invocation) {
+        long[] invocationHashes = new long[invocation.getInvocationCount()];
+
+        int i = 0;
+        for (InvocationView child : invocation.invocations()) {
+            invocationHashes[i++] = of(child);
+        }
+
+        return of(invocation, invocationHashes);
+    }
+
+    /**
+     * Return the hash of the tree of the provided invocation, from the hashes of the trees of the invocations made
+     * from it.
+     */
+    static long of(InvocationView invocation, long[] invocationHashes) {
+        Hasher hasher = HASH_FUNCTION.newHasher()
+            .putInt(invocation.getKind().ordinal())
+            .putBoolean(invocation.isLocal())
+            .putBoolean(invocation.isTruncated());
+
+        putString(hasher, invocation.getSignature());
+        if (invocation.getKind() == InvocationKind.WHEN) putStrings(hasher, invocation.regularExpressions());
+        putStrings(hasher, invocation.interfaceDefinitions());
+        putStrings(hasher, invocation.automationTargets());
+
+        hasher.putInt(invocationHashes.length);
+        for (long invocationHash : invocationHashes) {
+            hasher.putLong(invocationHash);
+        }
+
+        return hasher.hash().asLong();
+    }
+
+    private static void putStrings(Hasher hasher, List<String> values) {
+        if (values == null) {
+            hasher.putInt(0);
+            return;
+        }
+
+        hasher.putInt(values.size());
+        for (String value : values) {
+            putString(hasher, value);
+        }
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+            return;
+        }
+
+        hasher.putInt(value.length());
+        hasher.putString(value, StandardCharsets.UTF_8);
+    }
+}
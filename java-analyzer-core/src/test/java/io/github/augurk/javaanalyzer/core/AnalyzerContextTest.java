@@ -16,36 +16,50 @@
 
 package io.github.augurk.javaanalyzer.core;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import io.github.augurk.javaanalyzer.core.analyzers.AbstractAnalyzer;
 import io.github.augurk.javaanalyzer.core.analyzers.InvocationTreeAnalyzer;
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.MetricsFormat;
 import io.github.augurk.javaanalyzer.core.strategies.ENWhenStepStrategy;
 import io.github.augurk.javaanalyzer.core.utils.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -55,6 +69,9 @@ public class AnalyzerContextTest {
     private static final String PROJECT_NAME = "projectName";
     private static final String ANNOTATION_SOURCES_ROOT = "testClasses/annotation";
     private static final String TEST_CLASS_NAME = "SimpleClassWithWhenStep.java";
+    private static final String TEST_CLASS_WITH_CALL_NAME = "SimpleClassWithWhenStepAndCall.java";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
 
     private AnalyzeOptions optionsMock;
     private FileManager fileManagerMock;
@@ -73,6 +90,8 @@ public class AnalyzerContextTest {
 
         when(optionsMock.getProjectName()).thenReturn(PROJECT_NAME);
         when(optionsMock.getLanguageLevel()).thenReturn(ParserConfiguration.LanguageLevel.JAVA_11);
+        when(optionsMock.filterIsEmpty()).thenReturn(true);
+        when(optionsMock.getClassLoader()).thenReturn(getClass().getClassLoader());
 
         target = new AnalyzerContext(optionsMock, fileManagerMock, Collections.singletonList(reporterMock));
     }
@@ -83,6 +102,18 @@ public class AnalyzerContextTest {
         assertThat(target.getWhenStepStrategy("nl"), notNullValue());
     }
 
+    @Test
+    public void ctor_ShouldNotChangeGlobalParserConfiguration() {
+        // Arrange
+        var symbolResolver = StaticJavaParser.getConfiguration().getSymbolResolver();
+
+        // Act
+        new AnalyzerContext(optionsMock, fileManagerMock, Collections.singletonList(reporterMock));
+
+        // Assert
+        assertThat(StaticJavaParser.getConfiguration().getSymbolResolver(), is(symbolResolver));
+    }
+
     @Test
     public void startAnalysis_shouldCallReporterOnceWithResult() {
         // Arrange
@@ -120,6 +151,167 @@ public class AnalyzerContextTest {
         verify(reporter2).report(any(AnalysisReport.class));
     }
 
+    @Test
+    public void startAnalysis_ShouldStreamRootInvocationsToStreamingReporters() {
+        // Arrange
+        var streamingReporterMock = mock(StreamingReporter.class);
+        var streamingTarget = new AnalyzerContext(optionsMock, fileManagerMock, List.of(streamingReporterMock));
+        var reportCaptor = ArgumentCaptor.forClass(AnalysisReport.class);
+        var invocationCaptor = ArgumentCaptor.forClass(Invocation.class);
+        configureDoAnswerFileManager();
+
+        // Act
+        streamingTarget.startAnalysis();
+
+        // Assert
+        var inOrder = inOrder(streamingReporterMock);
+        inOrder.verify(streamingReporterMock).beginReport(any(AnalysisReport.class));
+        inOrder.verify(streamingReporterMock).reportRootInvocation(invocationCaptor.capture());
+        inOrder.verify(streamingReporterMock).endReport(reportCaptor.capture());
+        verify(streamingReporterMock, never()).report(any(AnalysisReport.class));
+
+        assertThat(invocationCaptor.getValue().getSignature(), containsString("whenStepWithoutCall"));
+        assertThat(reportCaptor.getValue().getAnalyzedProject(), equalTo(PROJECT_NAME));
+        assertThat(reportCaptor.getValue().getRootInvocations().isEmpty(), is(true));
+    }
+
+    @Test
+    public void startAnalysis_ShouldRetainRootInvocationsWhenNotAllReportersAreStreaming() {
+        // Arrange
+        var streamingReporterMock = mock(StreamingReporter.class);
+        var reportCaptor = ArgumentCaptor.forClass(AnalysisReport.class);
+        configureDoAnswerFileManager();
+
+        // Act
+        target.addReporter(streamingReporterMock);
+        target.startAnalysis();
+
+        // Assert
+        verify(streamingReporterMock).reportRootInvocation(any(Invocation.class));
+        verify(reporterMock).report(reportCaptor.capture());
+        assertThat(reportCaptor.getValue().getRootInvocations().size(), is(1));
+    }
+
+    @Test
+    public void startAnalysis_ShouldMergeRootInvocationsInFileOrderWhenAnalyzingInParallel() throws Exception {
+        // Arrange
+        var testFileWithCall = FileUtils.loadFileByName(ANNOTATION_SOURCES_ROOT, TEST_CLASS_WITH_CALL_NAME);
+        var reportCaptor = ArgumentCaptor.forClass(AnalysisReport.class);
+
+        when(optionsMock.getWorkerCount()).thenReturn(2);
+        doAnswer(invocation -> {
+            ((Consumer<File>) invocation.getArgument(0)).accept(testFileWithCall);
+            ((Consumer<File>) invocation.getArgument(0)).accept(testFile);
+            return null;
+        }).when(fileManagerMock).walkFileTree(any(Consumer.class));
+
+        // Act
+        target.startAnalysis();
+
+        // Assert
+        verify(reporterMock).report(reportCaptor.capture());
+
+        var rootInvocations = reportCaptor.getValue().getRootInvocations();
+        assertThat(rootInvocations.size(), is(2));
+        assertThat(rootInvocations.get(0).getSignature(), containsString("whenStepWithCall"));
+        assertThat(rootInvocations.get(1).getSignature(), containsString("whenStepWithoutCall"));
+    }
+
+    @Test
+    public void startAnalysis_ShouldRestoreRootInvocationsOfUnchangedFilesWhenAnalyzingIncrementally() {
+        // Arrange
+        var stateFile = new File(folder.getRoot(), "analyzer.state");
+        var reportCaptor = ArgumentCaptor.forClass(AnalysisReport.class);
+
+        when(optionsMock.getIncrementalStateFile()).thenReturn(stateFile);
+        configureDoAnswerFileManager();
+        target = new AnalyzerContext(optionsMock, fileManagerMock, Collections.singletonList(reporterMock));
+        target.startAnalysis();
+
+        var secondReporterMock = mock(Reporter.class);
+        var secondTarget = new AnalyzerContext(optionsMock, fileManagerMock, Collections.singletonList(secondReporterMock));
+
+        // Act
+        secondTarget.startAnalysis();
+
+        // Assert
+        verify(secondReporterMock).report(reportCaptor.capture());
+
+        var rootInvocations = reportCaptor.getValue().getRootInvocations();
+        assertThat(stateFile.isFile(), is(true));
+        assertThat(rootInvocations.size(), is(1));
+        assertThat(rootInvocations.get(0).getSignature(), containsString("whenStepWithoutCall"));
+        assertThat(secondTarget.getCompilationUnitCache().getMissCount(), is(0L));
+    }
+
+    @Test
+    public void startAnalysis_ShouldReportNewReportWhenAnalyzingAgain() {
+        // Arrange
+        var reportCaptor = ArgumentCaptor.forClass(AnalysisReport.class);
+        configureDoAnswerFileManager();
+        target.startAnalysis();
+        long missCount = target.getCompilationUnitCache().getMissCount();
+
+        // Act
+        target.startAnalysis();
+
+        // Assert
+        verify(reporterMock, times(2)).report(reportCaptor.capture());
+
+        var reports = reportCaptor.getAllValues();
+        assertThat(reports.get(1), not(sameInstance(reports.get(0))));
+        assertThat(reports.get(1).getRootInvocations().size(), is(1));
+        assertThat(target.getCompilationUnitCache().getMissCount(), is(missCount));
+    }
+
+    @Test
+    public void startAnalysis_ShouldRecordMetricsOfAnalysis() {
+        // Arrange
+        configureDoAnswerFileManager();
+
+        // Act
+        target.startAnalysis();
+        target.startAnalysis();
+
+        // Assert
+        var metrics = target.getMetrics();
+        assertThat(metrics.getWalkedFileCount(), is(1L));
+        assertThat(metrics.getParseCount(), is(0L));
+        assertThat(metrics.getRootInvocationTimes().size(), is(1));
+        assertThat(metrics.getRootInvocationTimes().get(0).getSignature(), containsString("whenStepWithoutCall"));
+        assertThat(metrics.getAnalysisNanos() > 0, is(true));
+    }
+
+    @Test
+    public void startAnalysis_ShouldWriteMetricsWhenMetricsFileIsSet() throws Exception {
+        // Arrange
+        var metricsFile = new File(folder.getRoot(), "metrics.prom");
+        when(optionsMock.getMetricsFile()).thenReturn(metricsFile);
+        when(optionsMock.getMetricsFormat()).thenReturn(MetricsFormat.PROMETHEUS);
+        configureDoAnswerFileManager();
+
+        // Act
+        target.startAnalysis();
+
+        // Assert
+        var metrics = Files.readString(metricsFile.toPath());
+        assertThat(metrics, containsString("augurk_analysis_parses_total 1\n"));
+        assertThat(metrics, containsString("augurk_analysis_root_invocation_seconds_count 1\n"));
+    }
+
+    @Test
+    public void invalidate_ShouldRemoveCompilationUnitsOfFilesAndRefreshFileManager() {
+        // Arrange
+        target.parseSourceFile(testFile);
+
+        // Act
+        target.invalidate(List.of(testFile));
+
+        // Assert
+        assertThat(target.getCompilationUnitCache().size(), is(0));
+        verify(fileManagerMock).refresh();
+    }
+
     @Test
     public void parseSourceFile_ShouldReturnCompilationUnitOfProvidedFile() throws Exception {
         // Act
@@ -130,6 +322,27 @@ public class AnalyzerContextTest {
         assertThat(result.get().getClassByName(TEST_CLASS_NAME), notNullValue());
     }
 
+    @Test
+    public void parseSourceFile_ShouldAttachSymbolSolverOfContextToCompilationUnit() {
+        // Act
+        Optional<CompilationUnit> result = target.parseSourceFile(testFile);
+
+        // Assert
+        assertThat(result.get().containsData(Node.SYMBOL_RESOLVER_KEY), is(true));
+    }
+
+    @Test
+    public void parseSourceFile_ShouldReturnCachedCompilationUnitWhenParsedBefore() {
+        // Act
+        Optional<CompilationUnit> first = target.parseSourceFile(testFile);
+        Optional<CompilationUnit> second = target.parseSourceFile(testFile);
+
+        // Assert
+        assertThat(second.get(), is(sameInstance(first.get())));
+        assertThat(target.getCompilationUnitCache().getMissCount(), is(1L));
+        assertThat(target.getCompilationUnitCache().getHitCount(), is(1L));
+    }
+
     @Test
     public void parseSourceFile_ShouldReturnEmptyOptionalWhenFileCouldNotBeParsed() {
         // Arrange
@@ -175,6 +388,19 @@ public class AnalyzerContextTest {
         verify(consumerMock).accept(any(clazzType));
     }
 
+    @Test
+    public void getTypeHierarchyIndex_ShouldRecordFullScanOnlyWhenIndexIsBuilt() {
+        // Arrange
+        configureDoAnswerFileManager();
+
+        // Act
+        target.getTypeHierarchyIndex();
+        target.getTypeHierarchyIndex();
+
+        // Assert
+        assertThat(target.getMetrics().getFullScanCount(), is(1L));
+    }
+
     @Test
     public void createAnalyzer_ShouldReturnAnalyzer() {
         // Act
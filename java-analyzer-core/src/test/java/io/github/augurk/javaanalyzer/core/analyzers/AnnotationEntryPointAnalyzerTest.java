@@ -30,7 +30,6 @@ import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Predicate;
 
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.StaticJavaParser;
@@ -243,7 +242,7 @@ public class AnnotationEntryPointAnalyzerTest {
 
         when(typeMock.resolve().getQualifiedName()).thenReturn(qualifiedName);
         when(contextMock.parserSourceFileByQualifiedName(qualifiedName)).thenReturn(Optional.of(compilationUnitMock));
-        when(compilationUnitMock.findAll(any(), any(Predicate.class))).thenReturn(List.of(methodDeclarationMock));
+        when(compilationUnitMock.findAll(MethodDeclaration.class)).thenReturn(List.of(methodDeclarationMock));
         when(methodDeclarationMock.resolve().getQualifiedSignature()).thenReturn(qualifiedSignature);
 
         // Act
@@ -234,9 +234,9 @@ public class InvocationTreeAnalyzerTest {
 
         var cid = entryPoint.left.getClassByName("ChildClass");
         doAnswer(a -> {
-            ((Consumer) a.getArgument(2)).accept(cid.get());
+            ((Consumer) a.getArgument(1)).accept(cid.get());
             return null;
-        }).when(contextMock).findByPredicate(any(), any(), any());
+        }).when(contextMock).findDerivedTypes(any(), any());
 
         when(collectorMock.getActualType(anyString())).thenAnswer(a -> a.getArgument(0));
         when(collectorMock.collect(any(InvokedMethod.class))).thenReturn(invocationMock);
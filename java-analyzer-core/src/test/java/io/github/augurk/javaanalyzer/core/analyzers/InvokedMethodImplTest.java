@@ -27,7 +27,7 @@ import static org.mockito.Mockito.when;
 import java.util.Collections;
 import java.util.List;
 
-import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.AccessSpecifier;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
@@ -51,7 +51,7 @@ public class InvokedMethodImplTest {
         when(methodMock.getQualifiedSignature()).thenReturn("signature");
         when(methodMock.declaringType().getQualifiedName()).thenReturn("declaringType");
         when(methodMock.isAbstract()).thenReturn(false);
-        when(methodMock.accessSpecifier()).thenReturn(Modifier.Keyword.PRIVATE);
+        when(methodMock.accessSpecifier()).thenReturn(AccessSpecifier.PRIVATE);
 
         when(interfaceDefinitionMock.resolve().getQualifiedSignature()).thenReturn("signature1", "signature2");
 
@@ -99,10 +99,14 @@ public class InvokedMethodImplTest {
         when(pairMockBlack.size()).thenReturn(10);
         when(pairMockRed.size()).thenReturn(20);
 
+        var example = new InvokedMethodImpl(methodMockBlack, List.of(), List.of(), true);
+
         // Act & Assert
         EqualsVerifier.forClass(InvokedMethodImpl.class)
             .suppress(Warning.NULL_FIELDS)
             .suppress(Warning.STRICT_INHERITANCE)
+            .withCachedHashCode("hash", "calculateHash", example)
+            .withIgnoredFields("method")
             .withPrefabValues(ResolvedMethodDeclaration.class, methodMockRed, methodMockBlack)
             .withPrefabValues(List.class, pairMockRed, pairMockBlack)
             .verify();
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.analyzers;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodIndexTest {
+    private static final String SOURCE = String.join("\n",
+        "class Calculator {",
+        "    int add(int a, int b) { return a + b; }",
+        "    double add(double a, double b) { return a + b; }",
+        "    int add(int a, int b, int c) { return a + b + c; }",
+        "    int negate(int a) { return -a; }",
+        "    class Nested {",
+        "        void reset() { }",
+        "    }",
+        "}"
+    );
+
+    private CompilationUnit unit;
+    private ClassOrInterfaceDeclaration type;
+
+    @Before
+    public void beforeEach() {
+        var typeSolver = new CombinedTypeSolver();
+        typeSolver.add(new ReflectionTypeSolver(false));
+
+        StaticJavaParser.getConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        StaticJavaParser.getConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_11);
+
+        unit = StaticJavaParser.parse(SOURCE);
+        type = unit.getClassByName("Calculator").get();
+    }
+
+    @Test
+    public void of_ShouldReturnSameIndexForSameScope() {
+        // Act
+        var first = MethodIndex.of(type);
+        var second = MethodIndex.of(type);
+
+        // Assert
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void findBySignature_ShouldReturnMethodWithProvidedSignature() {
+        // Act
+        var result = MethodIndex.of(type).findBySignature("add(double, double)");
+
+        // Assert
+        assertThat(result.isPresent(), is(true));
+        assertThat(result.get().getTypeAsString(), equalTo("double"));
+    }
+
+    @Test
+    public void findBySignature_ShouldReturnMethodsOfNestedTypes() {
+        // Act
+        var result = MethodIndex.of(type).findBySignature("reset()");
+
+        // Assert
+        assertThat(result.isPresent(), is(true));
+        assertThat(result.get().getNameAsString(), equalTo("reset"));
+    }
+
+    @Test
+    public void findBySignature_ShouldReturnEmptyOptionalWhenSignatureIsUnknown() {
+        // Act
+        var result = MethodIndex.of(type).findBySignature("subtract(int, int)");
+
+        // Assert
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void findByName_ShouldReturnAllOverloadsInOrderOfDeclaration() {
+        // Act
+        var result = MethodIndex.of(unit).findByName("add");
+
+        // Assert
+        assertThat(result.size(), is(3));
+        assertThat(result.get(0).getParameters().size(), is(2));
+        assertThat(result.get(1).getTypeAsString(), equalTo("double"));
+        assertThat(result.get(2).getParameters().size(), is(3));
+    }
+
+    @Test
+    public void findByNameAndArity_ShouldReturnMethodWhenExactlyOneMethodMatches() {
+        // Act
+        var result = MethodIndex.of(unit).findByNameAndArity("add", 3);
+
+        // Assert
+        assertThat(result.isPresent(), is(true));
+        assertThat(result.get().getParameters().size(), is(3));
+    }
+
+    @Test
+    public void findByNameAndArity_ShouldReturnEmptyOptionalWhenMethodIsAmbiguous() {
+        // Act
+        var result = MethodIndex.of(unit).findByNameAndArity("add", 2);
+
+        // Assert
+        assertThat(result.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.analyzers;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResolutionsTest {
+    private static final String SOURCE = String.join("\n",
+        "package test;",
+        "class Greeter {",
+        "    void greet(String name) { unknown(name); }",
+        "    Missing missing() { return null; }",
+        "}"
+    );
+
+    private CompilationUnit unit;
+
+    @Before
+    public void beforeEach() {
+        var typeSolver = new CombinedTypeSolver();
+        typeSolver.add(new ReflectionTypeSolver(false));
+
+        StaticJavaParser.getConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        StaticJavaParser.getConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_11);
+
+        unit = StaticJavaParser.parse(SOURCE);
+    }
+
+    @Test
+    public void resolvedMethodDeclarationOf_ShouldReturnSameResolutionForSameNode() {
+        // Arrange
+        var method = methodNamed("greet");
+
+        // Act
+        var first = Resolutions.resolvedMethodDeclarationOf(method);
+        var second = Resolutions.resolvedMethodDeclarationOf(method);
+
+        // Assert
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void signatureOf_ShouldReturnSignatureOfResolvedMethod() {
+        // Arrange
+        var method = methodNamed("greet");
+
+        // Act
+        var signature = Resolutions.signatureOf(method);
+        var qualifiedSignature = Resolutions.qualifiedSignatureOf(Resolutions.resolvedMethodDeclarationOf(method));
+
+        // Assert
+        assertThat(signature, equalTo("greet(java.lang.String)"));
+        assertThat(qualifiedSignature, equalTo("test.Greeter.greet(java.lang.String)"));
+    }
+
+    @Test
+    public void qualifiedNameOfDeclaringType_ShouldReturnQualifiedNameOfDeclaringType() {
+        // Arrange
+        var method = Resolutions.resolvedMethodDeclarationOf(methodNamed("greet"));
+
+        // Act
+        var result = Resolutions.qualifiedNameOfDeclaringType(method);
+
+        // Assert
+        assertThat(result, equalTo("test.Greeter"));
+    }
+
+    @Test
+    public void resolvedMethodDeclarationOf_ShouldReturnEmptyOptionalWhenInvokedMethodCouldNotBeResolved() {
+        // Arrange
+        var expression = unit.findFirst(MethodCallExpr.class).get();
+
+        // Act
+        var first = Resolutions.resolvedMethodDeclarationOf(expression);
+        var second = Resolutions.resolvedMethodDeclarationOf(expression);
+
+        // Assert
+        assertThat(first.isEmpty(), is(true));
+        assertThat(second.isEmpty(), is(true));
+    }
+
+    @Test
+    public void resolvedMethodDeclarationOf_ShouldRecordResolutionsThatAreNotMemoized() {
+        // Arrange
+        var metrics = new AnalysisMetrics();
+        metrics.attachTo(unit);
+        var expression = unit.findFirst(MethodCallExpr.class).get();
+
+        // Act
+        Resolutions.resolvedMethodDeclarationOf(expression);
+        Resolutions.resolvedMethodDeclarationOf(expression);
+        Resolutions.resolvedMethodDeclarationOf(methodNamed("greet"));
+
+        // Assert
+        assertThat(metrics.getResolveCount(), is(2L));
+        assertThat(metrics.getResolveFailureCount(), is(1L));
+    }
+
+    @Test
+    public void qualifiedNameOf_ShouldRethrowFailureOfEarlierResolution() {
+        // Arrange
+        var type = methodNamed("missing").getType().asClassOrInterfaceType();
+        var first = qualifiedNameFailureOf(type);
+
+        // Act
+        var second = qualifiedNameFailureOf(type);
+
+        // Assert
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    private MethodDeclaration methodNamed(String name) {
+        return unit.findFirst(MethodDeclaration.class, method -> method.getNameAsString().equals(name)).get();
+    }
+
+    private RuntimeException qualifiedNameFailureOf(ClassOrInterfaceType type) {
+        try {
+            Resolutions.qualifiedNameOf(type);
+        } catch (RuntimeException e) {
+            return e;
+        }
+
+        fail("Expected resolution of " + type + " to fail");
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.augurk.javaanalyzer.core.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.augurk.javaanalyzer.core.options.CacheEvictionPolicy;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompilationUnitCacheTest {
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private AtomicInteger parseCount;
+    private Function<File, Optional<CompilationUnit>> parser;
+
+    @Before
+    public void beforeEach() {
+        parseCount = new AtomicInteger();
+        parser = file -> {
+            parseCount.incrementAndGet();
+            return Optional.of(StaticJavaParser.parse("class " + file.getName().replace(".java", "") + " {}"));
+        };
+    }
+
+    @Test
+    public void get_ShouldParseFileOnlyOnce() throws Exception {
+        // Arrange
+        var file = createSourceFile("First.java");
+        var target = new CompilationUnitCache(10, CacheEvictionPolicy.SIZE_BOUNDED);
+
+        // Act
+        var first = target.get(file, parser);
+        var second = target.get(file, parser);
+
+        // Assert
+        assertThat(first.get(), sameInstance(second.get()));
+        assertThat(parseCount.get(), is(1));
+        assertThat(target.getHitCount(), is(1L));
+        assertThat(target.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void get_ShouldParseFileAgainWhenFileHasBeenModified() throws Exception {
+        // Arrange
+        var file = createSourceFile("First.java");
+        var target = new CompilationUnitCache(10, CacheEvictionPolicy.SIZE_BOUNDED);
+        var first = target.get(file, parser);
+
+        // Act
+        file.setLastModified(file.lastModified() + 1000);
+        var second = target.get(file, parser);
+
+        // Assert
+        assertThat(first.get(), not(sameInstance(second.get())));
+        assertThat(parseCount.get(), is(2));
+        assertThat(target.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void get_ShouldEvictLeastRecentlyUsedEntryWhenSizeIsExceeded() throws Exception {
+        // Arrange
+        var first = createSourceFile("First.java");
+        var second = createSourceFile("Second.java");
+        var third = createSourceFile("Third.java");
+        var target = new CompilationUnitCache(2, CacheEvictionPolicy.SIZE_BOUNDED);
+
+        // Act
+        target.get(first, parser);
+        target.get(second, parser);
+        target.get(first, parser);
+        target.get(third, parser);
+        target.get(first, parser);
+        target.get(second, parser);
+
+        // Assert
+        assertThat(target.size(), is(2));
+        assertThat(target.getEvictionCount(), is(2L));
+        assertThat(parseCount.get(), is(4));
+    }
+
+    @Test
+    public void get_ShouldNotBoundSizeWhenUsingSoftReferences() throws Exception {
+        // Arrange
+        var first = createSourceFile("First.java");
+        var second = createSourceFile("Second.java");
+        var target = new CompilationUnitCache(1, CacheEvictionPolicy.SOFT_REFERENCE);
+
+        // Act
+        var result = target.get(first, parser);
+        target.get(second, parser);
+
+        // Assert
+        assertThat(target.size(), is(2));
+        assertThat(target.get(first, parser).get(), sameInstance(result.get()));
+    }
+
+    @Test
+    public void get_ShouldNotCacheFailedParseAttempts() throws Exception {
+        // Arrange
+        var file = createSourceFile("First.java");
+        var target = new CompilationUnitCache(10, CacheEvictionPolicy.SIZE_BOUNDED);
+
+        // Act
+        target.get(file, f -> Optional.empty());
+
+        // Assert
+        assertThat(target.size(), is(0));
+    }
+
+    @Test
+    public void invalidate_ShouldRemoveCachedEntry() throws Exception {
+        // Arrange
+        var file = createSourceFile("First.java");
+        var target = new CompilationUnitCache(10, CacheEvictionPolicy.SIZE_BOUNDED);
+        target.get(file, parser);
+
+        // Act
+        target.invalidate(file);
+        target.get(file, parser);
+
+        // Assert
+        assertThat(parseCount.get(), is(2));
+    }
+
+    private File createSourceFile(String name) throws Exception {
+        var file = folder.newFile(name);
+        Files.writeString(file.toPath(), "class " + name.replace(".java", "") + " {}");
+        return file;
+    }
+}
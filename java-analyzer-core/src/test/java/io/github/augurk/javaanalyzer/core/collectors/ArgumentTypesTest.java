@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Test;
+
+public class ArgumentTypesTest {
+    @Test
+    public void with_ShouldKeepActualTypeOfTopMostDeclaration() {
+        // Arrange
+        var target = ArgumentTypes.empty().with(List.of(ImmutablePair.of("person", "picky person")), 1);
+
+        // Act
+        var result = target.with(List.of(ImmutablePair.of("person", "stubborn person")), 2).get("person");
+
+        // Assert
+        assertThat(result.getActualType(), equalTo("picky person"));
+        assertThat(result.getDepth(), is(1));
+    }
+
+    @Test
+    public void with_ShouldKeepActualTypeOfFirstPairOfAnInvocation() {
+        // Act
+        var result = ArgumentTypes.empty().with(List.of(
+            ImmutablePair.of("person", "picky person"),
+            ImmutablePair.of("person", "stubborn person")), 1);
+
+        // Assert
+        assertThat(result.get("person").getActualType(), equalTo("picky person"));
+    }
+
+    @Test
+    public void with_ShouldNotDeclareTypeWhenFirstPairOfAnInvocationHasNoActualType() {
+        // Act
+        var result = ArgumentTypes.empty().with(List.of(
+            ImmutablePair.of("person", null),
+            ImmutablePair.of("person", "picky person")), 1);
+
+        // Assert
+        assertThat(result.get("person"), is(nullValue()));
+    }
+
+    @Test
+    public void with_ShouldDeclareTypeWhenParentPairHasNoActualType() {
+        // Arrange
+        var target = ArgumentTypes.empty().with(List.of(ImmutablePair.of("person", null)), 1);
+
+        // Act
+        var result = target.with(List.of(ImmutablePair.of("person", "picky person")), 2).get("person");
+
+        // Assert
+        assertThat(result.getActualType(), equalTo("picky person"));
+        assertThat(result.getDepth(), is(2));
+    }
+
+    @Test
+    public void with_ShouldKeepArgumentTypesOfParentsUnchanged() {
+        // Arrange
+        List<ArgumentTypes> chain = new ArrayList<>();
+        chain.add(ArgumentTypes.empty());
+
+        // Act
+        for (int depth = 1; depth <= 1000; depth++) {
+            chain.add(chain.get(depth - 1).with(List.of(ImmutablePair.of("type" + depth, "actual" + depth)), depth));
+        }
+
+        // Assert
+        for (int depth = 1; depth <= 1000; depth++) {
+            assertThat(chain.get(1000).get("type" + depth).getActualType(), equalTo("actual" + depth));
+            assertThat(chain.get(depth).get("type" + depth).getDepth(), is(depth));
+            assertThat(chain.get(depth - 1).get("type" + depth), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void get_ShouldDistinguishTypesWithSameHashCode() {
+        // Arrange
+        var target = ArgumentTypes.empty().with(List.of(ImmutablePair.of("Aa", "first")), 1);
+
+        // Act
+        var result = target.with(List.of(ImmutablePair.of("BB", "second")), 2);
+
+        // Assert
+        assertThat(result.get("Aa").getActualType(), equalTo("first"));
+        assertThat(result.get("BB").getActualType(), equalTo("second"));
+        assertThat(target.get("BB"), is(nullValue()));
+    }
+
+    @Test
+    public void with_ShouldShareArgumentTypesWhenNoTypeIsAdded() {
+        // Arrange
+        var target = ArgumentTypes.empty().with(List.of(ImmutablePair.of("person", "picky person")), 1);
+
+        // Act
+        var result = target.with(List.of(ImmutablePair.of("person", "stubborn person")), 2);
+
+        // Assert
+        assertThat(result, is(sameInstance(target)));
+    }
+
+    @Test
+    public void get_ShouldReturnNullWhenTypeIsNotDeclared() {
+        // Act
+        var result = ArgumentTypes.empty().with(List.of(ImmutablePair.of("person", "picky person")), 1).get("plant");
+
+        // Assert
+        assertThat(result, is(nullValue()));
+    }
+}
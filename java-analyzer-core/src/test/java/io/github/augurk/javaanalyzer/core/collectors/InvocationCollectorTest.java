@@ -21,23 +21,30 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.emptyArray;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.AccessSpecifier;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import io.github.augurk.javaanalyzer.core.analyzers.InvokedMethodImpl;
 import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
 import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
 import io.github.augurk.javaanalyzer.core.domain.OverloadHandling;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
 import io.github.augurk.javaanalyzer.core.utils.InvokedMethodUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -64,7 +71,7 @@ public class InvocationCollectorTest {
         when(optionsMock.getVersion()).thenReturn(PROJECT_VERSION);
 
         when(resolvedMethodMock.declaringType().getQualifiedName()).thenReturn("QualifiedName");
-        when(resolvedMethodMock.accessSpecifier()).thenReturn(Modifier.Keyword.PUBLIC);
+        when(resolvedMethodMock.accessSpecifier()).thenReturn(AccessSpecifier.PUBLIC);
 
         target = new InvocationCollector(optionsMock);
     }
@@ -138,6 +145,22 @@ public class InvocationCollectorTest {
         assertThat(invocations.get(1), is(root2));
     }
 
+    @Test
+    public void endRootInvocation_ShouldPassRootInvocationToHandlerInsteadOfReport() {
+        // Arrange
+        List<Invocation> handled = new ArrayList<>();
+        target.setRootInvocationHandler(handled::add);
+
+        // Act
+        var root = target.beginRootInvocation("signature", "whenExpression", null);
+        target.endRootInvocation();
+
+        // Assert
+        assertThat(handled.size(), is(1));
+        assertThat(handled.get(0), is(sameInstance(root)));
+        assertThat(target.getReport().getRootInvocations().isEmpty(), is(true));
+    }
+
     @Test
     public void collect_ShouldAddInvocationCreateNewInvocation() {
         // Act
@@ -188,6 +211,28 @@ public class InvocationCollectorTest {
         assertThat(secondInvocation.getInvocations().isEmpty(), is(true));
     }
 
+    @Test
+    public void endRootInvocation_ShouldIndexCollectedInvocationsByRootInvocation() {
+        // Arrange
+        target.beginRootInvocation("firstRootSignature", "whenExpression", null);
+        target.collect(createInvokedMethodMock("shared"));
+        target.collect(createInvokedMethodMock("nested"));
+        target.endRootInvocation();
+
+        target.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        target.collect(createInvokedMethodMock("shared"));
+
+        // Act
+        target.endRootInvocation();
+
+        // Assert
+        var result = target.getReport();
+        assertThat(result.getInvocationIndex().getSignatures(), containsInAnyOrder("shared", "nested"));
+        assertThat(result.getInvocationIndex().getRootInvocationIds("shared"), is(new int[] { 0, 1 }));
+        assertThat(result.getInvocationIndex().getRootInvocationIds("nested"), is(new int[] { 0 }));
+        assertThat(result.getInvocationIndex().getRootInvocationIds("firstRootSignature"), is(new int[0]));
+    }
+
     @Test
     public void endRootInvocation_ShouldNotProcessWhenAutomationTargetIsNotProvided() {
         // Arrange
@@ -366,6 +411,25 @@ public class InvocationCollectorTest {
         assertThat(result, is(false));
     }
 
+    @Test
+    public void isAlreadyCollected_ShouldReturnTrueUntilEveryRecursiveInvocationHasBeenSteppedOutOf() {
+        // Arrange
+        var invokedMethodMock = createInvokedMethodMock();
+        target.beginRootInvocation("rootSignature", "expression", null);
+        target.collect(invokedMethodMock);
+        target.collect(invokedMethodMock);
+
+        // Act
+        target.stepOut();
+        var afterFirstStepOut = target.isAlreadyCollected(invokedMethodMock);
+        target.stepOut();
+        var afterSecondStepOut = target.isAlreadyCollected(invokedMethodMock);
+
+        // Assert
+        assertThat(afterFirstStepOut, is(true));
+        assertThat(afterSecondStepOut, is(false));
+    }
+
     @Test
     public void stepOut_ShouldReturnRootWhenNotAbleToStepOut() {
         // Arrange
@@ -412,4 +476,411 @@ public class InvocationCollectorTest {
         // Assert
         assertThat(result, equalTo(type));
     }
+
+    @Test
+    public void spliceSubtree_ShouldReturnFalseWhenMemoizationIsDisabled() {
+        // Arrange
+        target.beginRootInvocation("rootSignature", "whenExpression", null);
+        target.collect(createInvokedMethodMock("method"));
+
+        // Act
+        var result = target.spliceSubtree();
+
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldAddMemoizedSubtreeOfPreviouslyAnalyzedMethod() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        collectSubtree(memoizingTarget, createInvokedMethodMock("method"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("callee"));
+            memoizingTarget.stepOut();
+        });
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        var invocation = memoizingTarget.collect(createInvokedMethodMock("method"));
+
+        // Act
+        var result = memoizingTarget.spliceSubtree();
+
+        // Assert
+        var firstInvocation = memoizingTarget.getReport().getRootInvocations().get(0).getInvocations().peek();
+        assertThat(result, is(true));
+        assertThat(invocation.getInvocations().size(), is(1));
+        assertThat(invocation.getInvocations().peek(), is(sameInstance(firstInvocation.getInvocations().peek())));
+        assertThat(memoizingTarget.getSubtreeHitCount(), is(1L));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldShareDetachedSubtreeOfMemoizedMethods() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        collectSubtree(memoizingTarget, createInvokedMethodMock("outer"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("inner"));
+            memoizingTarget.beginSubtree();
+            memoizingTarget.collect(createInvokedMethodMock("leaf"));
+            memoizingTarget.stepOut();
+            memoizingTarget.endSubtree();
+            memoizingTarget.stepOut();
+        });
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        var invocation = memoizingTarget.collect(createInvokedMethodMock("inner"));
+
+        // Act
+        memoizingTarget.spliceSubtree();
+
+        // Assert
+        var outer = memoizingTarget.getReport().getRootInvocations().get(0).getInvocations().peek();
+        var inner = outer.getInvocations().peek();
+        assertThat(inner, is(instanceOf(SummarizedInvocation.class)));
+        assertThat(invocation.getInvocations().peek(), is(sameInstance(inner.getInvocations().peek())));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void spliceSubtree_ShouldNotAllowChangesToSharedSubtree() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        collectSubtree(memoizingTarget, createInvokedMethodMock("method"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("callee"));
+            memoizingTarget.stepOut();
+        });
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        var invocation = memoizingTarget.collect(createInvokedMethodMock("method"));
+        memoizingTarget.spliceSubtree();
+        var callee = invocation.getInvocations().peek();
+
+        // Act
+        callee.getInvocations().add(new Invocation(InvocationKind.PUBLIC, "other", new String[] {}, true));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldNotSpliceLeastRecentlyUsedSubtreeWhenCacheSizeIsExceeded() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.isMemoizeSubtrees()).thenReturn(true);
+        when(optionsMock.getSubtreeCacheSize()).thenReturn(2);
+        var cachingTarget = new InvocationCollector(optionsMock);
+
+        collectSubtree(cachingTarget, createInvokedMethodMock("first"), () -> {
+            cachingTarget.collect(createInvokedMethodMock("firstCallee"));
+            cachingTarget.stepOut();
+        });
+        collectSubtree(cachingTarget, createInvokedMethodMock("second"), () -> {
+            cachingTarget.collect(createInvokedMethodMock("secondCallee"));
+            cachingTarget.stepOut();
+        });
+        collectSubtree(cachingTarget, createInvokedMethodMock("third"), () -> {
+            cachingTarget.collect(createInvokedMethodMock("thirdCallee"));
+            cachingTarget.stepOut();
+        });
+
+        cachingTarget.beginRootInvocation("lastRootSignature", "whenExpression", null);
+
+        // Act
+        cachingTarget.collect(createInvokedMethodMock("first"));
+        var firstResult = cachingTarget.spliceSubtree();
+        cachingTarget.stepOut();
+        cachingTarget.collect(createInvokedMethodMock("third"));
+        var thirdResult = cachingTarget.spliceSubtree();
+
+        // Assert
+        assertThat(firstResult, is(false));
+        assertThat(thirdResult, is(true));
+    }
+
+    @Test
+    public void clearSubtrees_ShouldDropMemoizedSubtrees() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        collectSubtree(memoizingTarget, createInvokedMethodMock("method"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("callee"));
+            memoizingTarget.stepOut();
+        });
+
+        // Act
+        memoizingTarget.clearSubtrees();
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        memoizingTarget.collect(createInvokedMethodMock("method"));
+        var result = memoizingTarget.spliceSubtree();
+
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldRecordMethodsOfMemoizedSubtreeAsReached() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        collectSubtree(memoizingTarget, createInvokedMethodMock("method"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("callee"));
+            memoizingTarget.stepOut();
+        });
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        memoizingTarget.collect(createInvokedMethodMock("method"));
+
+        // Act
+        memoizingTarget.spliceSubtree();
+        memoizingTarget.stepOut();
+        memoizingTarget.endRootInvocation();
+
+        // Assert
+        var index = memoizingTarget.getReport().getInvocationIndex();
+        assertThat(index.getRootInvocationIds("callee"), is(new int[] { 0, 1 }));
+        assertThat(index.getRootInvocationIds("method"), is(new int[] { 0, 1 }));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldRecordInvocationsOfMemoizedSubtreeInMetrics() {
+        // Arrange
+        var metrics = new AnalysisMetrics();
+        var memoizingTarget = createMemoizingCollector(metrics);
+        collectSubtree(memoizingTarget, createInvokedMethodMock("method"), () -> {
+            memoizingTarget.collect(createInvokedMethodMock("callee"));
+            memoizingTarget.collect(createInvokedMethodMock("nestedCallee"));
+            memoizingTarget.stepOut();
+            memoizingTarget.stepOut();
+        });
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        memoizingTarget.collect(createInvokedMethodMock("caller"));
+        memoizingTarget.collect(createInvokedMethodMock("method"));
+
+        // Act
+        memoizingTarget.spliceSubtree();
+
+        // Assert
+        assertThat(metrics.getInvocationCount(), is(7L));
+        assertThat(metrics.getMaxDepth(), is(4));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldNotSpliceWhenLookedUpArgumentTypeIsDifferent() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        var firstMethod = createInvokedMethodMock("method", List.of(new ImmutablePair<>("person", "person")));
+        var secondMethod = createInvokedMethodMock("method", List.of(new ImmutablePair<>("person", "picky person")));
+
+        collectSubtree(memoizingTarget, firstMethod, () -> memoizingTarget.getActualType("person"));
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        memoizingTarget.collect(secondMethod);
+
+        // Act
+        var result = memoizingTarget.spliceSubtree();
+
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldNotSpliceSubtreeThatDependsOnRecursion() {
+        // Arrange
+        var memoizingTarget = createMemoizingCollector();
+        var method = createInvokedMethodMock("method");
+
+        collectSubtree(memoizingTarget, method, () -> memoizingTarget.isAlreadyCollected(method));
+
+        memoizingTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        memoizingTarget.collect(createInvokedMethodMock("method"));
+
+        // Act
+        var result = memoizingTarget.spliceSubtree();
+
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void collect_ShouldLeaveOutInvocationsBeyondMaximumDepth() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.getMaxInvocationDepth()).thenReturn(1);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        var root = budgetTarget.beginRootInvocation("rootSignature", "whenExpression", null);
+        var invocation1 = budgetTarget.collect(createInvokedMethodMock("first"));
+
+        // Act
+        var result = budgetTarget.collect(createInvokedMethodMock("second"));
+        budgetTarget.stepOut();
+        budgetTarget.stepOut();
+        var invocation3 = budgetTarget.collect(createInvokedMethodMock("third"));
+
+        // Assert
+        assertThat(result, is(sameInstance(invocation1)));
+        assertThat(invocation1.getInvocations().isEmpty(), is(true));
+        assertThat(invocation1.isTruncated(), is(true));
+        assertThat(root.getInvocations().peekLast(), is(sameInstance(invocation3)));
+        assertThat(invocation3.isTruncated(), is(false));
+        assertThat(root.isTruncated(), is(true));
+        assertThat(budgetTarget.isCutOff(), is(false));
+    }
+
+    @Test
+    public void collect_ShouldCutOffRootInvocationWhenMaximumInvocationCountIsExceeded() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.getMaxInvocationCount()).thenReturn(1);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        var root = budgetTarget.beginRootInvocation("rootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("first"));
+        budgetTarget.stepOut();
+
+        // Act
+        var result = budgetTarget.collect(createInvokedMethodMock("second"));
+
+        // Assert
+        assertThat(result, is(sameInstance(root)));
+        assertThat(root.getInvocations().size(), is(1));
+        assertThat(root.isTruncated(), is(true));
+        assertThat(budgetTarget.isCutOff(), is(true));
+        assertThat(budgetTarget.isSkipping(), is(true));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldNotSpliceSubtreeExceedingRemainingInvocationCount() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.isMemoizeSubtrees()).thenReturn(true);
+        when(optionsMock.getMaxInvocationCount()).thenReturn(3);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        collectSubtree(budgetTarget, createInvokedMethodMock("method"), () -> {
+            budgetTarget.collect(createInvokedMethodMock("callee"));
+            budgetTarget.collect(createInvokedMethodMock("nestedCallee"));
+            budgetTarget.stepOut();
+            budgetTarget.stepOut();
+        });
+
+        budgetTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("caller"));
+        var invocation = budgetTarget.collect(createInvokedMethodMock("method"));
+
+        // Act
+        var result = budgetTarget.spliceSubtree();
+
+        // Assert
+        assertThat(result, is(false));
+        assertThat(invocation.getInvocations().isEmpty(), is(true));
+        assertThat(budgetTarget.getSubtreeHitCount(), is(0L));
+    }
+
+    @Test
+    public void spliceSubtree_ShouldCountSplicedInvocationsTowardsMaximumInvocationCount() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.isMemoizeSubtrees()).thenReturn(true);
+        when(optionsMock.getMaxInvocationCount()).thenReturn(2);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        collectSubtree(budgetTarget, createInvokedMethodMock("method"), () -> {
+            budgetTarget.collect(createInvokedMethodMock("callee"));
+            budgetTarget.stepOut();
+        });
+
+        var root = budgetTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("method"));
+        budgetTarget.spliceSubtree();
+        budgetTarget.stepOut();
+
+        // Act
+        var result = budgetTarget.collect(createInvokedMethodMock("second"));
+
+        // Assert
+        assertThat(result, is(sameInstance(root)));
+        assertThat(root.getInvocations().size(), is(1));
+        assertThat(root.isTruncated(), is(true));
+        assertThat(budgetTarget.isCutOff(), is(true));
+    }
+
+    @Test
+    public void beginRootInvocation_ShouldResetBudgetOfPreviousRootInvocation() {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.getMaxInvocationCount()).thenReturn(1);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        budgetTarget.beginRootInvocation("firstRootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("first"));
+        budgetTarget.collect(createInvokedMethodMock("second"));
+        budgetTarget.endRootInvocation();
+
+        // Act
+        var root = budgetTarget.beginRootInvocation("secondRootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("first"));
+
+        // Assert
+        assertThat(root.getInvocations().size(), is(1));
+        assertThat(root.isTruncated(), is(false));
+        assertThat(budgetTarget.isSkipping(), is(false));
+    }
+
+    @Test
+    public void stepOut_ShouldCutOffRootInvocationWhenTimeBudgetIsExceeded() throws InterruptedException {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.getRootTimeBudgetMillis()).thenReturn(1L);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        var root = budgetTarget.beginRootInvocation("rootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("first"));
+        Thread.sleep(5);
+
+        // Act
+        budgetTarget.stepOut();
+        budgetTarget.collect(createInvokedMethodMock("second"));
+
+        // Assert
+        assertThat(root.getInvocations().size(), is(1));
+        assertThat(root.isTruncated(), is(true));
+        assertThat(budgetTarget.isCutOff(), is(true));
+    }
+
+    @Test
+    public void resetDependencies_ShouldReturnNullWhenRootInvocationExceededTimeBudget() throws InterruptedException {
+        // Arrange
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.getIncrementalStateFile()).thenReturn(new File("analyzer.state"));
+        when(optionsMock.getRootTimeBudgetMillis()).thenReturn(1L);
+        var budgetTarget = new InvocationCollector(optionsMock);
+
+        budgetTarget.beginRootInvocation("rootSignature", "whenExpression", null);
+        budgetTarget.collect(createInvokedMethodMock("first"));
+        Thread.sleep(5);
+        budgetTarget.stepOut();
+        budgetTarget.endRootInvocation();
+
+        // Act
+        var result = budgetTarget.resetDependencies();
+
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(budgetTarget.resetDependencies(), is(notNullValue()));
+    }
+
+    private static InvocationCollector createMemoizingCollector() {
+        return createMemoizingCollector(new AnalysisMetrics());
+    }
+
+    private static InvocationCollector createMemoizingCollector(AnalysisMetrics metrics) {
+        var optionsMock = mock(AnalyzeOptions.class);
+        when(optionsMock.isMemoizeSubtrees()).thenReturn(true);
+        return new InvocationCollector(optionsMock, metrics);
+    }
+
+    private static void collectSubtree(InvocationCollector collector, InvokedMethod method, Runnable analyzeMethod) {
+        collector.beginRootInvocation("rootSignature", "whenExpression", null);
+        collector.collect(method);
+        collector.beginSubtree();
+        analyzeMethod.run();
+        collector.endSubtree();
+        collector.stepOut();
+        collector.endRootInvocation();
+    }
 }
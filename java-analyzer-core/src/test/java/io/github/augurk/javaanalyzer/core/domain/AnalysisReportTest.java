@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+public class AnalysisReportTest {
+    @Test
+    public void findRootInvocationsReaching_ShouldReturnRootInvocationsFromWhichMethodIsInvoked() {
+        // Arrange
+        var target = new AnalysisReport("project", "1.0");
+        var first = createRoot("Steps.when()", "Gardener.plant()");
+        var second = createRoot("Steps.otherWhen()", "Gardener.water()");
+        var third = createRoot("Steps.lastWhen()", "Gardener.plant()");
+        target.addRootInvocation(first);
+        target.addRootInvocation(second);
+        target.addRootInvocation(third);
+
+        // Act
+        var result = target.findRootInvocationsReaching("Gardener.plant()");
+
+        // Assert
+        assertThat(result, contains(sameInstance(first), sameInstance(third)));
+    }
+
+    @Test
+    public void findRootInvocationsReaching_ShouldUseRecordedSignaturesOfRootInvocation() {
+        // Arrange
+        var target = new AnalysisReport("project", "1.0");
+        var root = createRoot("Steps.when()", "Gardener.plant()");
+        root.setReachedSignatures(Set.of("Plant.grow()"));
+
+        // Act
+        target.addRootInvocation(root);
+
+        // Assert
+        assertThat(target.findRootInvocationsReaching("Plant.grow()"), contains(sameInstance(root)));
+        assertThat(target.findRootInvocationsReaching("Gardener.plant()"), is(empty()));
+    }
+
+    @Test
+    public void addRootInvocation_ShouldDropRecordedSignaturesOnceIndexed() {
+        // Arrange
+        var target = new AnalysisReport("project", "1.0");
+        var root = createRoot("Steps.when()", "Gardener.plant()");
+        root.setReachedSignatures(Set.of("Gardener.plant()"));
+
+        // Act
+        target.addRootInvocation(root);
+
+        // Assert
+        assertThat(root.getReachedSignatures(), is(nullValue()));
+        assertThat(target.getInvocationIndex().getRootInvocationIds("Gardener.plant()"), is(new int[] { 0 }));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getRootInvocations_ShouldNotAllowChangesBypassingInvocationIndex() {
+        // Arrange
+        var target = new AnalysisReport("project", "1.0");
+        target.addRootInvocation(createRoot("Steps.when()", "Gardener.plant()"));
+
+        // Act
+        target.getRootInvocations().set(0, createRoot("Steps.otherWhen()", "Gardener.water()"));
+    }
+
+    private static Invocation createRoot(String signature, String invokedSignature) {
+        var root = new Invocation(signature, "^when$");
+        root.addInvocation(new Invocation(InvocationKind.PUBLIC, invokedSignature, new String[] {}, true));
+        return root;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CompactInvocationTreeTest {
+    @Test
+    public void of_ShouldStoreInvocationsInOrder() {
+        // Arrange
+        var root = createTree();
+
+        // Act
+        var result = CompactInvocationTree.of(root, new SignatureTable()).getRoot();
+
+        // Assert
+        assertThat(result.getSignature(), equalTo("Steps.when()"));
+        assertThat(result.getKind(), is(InvocationKind.WHEN));
+        assertThat(result.regularExpressions(), contains("^when$"));
+        assertThat(result.automationTargets(), contains("Gardener.water()"));
+        assertThat(result.getInvocationCount(), is(2));
+
+        var invocations = listOf(result.invocations());
+        assertThat(invocations.get(0).getSignature(), equalTo("Gardener.plant()"));
+        assertThat(invocations.get(0).isLocal(), is(true));
+        assertThat(invocations.get(0).isTruncated(), is(true));
+        assertThat(invocations.get(0).interfaceDefinitions(), contains("Api.plant()"));
+        assertThat(listOf(invocations.get(0).invocations()).get(0).getSignature(), equalTo("Plant.grow()"));
+        assertThat(invocations.get(1).getSignature(), equalTo("Gardener.water()"));
+        assertThat(invocations.get(1).getKind(), is(InvocationKind.PRIVATE));
+        assertThat(invocations.get(1).isLocal(), is(false));
+        assertThat(invocations.get(1).regularExpressions(), is(empty()));
+    }
+
+    @Test
+    public void of_ShouldShareSignaturesBetweenTrees() {
+        // Arrange
+        var table = new SignatureTable();
+
+        // Act
+        var first = CompactInvocationTree.of(createTree(), table);
+        var second = CompactInvocationTree.of(createTree(), table);
+
+        // Assert
+        var firstInvocation = first.getRoot().invocations().iterator().next();
+        var secondInvocation = second.getRoot().invocations().iterator().next();
+        assertThat(table.size(), is(4));
+        assertThat(secondInvocation.getSignature(), is(sameInstance(firstInvocation.getSignature())));
+        assertThat(secondInvocation.interfaceDefinitions(), is(sameInstance(firstInvocation.interfaceDefinitions())));
+    }
+
+    @Test
+    public void getInvocations_ShouldCreatePlainInvocationsOfCompactTree() {
+        // Arrange
+        var target = new CompactInvocation(createTree(), new SignatureTable());
+
+        // Act
+        var result = target.getInvocations();
+
+        // Assert
+        assertThat(result.size(), is(2));
+        assertThat(result.getFirst().getSignature(), equalTo("Gardener.plant()"));
+        assertThat(result.getFirst().getInterfaceDefinitions(), arrayContaining("Api.plant()"));
+        assertThat(result.getFirst().isTruncated(), is(true));
+        assertThat(result.getFirst().getInvocations().getFirst().getSignature(), equalTo("Plant.grow()"));
+        assertThat(result.getLast().getSignature(), equalTo("Gardener.water()"));
+        assertThat(target.getAutomationTargets(), arrayContaining("Gardener.water()"));
+    }
+
+    private static Invocation createTree() {
+        var root = new Invocation("Steps.when()", "^when$");
+        var plant = new Invocation(InvocationKind.PUBLIC, "Gardener.plant()", new String[] { "Api.plant()" }, true);
+        plant.setTruncated(true);
+        plant.addInvocation(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        root.addInvocation(plant);
+        root.addInvocation(new Invocation(InvocationKind.PRIVATE, "Gardener.water()", new String[] {}, false));
+        root.setAutomationTargets(new String[] { "Gardener.water()" });
+        return root;
+    }
+
+    private static List<InvocationView> listOf(Iterable<InvocationView> invocations) {
+        List<InvocationView> list = new ArrayList<>();
+        invocations.forEach(list::add);
+        return list;
+    }
+}
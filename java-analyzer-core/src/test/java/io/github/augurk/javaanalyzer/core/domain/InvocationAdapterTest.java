@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import org.junit.Test;
+
+public class InvocationAdapterTest {
+    @Test
+    public void regularExpressions_ShouldReturnRegularExpressionsOfRootInvocation() {
+        // Arrange
+        var target = new InvocationAdapter(new Invocation("Steps.when()", "^when$"));
+
+        // Act
+        var result = target.regularExpressions();
+
+        // Assert
+        assertThat(result, contains("^when$"));
+    }
+
+    @Test
+    public void regularExpressions_ShouldReturnEmptyListForInvocationThatIsNotARootInvocation() {
+        // Arrange
+        var invocation = new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true);
+        var target = new InvocationAdapter(invocation);
+
+        // Act
+        var result = target.regularExpressions();
+
+        // Assert
+        assertThat(result, is(empty()));
+    }
+
+    @Test
+    public void interfaceDefinitions_ShouldReturnInterfaceDefinitionsOfInvocation() {
+        // Arrange
+        var invocation = new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] { "Api.grow()" }, true);
+        var target = new InvocationAdapter(invocation);
+
+        // Act
+        var result = target.interfaceDefinitions();
+
+        // Assert
+        assertThat(result, contains("Api.grow()"));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.junit.Test;
+
+public class InvocationGraphTest {
+    @Test
+    public void add_ShouldShareIdenticalSubtrees() {
+        // Arrange
+        var target = new InvocationGraph();
+        var root = createTree("Steps.when()");
+        root.addInvocation(createPlant());
+
+        // Act
+        var result = target.add(root);
+        var other = target.add(createTree("Steps.otherWhen()"));
+
+        // Assert
+        assertThat(target.size(), is(3));
+        assertThat(result.getNodes().get(0), is(sameInstance(result.getNodes().get(2))));
+        assertThat(other.getNodes().get(0), is(sameInstance(result.getNodes().get(0))));
+        assertThat(result.getNodes().get(1), is(sameInstance(other.getNodes().get(1))));
+    }
+
+    @Test
+    public void add_ShouldNotShareInvocationsWithDifferentInvocations() {
+        // Arrange
+        var target = new InvocationGraph();
+        var root = createTree("Steps.when()");
+        var truncatedPlant = createPlant();
+        truncatedPlant.getInvocations().clear();
+        root.addInvocation(truncatedPlant);
+
+        // Act
+        var result = target.add(root);
+
+        // Assert
+        assertThat(target.size(), is(4));
+        assertThat(result.getNodes().get(2), is(not(sameInstance(result.getNodes().get(0)))));
+    }
+
+    @Test
+    public void add_ShouldNumberInvocationsMadeFromNodeBeforeNode() {
+        // Arrange
+        var target = new InvocationGraph();
+
+        // Act
+        target.add(createTree("Steps.when()"));
+
+        // Assert
+        for (var node : target.getNodes()) {
+            for (var invocation : node.getNodes()) {
+                assertThat(invocation.getId(), is(lessThan(node.getId())));
+            }
+        }
+
+        assertThat(target.getNodes().get(0).getSignature(), equalTo("Plant.grow()"));
+    }
+
+    @Test
+    public void intern_ShouldInternNodesOfOtherGraphsOnce() {
+        // Arrange
+        var other = new InvocationGraph();
+        var root = other.add(createTree("Steps.when()"));
+        var target = new InvocationGraph();
+
+        // Act
+        var first = target.intern(root.getNodes().get(0));
+        var second = target.intern(root.getNodes().get(0));
+
+        // Assert
+        assertThat(first, is(not(sameInstance(root.getNodes().get(0)))));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(target.intern(first), is(sameInstance(first)));
+        assertThat(target.size(), is(2));
+    }
+
+    @Test
+    public void getInvocations_ShouldExpandSharedSubtrees() {
+        // Arrange
+        var root = createTree("Steps.when()");
+        root.addInvocation(createPlant());
+        var target = new InvocationGraph().add(root);
+
+        // Act
+        var result = target.getInvocations();
+
+        // Assert
+        assertThat(result.size(), is(3));
+        assertThat(result.getFirst().getSignature(), equalTo("Gardener.plant()"));
+        assertThat(result.getFirst().getInterfaceDefinitions(), arrayContaining("Api.plant()"));
+        assertThat(result.getFirst().getInvocations().getFirst().getSignature(), equalTo("Plant.grow()"));
+        assertThat(result.getLast().getInvocations().getFirst().getSignature(), equalTo("Plant.grow()"));
+        assertThat(result.getLast(), is(not(sameInstance(result.getFirst()))));
+        assertThat(target.getAutomationTargets(), arrayContaining("Gardener.water()"));
+    }
+
+    @Test
+    public void of_ShouldViewInvocationsOfGraphInvocationAsNodes() {
+        // Arrange
+        var target = new InvocationGraph().add(createTree("Steps.when()"));
+
+        // Act
+        var result = InvocationView.of(target);
+
+        // Assert
+        assertThat(result.getSignature(), equalTo("Steps.when()"));
+        assertThat(result.regularExpressions(), contains("^when$"));
+        assertThat(result.getInvocationCount(), is(2));
+        assertThat(result.invocations().iterator().next(), is(sameInstance(target.getNodes().get(0))));
+    }
+
+    private static Invocation createTree(String signature) {
+        var root = new Invocation(signature, "^when$");
+        root.addInvocation(createPlant());
+        root.addInvocation(new Invocation(InvocationKind.PRIVATE, "Gardener.water()", new String[] {}, false));
+        root.setAutomationTargets(new String[] { "Gardener.water()" });
+        return root;
+    }
+
+    private static Invocation createPlant() {
+        var plant = new Invocation(InvocationKind.PUBLIC, "Gardener.plant()", new String[] { "Api.plant()" }, true);
+        plant.addInvocation(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        return plant;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class InvocationIndexTest {
+    @Test
+    public void add_ShouldMapSignaturesToRootInvocationIds() {
+        // Arrange
+        var target = new InvocationIndex();
+
+        // Act
+        target.add(2, List.of("Gardener.plant()", "Plant.grow()"));
+        target.add(0, List.of("Gardener.plant()"));
+
+        // Assert
+        assertThat(target.getRootInvocationIds("Gardener.plant()"), is(new int[] { 0, 2 }));
+        assertThat(target.getRootInvocationIds("Plant.grow()"), is(new int[] { 2 }));
+        assertThat(target.getSignatures(), containsInAnyOrder("Gardener.plant()", "Plant.grow()"));
+    }
+
+    @Test
+    public void getRootInvocationIds_ShouldReturnNothingForMethodThatIsNotInvoked() {
+        // Arrange
+        var target = new InvocationIndex();
+        target.add(0, List.of("Gardener.plant()"));
+
+        // Act
+        var result = target.getRootInvocationIds("Gardener.water()");
+
+        // Assert
+        assertThat(result, is(new int[0]));
+    }
+
+    @Test
+    public void reachedSignatures_ShouldCollectInvokedMethodsWithoutRootInvocation() {
+        // Arrange
+        var root = new Invocation("Steps.when()", "^when$");
+        var plant = new Invocation(InvocationKind.PUBLIC, "Gardener.plant()", new String[] {}, true);
+        plant.addInvocation(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        root.addInvocation(plant);
+        root.addInvocation(new Invocation(InvocationKind.PRIVATE, "Gardener.water()", new String[] {}, false));
+
+        // Act
+        var result = InvocationIndex.reachedSignatures(InvocationView.of(root));
+
+        // Assert
+        assertThat(result, containsInAnyOrder("Gardener.plant()", "Plant.grow()", "Gardener.water()"));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.domain;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import org.junit.Test;
+
+public class SignatureTableTest {
+    @Test
+    public void idOf_ShouldReturnSameIdForEqualSignatures() {
+        // Arrange
+        var target = new SignatureTable();
+
+        // Act
+        int first = target.idOf(new String("Gardener.plant()"));
+        int second = target.idOf(new String("Gardener.plant()"));
+        int other = target.idOf("Gardener.water()");
+
+        // Assert
+        assertThat(second, is(first));
+        assertThat(other, is(not(first)));
+        assertThat(target.signatureOf(first), equalTo("Gardener.plant()"));
+        assertThat(target.size(), is(2));
+    }
+
+    @Test
+    public void idOf_ShouldShareCopyOfEqualArrays() {
+        // Arrange
+        var target = new SignatureTable();
+        var values = new String[] { "Api.plant()", null };
+
+        // Act
+        int first = target.idOf(values);
+        values[0] = "Api.water()";
+        int second = target.idOf(new String[] { "Api.plant()", null });
+
+        // Assert
+        assertThat(second, is(first));
+        assertThat(target.signaturesOf(first), contains("Api.plant()", null));
+        assertThat(target.signaturesOf(second), is(sameInstance(target.signaturesOf(first))));
+    }
+}
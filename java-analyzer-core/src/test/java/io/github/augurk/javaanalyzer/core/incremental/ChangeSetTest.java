@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.incremental;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChangeSetTest {
+    private static final String FINGERPRINT = "JAVA_11;[]";
+
+    private IncrementalState previous;
+    private IncrementalState current;
+
+    @Before
+    public void beforeEach() {
+        previous = new IncrementalState(FINGERPRINT);
+        current = new IncrementalState(FINGERPRINT);
+    }
+
+    @Test
+    public void between_ShouldReturnChangedAddedAndRemovedFiles() {
+        // Arrange
+        previous.put(sourceFile("Unchanged.java", 1));
+        previous.put(sourceFile("Changed.java", 1));
+        previous.put(sourceFile("Removed.java", 1));
+
+        current.put(sourceFile("Unchanged.java", 1));
+        current.put(sourceFile("Changed.java", 2));
+        current.put(sourceFile("Added.java", 1));
+
+        // Act
+        var result = ChangeSet.between(previous, current);
+
+        // Assert
+        assertThat(result.getChangedSourceFiles(), containsInAnyOrder("Changed.java", "Removed.java", "Added.java"));
+    }
+
+    @Test
+    public void between_ShouldReturnSupertypesDeclaredBeforeAndAfterTheChange() {
+        // Arrange
+        var before = sourceFile("Child.java", 1);
+        before.setTypes(List.of(new DeclaredType("Child", new File("Child.java"), List.of("Parent"), List.of())));
+        previous.put(before);
+
+        var after = sourceFile("Child.java", 2);
+        after.setTypes(List.of(new DeclaredType("Child", new File("Child.java"), List.of("Other"), List.of("Api"))));
+        current.put(after);
+
+        // Act
+        var result = ChangeSet.between(previous, current);
+
+        // Assert
+        assertThat(result.getChangedSupertypes(), containsInAnyOrder("Parent", "Other", "Api"));
+    }
+
+    @Test
+    public void affects_ShouldReturnTrueWhenDependenciesAreUnknown() {
+        // Act
+        var result = ChangeSet.between(previous, current).affects(null, name -> false);
+
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void affects_ShouldReturnTrueWhenDependingOnChangedFile() {
+        // Arrange
+        previous.put(sourceFile("Service.java", 1));
+        current.put(sourceFile("Service.java", 2));
+        var dependencies = new Dependencies(Set.of("Steps.java", "Service.java"), Set.of(), Set.of());
+
+        // Act
+        var result = ChangeSet.between(previous, current).affects(dependencies, name -> false);
+
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void affects_ShouldReturnTrueWhenUnresolvedTypeCanBeResolved() {
+        // Arrange
+        var dependencies = new Dependencies(Set.of(), Set.of("com.example.Missing"), Set.of());
+
+        // Act
+        var result = ChangeSet.between(previous, current).affects(dependencies, "com.example.Missing"::equals);
+
+        // Assert
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void affects_ShouldReturnFalseWhenDependenciesAreUnchanged() {
+        // Arrange
+        previous.put(sourceFile("Steps.java", 1));
+        previous.put(sourceFile("Service.java", 1));
+        current.put(sourceFile("Steps.java", 1));
+        current.put(sourceFile("Service.java", 2));
+        var dependencies = new Dependencies(Set.of("Steps.java"), Set.of("com.example.Missing"), Set.of("Parent"));
+
+        // Act
+        var result = ChangeSet.between(previous, current).affects(dependencies, name -> false);
+
+        // Assert
+        assertThat(result, is(false));
+    }
+
+    private static SourceFileState sourceFile(String path, int content) {
+        return new SourceFileState(path, content, content, new byte[] { (byte) content });
+    }
+}
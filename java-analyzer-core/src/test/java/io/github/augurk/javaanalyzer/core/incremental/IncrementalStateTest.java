@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.incremental;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import io.github.augurk.javaanalyzer.core.collectors.Dependencies;
+import io.github.augurk.javaanalyzer.core.domain.CompactInvocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.domain.SignatureTable;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalStateTest {
+    private static final String FINGERPRINT = "JAVA_11;[]";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void write_ShouldStoreStateThatCanBeReadAgain() throws Exception {
+        // Arrange
+        var stateFile = new File(folder.getRoot(), "state/analyzer.state");
+        var sourceFile = new SourceFileState("/project/Steps.java", 1L, 2L, new byte[] { 1, 2, 3 });
+        var root = new RestoredInvocation("Steps.when()", "^when$");
+        var child = new RestoredInvocation(InvocationKind.PUBLIC, "Service.call()", new String[] { "Api.call()" }, true);
+        root.add(child);
+        root.restoreAutomationTargets(new String[] { "Service.call()" });
+        root.restoreTruncated(true);
+
+        sourceFile.setTypes(List.of(new DeclaredType("Steps", new File("/project/Steps.java"), List.of("Base"), List.of())));
+        sourceFile.setAnalysis(List.of(root), new Dependencies(Set.of("/project/Steps.java"), Set.of("Missing"), Set.of()));
+
+        var target = new IncrementalState(FINGERPRINT);
+        target.put(sourceFile);
+
+        // Act
+        target.write(stateFile);
+        var result = IncrementalState.read(stateFile, FINGERPRINT).get("/project/Steps.java").get();
+
+        // Assert
+        assertThat(result.hasSameContent(sourceFile), is(true));
+        assertThat(result.getTypes().get(0).getQualifiedName(), equalTo("Steps"));
+        assertThat(result.getTypes().get(0).getExtendedTypes(), contains("Base"));
+        assertThat(result.getDependencies().getSourceFiles(), contains("/project/Steps.java"));
+        assertThat(result.getDependencies().getUnresolvedTypes(), contains("Missing"));
+
+        var restoredRoot = result.getRootInvocations().get(0);
+        assertThat(restoredRoot.getKind(), is(InvocationKind.WHEN));
+        assertThat(restoredRoot.getRegularExpression(), arrayContaining("^when$"));
+        assertThat(restoredRoot.getAutomationTargets(), arrayContaining("Service.call()"));
+        assertThat(restoredRoot.isTruncated(), is(true));
+
+        var restoredChild = restoredRoot.getInvocations().peek();
+        assertThat(restoredChild.getSignature(), equalTo("Service.call()"));
+        assertThat(restoredChild.isLocal(), is(true));
+        assertThat(restoredChild.getInterfaceDefinitions(), arrayContaining("Api.call()"));
+        assertThat(restoredChild.isTruncated(), is(false));
+    }
+
+    @Test
+    public void write_ShouldStoreCompactInvocationTrees() throws Exception {
+        // Arrange
+        var stateFile = new File(folder.getRoot(), "analyzer.state");
+        var sourceFile = new SourceFileState("/project/Steps.java", 1L, 2L, new byte[] { 1 });
+        var root = new RestoredInvocation("Steps.when()", "^when$");
+        root.add(new RestoredInvocation(InvocationKind.PUBLIC, "Service.call()", new String[] { "Api.call()" }, true));
+
+        sourceFile.setAnalysis(List.of(new CompactInvocation(root, new SignatureTable())), new Dependencies());
+
+        var target = new IncrementalState(FINGERPRINT);
+        target.put(sourceFile);
+
+        // Act
+        target.write(stateFile);
+        var result = IncrementalState.read(stateFile, FINGERPRINT).get("/project/Steps.java").get();
+
+        // Assert
+        var restoredRoot = result.getRootInvocations().get(0);
+        assertThat(restoredRoot.getSignature(), equalTo("Steps.when()"));
+        assertThat(restoredRoot.getRegularExpression(), arrayContaining("^when$"));
+        assertThat(restoredRoot.getInvocations().peek().getSignature(), equalTo("Service.call()"));
+        assertThat(restoredRoot.getInvocations().peek().getInterfaceDefinitions(), arrayContaining("Api.call()"));
+    }
+
+    @Test
+    public void read_ShouldReturnEmptyStateWhenFingerprintIsDifferent() throws Exception {
+        // Arrange
+        var stateFile = folder.newFile("analyzer.state");
+        var target = new IncrementalState(FINGERPRINT);
+        target.put(new SourceFileState("/project/Steps.java", 1L, 2L, new byte[] { 1 }));
+        target.write(stateFile);
+
+        // Act
+        var result = IncrementalState.read(stateFile, "JAVA_8;[]");
+
+        // Assert
+        assertThat(result.getSourceFiles().isEmpty(), is(true));
+        assertThat(result.getFingerprint(), equalTo("JAVA_8;[]"));
+    }
+
+    @Test
+    public void read_ShouldReturnEmptyStateWhenStateFileIsCorrupt() throws Exception {
+        // Arrange
+        var stateFile = folder.newFile("analyzer.state");
+        Files.write(stateFile.toPath(), new byte[] { 0x41, 0x55, 0x47, 0x53, 0, 0, 0, 1, 0, 0 });
+
+        // Act
+        var result = IncrementalState.read(stateFile, FINGERPRINT);
+
+        // Assert
+        assertThat(result.getSourceFiles().isEmpty(), is(true));
+    }
+
+    @Test
+    public void read_ShouldReturnEmptyStateWhenStateFileDoesNotExist() {
+        // Act
+        var result = IncrementalState.read(new File(folder.getRoot(), "missing.state"), FINGERPRINT);
+
+        // Assert
+        assertThat(result.getSourceFiles().isEmpty(), is(true));
+    }
+
+    @Test
+    public void of_ShouldReuseHashWhenFileIsNotModified() throws Exception {
+        // Arrange
+        var file = folder.newFile("Steps.java");
+        Files.writeString(file.toPath(), "class Steps {}");
+        var previous = new SourceFileState(file.getAbsolutePath(), file.lastModified(), file.length(), new byte[] { 7 });
+
+        // Act
+        var result = SourceFileState.of(file, previous);
+
+        // Assert
+        assertThat(result.hasSameContent(previous), is(true));
+    }
+
+    @Test
+    public void of_ShouldHashFileWhenFileIsModified() throws Exception {
+        // Arrange
+        var file = folder.newFile("Steps.java");
+        Files.writeString(file.toPath(), "class Steps {}");
+        var previous = SourceFileState.of(file, null);
+        Files.writeString(file.toPath(), "class Steps { void when() {} }");
+
+        // Act
+        var result = SourceFileState.of(file, previous);
+
+        // Assert
+        assertThat(result.hasSameContent(previous), is(false));
+        assertThat(result.getPath(), equalTo(file.getAbsolutePath()));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.core.index;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import io.github.augurk.javaanalyzer.core.FileManager;
+import io.github.augurk.javaanalyzer.core.index.TypeHierarchyIndex.DeclaredType;
+import io.github.augurk.javaanalyzer.core.utils.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeHierarchyIndexTest {
+    private static final String ANNOTATION_SOURCES_ROOT = "testClasses/annotation";
+
+    private static final String HIERARCHY_SOURCE = String.join("\n",
+        "interface Greeter { }",
+        "class Base implements Greeter { }",
+        "class Child extends Base { }",
+        "class GrandChild extends Child { }",
+        "class Other { }"
+    );
+
+    private TypeHierarchyIndex target;
+
+    @Before
+    public void beforeEach() {
+        var typeSolver = new CombinedTypeSolver();
+        typeSolver.add(new ReflectionTypeSolver(false));
+
+        StaticJavaParser.getConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        StaticJavaParser.getConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_11);
+
+        target = new TypeHierarchyIndex();
+    }
+
+    @Test
+    public void addFile_ShouldIndexTypesExtendingProvidedType() throws Exception {
+        // Arrange
+        var testFile = FileUtils.loadFileByName(ANNOTATION_SOURCES_ROOT, "ClassWithAbstractMethod.java");
+
+        // Act
+        target.addFile(testFile, StaticJavaParser.parse(testFile));
+
+        // Assert
+        List<DeclaredType> result = target.getDirectSubtypes("ParentClass");
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getQualifiedName(), equalTo("ChildClass"));
+        assertThat(result.get(0).getFile(), equalTo(testFile));
+        assertThat(result.get(0).isExtensionOf("ParentClass"), is(true));
+        assertThat(target.getTypesOf(testFile).size(), is(3));
+    }
+
+    @Test
+    public void getSubtypes_ShouldReturnDirectAndTransitiveSubtypes() {
+        // Arrange
+        target.addFile(new File("Hierarchy.java"), StaticJavaParser.parse(HIERARCHY_SOURCE));
+
+        // Act
+        List<DeclaredType> direct = target.getDirectSubtypes("Greeter");
+        List<DeclaredType> transitive = target.getSubtypes("Greeter");
+
+        // Assert
+        assertThat(qualifiedNamesOf(direct), contains("Base"));
+        assertThat(direct.get(0).isExtensionOf("Greeter"), is(false));
+        assertThat(qualifiedNamesOf(transitive), contains("Base", "Child", "GrandChild"));
+        assertThat(target.getSubtypes("Other").isEmpty(), is(true));
+    }
+
+    @Test
+    public void build_ShouldIndexAllFilesOfFileTree() {
+        // Arrange
+        var file = new File("Hierarchy.java");
+        var fileManagerMock = mock(FileManager.class);
+
+        doAnswer(invocation -> {
+            ((Consumer<File>) invocation.getArgument(0)).accept(file);
+            return null;
+        }).when(fileManagerMock).walkFileTree(any(Consumer.class));
+
+        // Act
+        var result = TypeHierarchyIndex.build(fileManagerMock, f -> Optional.of(StaticJavaParser.parse(HIERARCHY_SOURCE)));
+
+        // Assert
+        verify(fileManagerMock).walkFileTree(any());
+        assertThat(result.size(), is(5));
+        assertThat(qualifiedNamesOf(result.getDirectSubtypes("Child")), contains("GrandChild"));
+    }
+
+    private static List<String> qualifiedNamesOf(List<DeclaredType> types) {
+        return types.stream().map(DeclaredType::getQualifiedName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import io.github.augurk.javaanalyzer.core.metrics.AnalysisMetrics.RootInvocationTime;
+import io.github.augurk.javaanalyzer.core.options.MetricsFormat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AnalysisMetricsTest {
+    private AnalysisMetrics target;
+
+    @Before
+    public void BeforeEach() {
+        target = new AnalysisMetrics();
+    }
+
+    @Test
+    public void recordInvocation_ShouldCountInvocationsAndKeepMaximumDepth() {
+        // Act
+        target.recordInvocation(3);
+        target.recordInvocation(7);
+        target.recordInvocation(2);
+
+        // Assert
+        assertThat(target.getInvocationCount(), is(3L));
+        assertThat(target.getMaxDepth(), is(7));
+    }
+
+    @Test
+    public void recordResolve_ShouldCountFailedResolutions() {
+        // Act
+        target.recordResolve(10, true);
+        target.recordResolve(20, false);
+
+        // Assert
+        assertThat(target.getResolveCount(), is(2L));
+        assertThat(target.getResolveFailureCount(), is(1L));
+        assertThat(target.getResolveNanos(), is(30L));
+    }
+
+    @Test
+    public void getSlowestRootInvocations_ShouldReturnSlowestRootInvocationsFirst() {
+        // Arrange
+        target.recordRootInvocation("a()", 10);
+        target.recordRootInvocation("b()", 30);
+        target.recordRootInvocation("c()", 20);
+
+        // Act
+        var result = target.getSlowestRootInvocations(2).stream()
+            .map(RootInvocationTime::getSignature)
+            .collect(Collectors.toList());
+
+        // Assert
+        assertThat(result, is(List.of("b()", "c()")));
+    }
+
+    @Test
+    public void reset_ShouldClearAllMetrics() {
+        // Arrange
+        target.recordParse(5);
+        target.recordWalkedFile();
+        target.recordFullScan();
+        target.recordInvocation(4);
+        target.recordRootInvocation("a()", 10);
+        target.recordAnalysis(100);
+
+        // Act
+        target.reset();
+
+        // Assert
+        assertThat(target.getParseCount(), is(0L));
+        assertThat(target.getParseNanos(), is(0L));
+        assertThat(target.getWalkedFileCount(), is(0L));
+        assertThat(target.getFullScanCount(), is(0L));
+        assertThat(target.getInvocationCount(), is(0L));
+        assertThat(target.getMaxDepth(), is(0));
+        assertThat(target.getRootInvocationTimes().isEmpty(), is(true));
+        assertThat(target.getAnalysisNanos(), is(0L));
+    }
+
+    @Test
+    public void write_ShouldWriteJsonWithEscapedSignatures() throws Exception {
+        // Arrange
+        var writer = new StringWriter();
+        target.recordParse(2_000_000);
+        target.recordRootInvocation("a(\"b\\c\")", 3_000_000);
+
+        // Act
+        target.write(writer, MetricsFormat.JSON);
+
+        // Assert
+        assertThat(writer.toString(), containsString("\"parseCount\": 1,"));
+        assertThat(writer.toString(), containsString("\"parseMillis\": 2,"));
+        assertThat(writer.toString(), containsString("{ \"signature\": \"a(\\\"b\\\\c\\\")\", \"millis\": 3 }"));
+    }
+
+    @Test
+    public void write_ShouldWritePrometheusTextFormat() throws Exception {
+        // Arrange
+        var writer = new StringWriter();
+        target.recordResolve(1, false);
+        target.recordRootInvocation("a()", 500_000_000);
+        target.recordRootInvocation("b()", 250_000_000);
+
+        // Act
+        target.write(writer, MetricsFormat.PROMETHEUS);
+
+        // Assert
+        assertThat(writer.toString(), containsString("# TYPE augurk_analysis_resolve_failures_total counter\n"));
+        assertThat(writer.toString(), containsString("augurk_analysis_resolve_failures_total 1\n"));
+        assertThat(writer.toString(), containsString("augurk_analysis_root_invocation_seconds_count 2\n"));
+        assertThat(writer.toString(), containsString("augurk_analysis_root_invocation_seconds_sum 0.75\n"));
+        assertThat(writer.toString(), containsString("augurk_analysis_root_invocation_max_seconds 0.5\n"));
+    }
+
+    @Test
+    public void of_ShouldReturnMetricsAttachedToCompilationUnitOfNode() {
+        // Arrange
+        var unit = StaticJavaParser.parse("class A { void a() { } }");
+        var method = unit.findFirst(MethodDeclaration.class).orElseThrow();
+
+        // Act
+        var before = AnalysisMetrics.of(method);
+        target.attachTo(unit);
+        var after = AnalysisMetrics.of(method);
+
+        // Assert
+        assertThat(before.isPresent(), is(false));
+        assertThat(after.get(), is(sameInstance(target)));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.emptyArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryReportReaderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void read_ShouldReadReportWrittenByWriter() throws Exception {
+        // Arrange
+        var report = createReport();
+        var reportFile = new File(temporaryFolder.getRoot(), "reports/analysis.report");
+        BinaryReportWriter.write(report, reportFile);
+
+        // Act
+        var result = BinaryReportReader.read(reportFile);
+
+        // Assert
+        assertThat(result.getAnalyzedProject(), equalTo("project"));
+        assertThat(result.getVersion(), is(nullValue()));
+        assertThat(result.getTimestamp(), equalTo(report.getTimestamp()));
+        assertThat(result.getRootInvocations().size(), is(2));
+
+        var rootInvocation = result.getRootInvocations().get(0);
+        assertThat(rootInvocation.getKind(), is(InvocationKind.WHEN));
+        assertThat(rootInvocation.getSignature(), equalTo("Steps.when()"));
+        assertThat(rootInvocation.getRegularExpression(), arrayContaining("^when \u00e9\u00e9n$"));
+        assertThat(rootInvocation.getAutomationTargets(), arrayContaining("Gardener.water()"));
+        assertThat(rootInvocation.isTruncated(), is(true));
+
+        var plant = rootInvocation.getInvocations().getFirst();
+        assertThat(plant.getKind(), is(InvocationKind.PUBLIC));
+        assertThat(plant.getSignature(), equalTo("Gardener.plant()"));
+        assertThat(plant.getInterfaceDefinitions(), arrayContaining("Api.plant()"));
+        assertThat(plant.isLocal(), is(true));
+        assertThat(plant.isTruncated(), is(true));
+        assertThat(plant.getInvocations().getFirst().getSignature(), equalTo("Plant.grow()"));
+
+        var water = rootInvocation.getInvocations().getLast();
+        assertThat(water.getKind(), is(InvocationKind.PACKAGE_PRIVATE));
+        assertThat(water.isLocal(), is(false));
+        assertThat(water.getInterfaceDefinitions(), is(emptyArray()));
+        assertThat(water.getInvocations().isEmpty(), is(true));
+
+        assertThat(result.getRootInvocations().get(1).getInvocations().isEmpty(), is(true));
+    }
+
+    @Test
+    public void read_ShouldRestoreInvocationIndex() throws Exception {
+        // Arrange
+        var output = new ByteArrayOutputStream();
+        BinaryReportWriter.write(createReport(), output);
+
+        // Act
+        var result = BinaryReportReader.read(new ByteArrayInputStream(output.toByteArray()));
+
+        // Assert
+        var index = result.getInvocationIndex();
+        assertThat(index.getSignatures(), containsInAnyOrder("Gardener.plant()", "Plant.grow()", "Gardener.water()"));
+        assertThat(index.getRootInvocationIds("Gardener.plant()"), is(new int[] { 0 }));
+        assertThat(index.getRootInvocationIds("Plant.grow()"), is(new int[] { 0 }));
+        assertThat(index.getRootInvocationIds("Gardener.water()"), is(new int[] { 0 }));
+    }
+
+    @Test
+    public void read_ShouldSkipUnknownSections() throws Exception {
+        // Arrange
+        var output = new ByteArrayOutputStream();
+        BinaryReportWriter.write(createReport(), output);
+
+        var data = new DataOutputStream(output);
+        data.writeByte(99);
+        BinaryReportFormat.writeVarInt(data, 300);
+        data.write(new byte[300]);
+
+        // Act
+        var result = BinaryReportReader.read(new ByteArrayInputStream(output.toByteArray()));
+
+        // Assert
+        assertThat(result.getRootInvocations().size(), is(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_ShouldThrowWhenStreamIsNoReport() throws Exception {
+        // Act
+        BinaryReportReader.read(new ByteArrayInputStream("{\"AnalyzedProject\":\"project\"}".getBytes()));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_ShouldThrowWhenReportIsIncomplete() throws Exception {
+        // Arrange
+        var output = new ByteArrayOutputStream();
+        BinaryReportWriter.write(createReport(), output);
+        byte[] bytes = output.toByteArray();
+
+        // Act
+        BinaryReportReader.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    static AnalysisReport createReport() {
+        var report = new AnalysisReport("project", null, LocalDateTime.of(2019, 6, 1, 12, 30, 15, 123_000_000));
+        var root = new TestInvocation("Steps.when()", "^when \u00e9\u00e9n$");
+        var plant = new TestInvocation(InvocationKind.PUBLIC, "Gardener.plant()", new String[] { "Api.plant()" }, true);
+        plant.setTruncated(true);
+        plant.addInvocation(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        root.addInvocation(plant);
+        root.addInvocation(new Invocation(InvocationKind.PACKAGE_PRIVATE, "Gardener.water()", new String[] {}, false));
+        root.setAutomationTargets(new String[] { "Gardener.water()" });
+        root.setTruncated(true);
+
+        report.addRootInvocation(root);
+        report.addRootInvocation(new Invocation("Steps.otherWhen()", "^other$"));
+        return report;
+    }
+
+    private static class TestInvocation extends Invocation {
+        TestInvocation(InvocationKind kind, String signature, String[] interfaceDefinitions, boolean isLocal) {
+            super(kind, signature, interfaceDefinitions, isLocal);
+        }
+
+        TestInvocation(String signature, String whenExpression) {
+            super(signature, whenExpression);
+        }
+
+        @Override
+        protected void addInvocation(Invocation invocation) {
+            super.addInvocation(invocation);
+        }
+
+        @Override
+        protected void setTruncated(boolean truncated) {
+            super.setTruncated(truncated);
+        }
+
+        @Override
+        protected void setAutomationTargets(String[] automationTargets) {
+            super.setAutomationTargets(automationTargets);
+        }
+    }
+}
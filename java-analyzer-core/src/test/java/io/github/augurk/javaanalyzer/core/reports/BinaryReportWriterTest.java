@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.CompactInvocation;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.SignatureTable;
+import org.junit.Test;
+
+public class BinaryReportWriterTest {
+    @Test
+    public void write_ShouldWriteEveryStringOnce() throws Exception {
+        // Arrange
+        var report = BinaryReportReaderTest.createReport();
+        report.addRootInvocation(report.getRootInvocations().get(0));
+
+        // Act
+        var result = new String(write(report), StandardCharsets.ISO_8859_1);
+
+        // Assert
+        assertThat(occurrences(result, "Gardener.plant()"), is(1));
+        assertThat(occurrences(result, "Gardener.water()"), is(1));
+    }
+
+    @Test
+    public void write_ShouldWriteCompactInvocationsLikePlainInvocations() throws Exception {
+        // Arrange
+        var report = BinaryReportReaderTest.createReport();
+        var compactReport = new AnalysisReport(report.getAnalyzedProject(), report.getVersion(), report.getTimestamp());
+        var signatureTable = new SignatureTable();
+
+        for (Invocation rootInvocation : report.getRootInvocations()) {
+            compactReport.addRootInvocation(new CompactInvocation(rootInvocation, signatureTable));
+        }
+
+        // Act
+        var result = write(compactReport);
+
+        // Assert
+        assertThat(result, equalTo(write(report)));
+    }
+
+    private static byte[] write(AnalysisReport report) throws Exception {
+        var output = new ByteArrayOutputStream();
+        BinaryReportWriter.write(report, output);
+        return output.toByteArray();
+    }
+
+    private static int occurrences(String value, String part) {
+        int count = 0;
+        for (int i = value.indexOf(part); i >= 0; i = value.indexOf(part, i + 1)) {
+            count++;
+        }
+
+        return count;
+    }
+}
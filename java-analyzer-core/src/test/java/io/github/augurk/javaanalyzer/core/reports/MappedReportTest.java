@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedReportTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private AnalysisReport report;
+    private MappedReport target;
+
+    @Before
+    public void beforeEach() throws Exception {
+        report = BinaryReportReaderTest.createReport();
+        var reportFile = temporaryFolder.newFile("analysis.report");
+        BinaryReportWriter.write(report, reportFile);
+
+        target = MappedReport.open(reportFile);
+    }
+
+    @Test
+    public void open_ShouldReadHeader() {
+        // Assert
+        assertThat(target.getAnalyzedProject(), equalTo("project"));
+        assertThat(target.getVersion(), is(nullValue()));
+        assertThat(target.getTimestamp(), equalTo(report.getTimestamp()));
+        assertThat(target.getRootInvocationCount(), is(2));
+    }
+
+    @Test
+    public void getRootSignatures_ShouldReturnSignaturesInOrder() {
+        // Act
+        var result = target.getRootSignatures();
+
+        // Assert
+        assertThat(result, contains("Steps.when()", "Steps.otherWhen()"));
+    }
+
+    @Test
+    public void findRootsReaching_ShouldReturnRootsFromWhichMethodIsInvokedIndirectly() {
+        // Act
+        var result = target.findRootsReaching("Plant.grow()");
+
+        // Assert
+        assertThat(result, contains("Steps.when()"));
+    }
+
+    @Test
+    public void findRootsReaching_ShouldNotReturnRootThatIsTheMethod() {
+        // Act
+        var result = target.findRootsReaching("Steps.otherWhen()");
+
+        // Assert
+        assertThat(result, is(empty()));
+    }
+
+    @Test
+    public void findRootsReaching_ShouldReturnNothingWhenReportDoesNotContainMethod() {
+        // Act
+        var result = target.findRootsReaching("Plant.wither()");
+
+        // Assert
+        assertThat(result, is(empty()));
+    }
+
+    @Test
+    public void findRootsReaching_ShouldWalkInvocationTreesOfReportWithoutSignatureIndex() throws Exception {
+        // Arrange
+        var reportFile = temporaryFolder.newFile("unindexed.report");
+        var output = new ByteArrayOutputStream();
+        BinaryReportWriter.write(report, output);
+        Files.write(reportFile.toPath(), withoutSection(output.toByteArray(), BinaryReportFormat.SIGNATURE_INDEX));
+
+        // Act
+        var result = MappedReport.open(reportFile).findRootsReaching("Plant.grow()");
+
+        // Assert
+        assertThat(result, contains("Steps.when()"));
+    }
+
+    @Test
+    public void findRootInvocation_ShouldReadInvocationTreeOfRoot() {
+        // Act
+        var result = target.findRootInvocation("Steps.when()").orElseThrow();
+
+        // Assert
+        assertThat(result.getKind(), is(InvocationKind.WHEN));
+        assertThat(result.getAutomationTargets(), arrayContaining("Gardener.water()"));
+        assertThat(result.isTruncated(), is(true));
+
+        Invocation plant = result.getInvocations().getFirst();
+        assertThat(plant.getSignature(), equalTo("Gardener.plant()"));
+        assertThat(plant.getInterfaceDefinitions(), arrayContaining("Api.plant()"));
+        assertThat(plant.isLocal(), is(true));
+        assertThat(plant.getInvocations().getFirst().getSignature(), equalTo("Plant.grow()"));
+        assertThat(result.getInvocations().getLast().getKind(), is(InvocationKind.PACKAGE_PRIVATE));
+    }
+
+    @Test
+    public void findRootInvocation_ShouldReturnEmptyWhenReportHasNoRootWithSignature() {
+        // Act
+        var result = target.findRootInvocation("Gardener.plant()");
+
+        // Assert
+        assertThat(result.isPresent(), is(false));
+    }
+
+    @Test
+    public void getRootInvocation_ShouldReadRootAtPosition() {
+        // Act
+        var result = target.getRootInvocation(1);
+
+        // Assert
+        assertThat(result.getSignature(), equalTo("Steps.otherWhen()"));
+        assertThat(result.getRegularExpression(), arrayContaining("^other$"));
+        assertThat(result.getInvocations().isEmpty(), is(true));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRootInvocation_ShouldThrowWhenReportHasNoRootAtPosition() {
+        // Act
+        target.getRootInvocation(2);
+    }
+
+    @Test
+    public void getAutomationTargets_ShouldReturnAutomationTargetsOfAllRoots() {
+        // Act
+        var result = target.getAutomationTargets();
+
+        // Assert
+        assertThat(result, contains("Gardener.water()"));
+    }
+
+    @Test(expected = IOException.class)
+    public void open_ShouldThrowWhenFileIsNoReport() throws Exception {
+        // Arrange
+        File file = temporaryFolder.newFile("analysis.json");
+        Files.writeString(file.toPath(), "{\"AnalyzedProject\":\"project\"}");
+
+        // Act
+        MappedReport.open(file);
+    }
+
+    private static byte[] withoutSection(byte[] report, int tag) throws IOException {
+        var input = new DataInputStream(new ByteArrayInputStream(report));
+        var output = new ByteArrayOutputStream();
+        var data = new DataOutputStream(output);
+        data.writeInt(input.readInt());
+        data.writeInt(input.readInt());
+
+        for (int sectionTag = input.read(); sectionTag >= 0; sectionTag = input.read()) {
+            byte[] content = new byte[BinaryReportFormat.readVarInt(input)];
+            input.readFully(content);
+            if (sectionTag == tag) continue;
+
+            data.writeByte(sectionTag);
+            BinaryReportFormat.writeVarInt(data, content.length);
+            data.write(content);
+        }
+
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.core.reports;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.io.File;
+
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.domain.InvocationKind;
+import io.github.augurk.javaanalyzer.core.reports.ReportDifference.Type;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReportDiffTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void compare_ShouldFindNoDifferencesBetweenIdenticalReports() {
+        // Act
+        var result = ReportDiff.compare(createReport(), createReport());
+
+        // Assert
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void compare_ShouldMatchRootInvocationsBySignatureAndWhenExpression() {
+        // Arrange
+        var oldReport = createReport();
+        oldReport.addRootInvocation(new Invocation("Steps.removed()", "^removed$"));
+
+        var newReport = createReport(new Invocation("Steps.otherWhen()", "^changed expression$"));
+
+        // Act
+        var result = ReportDiff.compare(oldReport, newReport).getDifferences();
+
+        // Assert
+        assertThat(result.size(), is(3));
+        assertThat(result.get(0).toString(), equalTo("REMOVED Steps.otherWhen()"));
+        assertThat(result.get(0).getWhenExpression(), equalTo("^other$"));
+        assertThat(result.get(1).toString(), equalTo("REMOVED Steps.removed()"));
+        assertThat(result.get(2).toString(), equalTo("ADDED Steps.otherWhen()"));
+        assertThat(result.get(2).getWhenExpression(), equalTo("^changed expression$"));
+    }
+
+    @Test
+    public void compare_ShouldFindChangedInvocationsInTree() {
+        // Arrange
+        var newReport = createReport();
+        var plant = newReport.getRootInvocations().get(0).getInvocations().getFirst();
+        plant.getInvocations().add(new Invocation(InvocationKind.PUBLIC, "Plant.bloom()", new String[] {}, true));
+        newReport.getRootInvocations().get(0).getInvocations().removeLast();
+        newReport.getRootInvocations().get(0).getInvocations()
+            .add(new Invocation(InvocationKind.PRIVATE, "Gardener.water()", new String[] {}, true));
+
+        // Act
+        var result = ReportDiff.compare(createReport(), newReport).getDifferences();
+
+        // Assert
+        assertThat(result.size(), is(2));
+        assertThat(result.get(0).getType(), is(Type.ADDED));
+        assertThat(result.get(0).getPath(), contains("Steps.when()", "Gardener.plant()", "Plant.bloom()"));
+        assertThat(result.get(0).getWhenExpression(), equalTo("^when$"));
+        assertThat(result.get(1).getType(), is(Type.CHANGED));
+        assertThat(result.get(1).getPath(), contains("Steps.when()", "Gardener.water()"));
+        assertThat(result.get(1).getInvocation().isLocal(), is(true));
+    }
+
+    @Test
+    public void compare_ShouldMatchIdenticalInvocationsOnce() {
+        // Arrange
+        var oldReport = createReport();
+        var oldRoot = oldReport.getRootInvocations().get(0);
+        oldRoot.getInvocations().add(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        oldRoot.getInvocations().add(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+
+        var newReport = createReport();
+        newReport.getRootInvocations().get(0).getInvocations()
+            .add(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+
+        // Act
+        var result = ReportDiff.compare(oldReport, newReport).getDifferences();
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getType(), is(Type.REMOVED));
+        assertThat(result.get(0).getPath(), contains("Steps.when()", "Plant.grow()"));
+    }
+
+    @Test
+    public void compare_ShouldFindSameDifferencesInMappedReports() throws Exception {
+        // Arrange
+        var newReport = createReport();
+        newReport.getRootInvocations().get(0).getInvocations().getFirst().getInvocations().clear();
+        newReport.addRootInvocation(new Invocation("Steps.added()", "^added$"));
+
+        File oldReportFile = temporaryFolder.newFile("old.report");
+        File newReportFile = temporaryFolder.newFile("new.report");
+        BinaryReportWriter.write(createReport(), oldReportFile);
+        BinaryReportWriter.write(newReport, newReportFile);
+
+        // Act
+        var result = ReportDiff.compare(MappedReport.open(oldReportFile), MappedReport.open(newReportFile));
+
+        // Assert
+        assertThat(result.getDifferences().toString(),
+            equalTo(ReportDiff.compare(createReport(), newReport).getDifferences().toString()));
+        assertThat(result.getDifferences().get(0).getPath(),
+            contains("Steps.when()", "Gardener.plant()", "Plant.grow()"));
+        assertThat(result.getDifferences().get(1).getRootSignature(), equalTo("Steps.added()"));
+    }
+
+    @Test
+    public void compare_ShouldFindNoDifferencesBetweenMappedCopiesOfReport() throws Exception {
+        // Arrange
+        File oldReportFile = temporaryFolder.newFile("old.report");
+        File newReportFile = temporaryFolder.newFile("new.report");
+        BinaryReportWriter.write(createReport(), oldReportFile);
+        BinaryReportWriter.write(createReport(), newReportFile);
+
+        // Act
+        var result = ReportDiff.compare(MappedReport.open(oldReportFile), MappedReport.open(newReportFile));
+
+        // Assert
+        assertThat(result.getDifferences(), is(empty()));
+    }
+
+    private static AnalysisReport createReport() {
+        return createReport(new Invocation("Steps.otherWhen()", "^other$"));
+    }
+
+    private static AnalysisReport createReport(Invocation otherRoot) {
+        var report = new AnalysisReport("project", "1.0");
+        var root = new Invocation("Steps.when()", "^when$");
+        var plant = new Invocation(InvocationKind.PUBLIC, "Gardener.plant()", new String[] { "Api.plant()" }, true);
+        plant.getInvocations().add(new Invocation(InvocationKind.PUBLIC, "Plant.grow()", new String[] {}, true));
+        root.getInvocations().add(plant);
+        root.getInvocations().add(new Invocation(InvocationKind.PRIVATE, "Gardener.water()", new String[] {}, false));
+
+        report.addRootInvocation(root);
+        report.addRootInvocation(otherRoot);
+        return report;
+    }
+}
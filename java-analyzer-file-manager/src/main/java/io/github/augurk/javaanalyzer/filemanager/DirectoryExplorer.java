@@ -17,32 +17,139 @@
 package io.github.augurk.javaanalyzer.filemanager;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Explores a directory tree for files. Subdirectories are scanned in parallel on a dedicated pool, the files found
+ * are passed to the file handler afterwards on the calling thread, in the same order as a sequential depth-first
+ * exploration would. The file filter is called from the scanning threads.
+ */
 class DirectoryExplorer {
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryExplorer.class);
+
     private final FileHandler fileHandler;
     private final FileFilter filter;
+    private final Set<String> excludedDirectories;
 
     DirectoryExplorer(FileFilter filter, FileHandler fileHandler) {
+        this(filter, fileHandler, Collections.emptySet());
+    }
+
+    /**
+     * @param filter filter deciding which files are passed to the file handler
+     * @param fileHandler handler called for each file of interest
+     * @param excludedDirectories names of the directories that are not explored, at any depth
+     */
+    DirectoryExplorer(FileFilter filter, FileHandler fileHandler, Set<String> excludedDirectories) {
         this.filter = filter;
         this.fileHandler = fileHandler;
+        this.excludedDirectories = excludedDirectories;
     }
 
     void explore(File root) {
-        explore(0, "", root);
+        Path rootPath = root.toPath();
+        List<ExploredFile> files;
+
+        if (Files.isDirectory(rootPath)) {
+            files = scan(rootPath);
+        } else {
+            files = filter.interested(0, "", root) ? List.of(new ExploredFile(0, "", root)) : List.of();
+        }
+
+        files.forEach(file -> fileHandler.handle(file.level, file.path, file.file));
     }
 
-    private void explore(int level, String path, File file) {
-        if (file.isDirectory()) {
-            var files = file.listFiles();
-            if (files == null) return;
+    /**
+     * Scan a directory tree on a pool of its own, as the scanning threads block on file system I/O and should not
+     * hold up the threads of the common pool, which are shared with the rest of the JVM.
+     */
+    private List<ExploredFile> scan(Path rootPath) {
+        var pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        try {
+            return pool.invoke(new ExploreTask(rootPath, rootPath, 0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class ExploreTask extends RecursiveTask<List<ExploredFile>> {
+        private final Path root;
+        private final Path directory;
+        private final int level;
+
+        private ExploreTask(Path root, Path directory, int level) {
+            this.root = root;
+            this.directory = directory;
+            this.level = level;
+        }
+
+        @Override
+        protected List<ExploredFile> compute() {
+            List<Object> entries = new ArrayList<>();
+
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+                for (Path child : children) {
+                    if (Files.isDirectory(child)) {
+                        if (excludedDirectories.contains(child.getFileName().toString())) continue;
 
-            for (File child : files) {
-                explore(level + 1, path + "/" + child.getName(), child);
+                        var task = new ExploreTask(root, child, level + 1);
+                        task.fork();
+                        entries.add(task);
+                    } else {
+                        var file = new ExploredFile(level + 1, pathOf(child), child.toFile());
+                        if (filter.interested(file.level, file.path, file.file)) entries.add(file);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Unable to list directory {}", directory, e);
             }
-        } else {
-            if (filter.interested(level, path, file)) {
-                fileHandler.handle(level, path, file);
+
+            List<ExploredFile> files = new ArrayList<>();
+
+            for (Object entry : entries) {
+                if (entry instanceof ExploreTask) {
+                    files.addAll(((ExploreTask) entry).join());
+                } else {
+                    files.add((ExploredFile) entry);
+                }
             }
+
+            return files;
+        }
+
+        private String pathOf(Path file) {
+            var path = new StringBuilder();
+
+            for (Path name : root.relativize(file)) {
+                path.append('/').append(name);
+            }
+
+            return path.toString();
+        }
+    }
+
+    private static class ExploredFile {
+        private final int level;
+        private final String path;
+        private final File file;
+
+        private ExploredFile(int level, String path, File file) {
+            this.level = level;
+            this.path = path;
+            this.file = file;
         }
     }
 }
@@ -17,9 +17,13 @@
 package io.github.augurk.javaanalyzer.filemanager;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 
@@ -28,53 +32,83 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class FileManagerImpl implements FileManager {
+    /**
+     * Names of the directories that are not indexed, unless configured otherwise.
+     */
+    public static final Set<String> DEFAULT_EXCLUDED_DIRECTORIES = Set.of("target", "node_modules", ".git");
+
     private static final Logger logger = LoggerFactory.getLogger(FileManagerImpl.class);
 
     private final File projectRoot;
-    private final Map<String, File> files;
+    private final Set<String> excludedDirectories;
 
-    private boolean filesIndexed;
+    private volatile Index index;
 
     public FileManagerImpl(File projectRoot) {
+        this(projectRoot, DEFAULT_EXCLUDED_DIRECTORIES);
+    }
+
+    /**
+     * @param projectRoot root directory of the project
+     * @param excludedDirectories names of the directories that are not indexed, at any depth
+     */
+    public FileManagerImpl(File projectRoot, Set<String> excludedDirectories) {
         logger.info("Add adapter: {}", this.getClass().getCanonicalName());
 
         this.projectRoot = projectRoot;
-        files = new HashMap<>();
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
     }
 
     @Override
     public Optional<File> getFileByQualifiedName(String qualifiedName) {
-        if (!filesIndexed) {
-            indexFiles();
-        }
-
-        var file = files.get(qualifiedName);
+        var file = index().files.get(qualifiedName);
         return Optional.ofNullable(file);
     }
 
     @Override
     public void walkFileTree(Consumer<File> handler) {
-        exploreDirectory((level, path, file) -> handler.accept(file));
-        filesIndexed = true;
+        index().sourceFiles.forEach(handler);
     }
 
-    private void indexFiles() {
-        filesIndexed = true;
-        exploreDirectory((level, path, file) -> addFileToCache(path, file));
-        logger.info("Indexed Java source file, found {} files", files.size());
+    @Override
+    public synchronized void refresh() {
+        index = null;
     }
 
-    private void exploreDirectory(FileHandler handler) {
+    /**
+     * Returns the index of the project's Java source files, exploring the project directory on first use only.
+     */
+    private Index index() {
+        var current = index;
+        if (current != null) return current;
+
+        synchronized (this) {
+            if (index == null) {
+                index = indexFiles();
+            }
+
+            return index;
+        }
+    }
+
+    private Index indexFiles() {
+        var sourceFiles = new ArrayList<File>();
+        var files = new HashMap<String, File>();
+
         new DirectoryExplorer(
             (level, path, file) -> path.endsWith(Constants.JAVA_EXTENSION),
             (level, path, file) -> {
-                addFileToCache(path, file);
-                handler.handle(level, path, file);
-            }
+                sourceFiles.add(file);
+                addFileToCache(files, path, file);
+            },
+            excludedDirectories
         ).explore(projectRoot);
+
+        logger.info("Indexed Java source file, found {} files", files.size());
+        return new Index(sourceFiles, files);
     }
 
-    private void addFileToCache(String path, File file) {
+    private void addFileToCache(Map<String, File> files, String path, File file) {
         String qualifiedName = createQualifiedNameFromPath(path);
         boolean isNew = files.putIfAbsent(qualifiedName, file) == null;
         if (isNew) logger.trace("Indexed file: {}", qualifiedName);
@@ -85,4 +119,14 @@ public class FileManagerImpl implements FileManager {
         return matcher.replaceAll("$1")
             .replace("/", ".");
     }
+
+    private static class Index {
+        private final List<File> sourceFiles;
+        private final Map<String, File> files;
+
+        private Index(List<File> sourceFiles, Map<String, File> files) {
+            this.sourceFiles = Collections.unmodifiableList(sourceFiles);
+            this.files = Collections.unmodifiableMap(files);
+        }
+    }
 }
@@ -20,13 +20,19 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 import io.github.augurk.javaanalyzer.filemanager.utils.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class DirectoryExplorerTest {
     private static final String SOURCES_ROOT = "testSources/";
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void explore_shouldOnlyListFilesThatMatchFilter() throws Exception {
         // Arrange
@@ -44,4 +50,44 @@ public class DirectoryExplorerTest {
         assertThat(result.contains("Person.java"), is(true));
         assertThat(result.contains("World.java"), is(true));
     }
+
+    @Test
+    public void explore_shouldPassPathRelativeToRoot() throws Exception {
+        // Arrange
+        var result = new ArrayList<String>();
+        var target = new DirectoryExplorer(
+            (level, path, file) -> path.endsWith(".java"),
+            (level, path, file) -> result.add(level + ":" + path)
+        );
+
+        // Act
+        target.explore(FileUtils.loadFileByName(SOURCES_ROOT));
+
+        // Assert
+        assertThat(result.contains("2:/pkg/Person.java"), is(true));
+        assertThat(result.contains("2:/pkg/World.java"), is(true));
+    }
+
+    @Test
+    public void explore_shouldSkipExcludedDirectories() throws Exception {
+        // Arrange
+        folder.newFolder("src", "pkg");
+        folder.newFolder("target", "pkg");
+        folder.newFile("src/pkg/Person.java");
+        folder.newFile("target/pkg/Generated.java");
+
+        var result = new ArrayList<String>();
+        var target = new DirectoryExplorer(
+            (level, path, file) -> path.endsWith(".java"),
+            (level, path, file) -> result.add(path),
+            Set.of("target")
+        );
+
+        // Act
+        target.explore(folder.getRoot());
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.contains("/src/pkg/Person.java"), is(true));
+    }
 }
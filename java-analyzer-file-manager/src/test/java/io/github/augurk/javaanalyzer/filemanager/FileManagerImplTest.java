@@ -24,14 +24,20 @@ import static org.hamcrest.Matchers.notNullValue;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.Set;
 
 import io.github.augurk.javaanalyzer.filemanager.utils.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FileManagerImplTest {
     private static final String SOURCES_ROOT = "testSources/";
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private FileManagerImpl target;
 
     @Before
@@ -78,4 +84,77 @@ public class FileManagerImplTest {
         // Assert
         assertThat(result.isPresent(), is(false));
     }
+
+    @Test
+    public void walkFileTree_ShouldNotVisitFilesInExcludedDirectories() throws Exception {
+        // Arrange
+        folder.newFolder("src", "main", "java", "pkg");
+        folder.newFolder("target", "generated-sources", "pkg");
+        folder.newFolder("node_modules", "pkg");
+        folder.newFile("src/main/java/pkg/Person.java");
+        folder.newFile("target/generated-sources/pkg/Generated.java");
+        folder.newFile("node_modules/pkg/Module.java");
+
+        var result = new ArrayList<String>();
+        target = new FileManagerImpl(folder.getRoot());
+
+        // Act
+        target.walkFileTree(file -> result.add(file.getName()));
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0), equalTo("Person.java"));
+    }
+
+    @Test
+    public void walkFileTree_ShouldVisitFilesInDirectoriesThatAreNotExcluded() throws Exception {
+        // Arrange
+        folder.newFolder("target", "pkg");
+        folder.newFile("target/pkg/Generated.java");
+
+        var result = new ArrayList<String>();
+        target = new FileManagerImpl(folder.getRoot(), Set.of());
+
+        // Act
+        target.walkFileTree(file -> result.add(file.getName()));
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(target.getFileByQualifiedName("target.pkg.Generated").isPresent(), is(true));
+    }
+
+    @Test
+    public void walkFileTree_ShouldIterateIndexBuiltOnFirstUse() throws Exception {
+        // Arrange
+        folder.newFolder("pkg");
+        folder.newFile("pkg/Person.java");
+        target = new FileManagerImpl(folder.getRoot());
+        target.walkFileTree(file -> { });
+        folder.newFile("pkg/World.java");
+
+        var result = new ArrayList<String>();
+
+        // Act
+        target.walkFileTree(file -> result.add(file.getName()));
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(target.getFileByQualifiedName("pkg.World").isPresent(), is(false));
+    }
+
+    @Test
+    public void refresh_ShouldRebuildIndexOnNextUse() throws Exception {
+        // Arrange
+        folder.newFolder("pkg");
+        folder.newFile("pkg/Person.java");
+        target = new FileManagerImpl(folder.getRoot());
+        target.walkFileTree(file -> { });
+        folder.newFile("pkg/World.java");
+
+        // Act
+        target.refresh();
+
+        // Assert
+        assertThat(target.getFileByQualifiedName("pkg.World").isPresent(), is(true));
+    }
 }
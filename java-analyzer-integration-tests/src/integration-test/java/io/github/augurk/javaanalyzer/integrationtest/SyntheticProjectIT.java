@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.integrationtest;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import io.github.augurk.javaanalyzer.core.AnalyzerContext;
+import io.github.augurk.javaanalyzer.core.domain.AnalysisReport;
+import io.github.augurk.javaanalyzer.core.domain.Invocation;
+import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
+import io.github.augurk.javaanalyzer.core.options.JavaVersion;
+import io.github.augurk.javaanalyzer.filemanager.FileManagerImpl;
+import io.github.augurk.javaanalyzer.generator.ProjectCompiler;
+import io.github.augurk.javaanalyzer.generator.SyntheticProject;
+import io.github.augurk.javaanalyzer.generator.SyntheticProjectGenerator;
+import io.github.augurk.javaanalyzer.generator.SyntheticProjectOptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Analyzes a generated project to check the throughput and memory use of the analysis. The size of the project is
+ * small by default; a scale run over more than 10.000 files is started with, for example:
+ * <pre>
+ * mvn verify -Pintegration-test -Dit.test=SyntheticProjectIT \
+ *     -Daugurk.synthetic.stepClasses=1000 -Daugurk.synthetic.servicesPerLayer=800
+ * </pre>
+ * The optional properties {@code augurk.synthetic.minFilesPerSecond} and {@code augurk.synthetic.maxHeapMegabytes}
+ * make the test fail when the analysis is slower or uses more heap than allowed.
+ */
+public class SyntheticProjectIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticProjectIT.class);
+    private static final String PROPERTY_PREFIX = "augurk.synthetic.";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void startAnalysis_ShouldReportRootInvocationForEachWhenStep() throws Exception {
+        // Arrange
+        SyntheticProject project = generateProject(Integer.getInteger(PROPERTY_PREFIX + "stepClasses", 20),
+            Integer.getInteger(PROPERTY_PREFIX + "servicesPerLayer", 20));
+
+        AnalysisReport[] report = new AnalysisReport[1];
+        var context = createContext(project, Integer.getInteger(PROPERTY_PREFIX + "workers", 1), report);
+        resetPeakUsage();
+
+        // Act
+        long start = System.nanoTime();
+        context.startAnalysis();
+        long elapsed = System.nanoTime() - start;
+
+        // Assert
+        double filesPerSecond = project.getFileCount() / (elapsed / 1e9);
+        long heapMegabytes = peakHeapUsage() / (1024 * 1024);
+        LOGGER.info("Analyzed {} files in {} ms ({} files/s), peak heap {} MB", project.getFileCount(),
+            elapsed / 1_000_000, Math.round(filesPerSecond), heapMegabytes);
+
+        assertThat(report[0].getRootInvocations().size(), is(project.getWhenStepCount()));
+        for (Invocation rootInvocation : report[0].getRootInvocations()) {
+            assertThat(rootInvocation.getInvocations(), is(not(empty())));
+        }
+
+        String minFilesPerSecond = System.getProperty(PROPERTY_PREFIX + "minFilesPerSecond");
+        if (minFilesPerSecond != null) {
+            assertThat(filesPerSecond, greaterThanOrEqualTo(Double.parseDouble(minFilesPerSecond)));
+        }
+
+        String maxHeapMegabytes = System.getProperty(PROPERTY_PREFIX + "maxHeapMegabytes");
+        if (maxHeapMegabytes != null) {
+            assertThat(heapMegabytes, lessThanOrEqualTo(Long.parseLong(maxHeapMegabytes)));
+        }
+    }
+
+    @Test
+    public void startAnalysis_ShouldReportSameRootInvocationsWithMultipleWorkers() throws Exception {
+        // Arrange
+        SyntheticProject project = generateProject(40, 40);
+
+        AnalysisReport[] sequentialReport = new AnalysisReport[1];
+        AnalysisReport[] parallelReport = new AnalysisReport[1];
+        var sequentialContext = createContext(project, 1, sequentialReport);
+        var parallelContext = createContext(project, 4, parallelReport);
+
+        // Act
+        sequentialContext.startAnalysis();
+        parallelContext.startAnalysis();
+
+        // Assert
+        assertThat(parallelReport[0].getRootInvocations().size(), is(project.getWhenStepCount()));
+        assertThat(describe(parallelReport[0].getRootInvocations()),
+            is(describe(sequentialReport[0].getRootInvocations())));
+    }
+
+    @Test
+    public void startAnalysis_ShouldReportSameRootInvocationsForContextsAnalyzingConcurrently() throws Exception {
+        // Arrange
+        SyntheticProject project = generateProject(40, 40);
+
+        AnalysisReport[] sequentialReport = new AnalysisReport[1];
+        AnalysisReport[] firstReport = new AnalysisReport[1];
+        AnalysisReport[] secondReport = new AnalysisReport[1];
+        createContext(project, 1, sequentialReport).startAnalysis();
+        var firstContext = createContext(project, 2, firstReport);
+        var secondContext = createContext(project, 2, secondReport);
+        var executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            var first = executor.submit(() -> {
+                firstContext.startAnalysis();
+                return null;
+            });
+            var second = executor.submit(() -> {
+                secondContext.startAnalysis();
+                return null;
+            });
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        var expected = describe(sequentialReport[0].getRootInvocations());
+        assertThat(describe(firstReport[0].getRootInvocations()), is(expected));
+        assertThat(describe(secondReport[0].getRootInvocations()), is(expected));
+    }
+
+    private SyntheticProject generateProject(int stepClassCount, int servicesPerLayer) throws Exception {
+        SyntheticProjectOptions projectOptions = new SyntheticProjectOptions();
+        projectOptions.setStepClassCount(stepClassCount);
+        projectOptions.setServicesPerLayer(servicesPerLayer);
+        // Overloads inherited from an abstract base class are not followed, so only call the implemented overload
+        projectOptions.setOverloadCount(1);
+
+        Path root = folder.newFolder("project").toPath();
+        Path classes = folder.newFolder("classes").toPath();
+        SyntheticProject project = new SyntheticProjectGenerator(projectOptions).generate(root);
+        ProjectCompiler.compile(root, classes);
+        return project;
+    }
+
+    private AnalyzerContext createContext(SyntheticProject project, int workerCount, AnalysisReport[] report)
+        throws Exception {
+
+        var classes = folder.getRoot().toPath().resolve("classes");
+        var classLoader = new URLClassLoader(new URL[] { classes.toUri().toURL() }, getClass().getClassLoader());
+        var options = new AnalyzeOptions(classLoader, JavaVersion.JAVA_11, "Synthetic", "1.0", List.of());
+        options.setWorkerCount(workerCount);
+
+        return new AnalyzerContext(options, new FileManagerImpl(project.getRoot()), List.of(r -> report[0] = r));
+    }
+
+    private static List<String> describe(List<Invocation> rootInvocations) {
+        List<String> descriptions = new ArrayList<>();
+        for (Invocation rootInvocation : rootInvocations) {
+            StringBuilder description = new StringBuilder();
+            describe(rootInvocation, 0, description);
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    private static void describe(Invocation invocation, int depth, StringBuilder description) {
+        description.append("  ".repeat(depth)).append(invocation.getKind()).append(' ')
+            .append(invocation.getSignature()).append('\n');
+        for (Invocation child : invocation.getInvocations()) {
+            describe(child, depth + 1, description);
+        }
+    }
+
+    private static void resetPeakUsage() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeapUsage() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .mapToLong(pool -> pool.getPeakUsage().getUsed())
+            .sum();
+    }
+}
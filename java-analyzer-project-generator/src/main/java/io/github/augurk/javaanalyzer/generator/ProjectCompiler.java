@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles the sources of a project, so the symbol solver is able to resolve the types of the project through its
+ * class loader, just like it does for a project built by Maven.
+ */
+public final class ProjectCompiler {
+    private ProjectCompiler() {
+    }
+
+    /**
+     * Compile all Java sources below the provided directory, using the class path of the running application. The
+     * class path has to contain the libraries used by the project, such as Cucumber.
+     *
+     * @param sourceRoot directory containing the sources to compile
+     * @param outputDirectory directory the class files are written to
+     * @throws IOException when the sources can not be read or do not compile
+     */
+    public static void compile(Path sourceRoot, Path outputDirectory) throws IOException {
+        compile(sourceRoot, outputDirectory, System.getProperty("java.class.path"));
+    }
+
+    /**
+     * Compile all Java sources below the provided directory.
+     *
+     * @param sourceRoot directory containing the sources to compile
+     * @param outputDirectory directory the class files are written to
+     * @param classPath class path used to compile the sources
+     * @throws IOException when the sources can not be read or do not compile
+     */
+    public static void compile(Path sourceRoot, Path outputDirectory, String classPath) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IllegalStateException("A JDK is required to compile the project");
+
+        List<File> sources;
+        try (Stream<Path> paths = Files.walk(sourceRoot)) {
+            sources = paths.filter(path -> path.toString().endsWith(".java"))
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+        }
+
+        Files.createDirectories(outputDirectory);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            var options = List.of(
+                "-nowarn",
+                "-proc:none",
+                "-classpath", classPath,
+                "-d", outputDirectory.toString()
+            );
+
+            var task = compiler.getTask(null, fileManager, null, options, null,
+                fileManager.getJavaFileObjectsFromFiles(sources));
+
+            if (!task.call()) throw new IOException("Unable to compile project " + sourceRoot);
+        }
+    }
+}
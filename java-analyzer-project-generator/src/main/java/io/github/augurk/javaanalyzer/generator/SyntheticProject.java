@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.generator;
+
+import java.io.File;
+
+/**
+ * Project written by the {@link SyntheticProjectGenerator}.
+ */
+public class SyntheticProject {
+    private final File root;
+    private final int fileCount;
+    private final int whenStepCount;
+
+    SyntheticProject(File root, int fileCount, int whenStepCount) {
+        this.root = root;
+        this.fileCount = fileCount;
+        this.whenStepCount = whenStepCount;
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public int getWhenStepCount() {
+        return whenStepCount;
+    }
+}
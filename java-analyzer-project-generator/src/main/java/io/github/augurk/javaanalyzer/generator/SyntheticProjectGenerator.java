@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates a Cucumber project to measure how the analysis scales. The project consists of step classes declaring When
+ * steps and layers of services, see {@link SyntheticProjectOptions} for the shape of the project. The step classes are
+ * written to the test sources and the services to the main sources, each type in its own file.
+ */
+public class SyntheticProjectGenerator {
+    private static final String MAIN_SOURCES = "src/main/java";
+    private static final String TEST_SOURCES = "src/test/java";
+    private static final String BASE_PACKAGE = "synthetic";
+    private static final String STEPS_PACKAGE = BASE_PACKAGE + ".steps";
+    private static final String METHOD_NAME = "call";
+
+    private final SyntheticProjectOptions options;
+
+    public SyntheticProjectGenerator(SyntheticProjectOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Write the project to the provided directory.
+     *
+     * @param root root directory of the project
+     * @return the generated project
+     * @throws IOException when a file can not be written
+     */
+    public SyntheticProject generate(Path root) throws IOException {
+        int fileCount = 0;
+
+        for (int layer = 0; layer < options.getServiceLayers(); layer++) {
+            for (int service = 0; service < options.getServicesPerLayer(); service++) {
+                fileCount += writeService(root, layer, service);
+            }
+        }
+
+        for (int stepClass = 0; stepClass < options.getStepClassCount(); stepClass++) {
+            write(root.resolve(TEST_SOURCES), STEPS_PACKAGE, "Steps" + stepClass, stepClass(stepClass));
+            fileCount++;
+        }
+
+        int whenStepCount = options.getStepClassCount() * options.getWhenStepsPerClass();
+        return new SyntheticProject(root.toFile(), fileCount, whenStepCount);
+    }
+
+    private int writeService(Path root, int layer, int service) throws IOException {
+        Path sources = root.resolve(MAIN_SOURCES);
+        String packageName = packageOf(layer);
+        String name = "Service" + service;
+
+        if (!options.isHierarchies()) {
+            write(sources, packageName, name, serviceClass(layer, service));
+            return 1;
+        }
+
+        write(sources, packageName, name, serviceInterface(layer, name));
+        write(sources, packageName, "Abstract" + name, abstractServiceClass(layer, name));
+        write(sources, packageName, name + "Impl", serviceImplementation(layer, service, name));
+        return 3;
+    }
+
+    private String stepClass(int stepClass) {
+        var source = new StringBuilder();
+        source.append(String.format("package %s;%n%n", STEPS_PACKAGE));
+        source.append(String.format("import cucumber.api.java.en.When;%n%n"));
+        source.append(String.format("public class Steps%d {%n", stepClass));
+
+        for (int step = 0; step < options.getWhenStepsPerClass(); step++) {
+            source.append(String.format("%n    @When(\"^step %d-%d is executed$\")%n", stepClass, step));
+            source.append(String.format("    public void step%dx%d() {%n", stepClass, step));
+
+            if (options.getServiceLayers() > 0) {
+                int target = (stepClass * options.getWhenStepsPerClass() + step) % options.getServicesPerLayer();
+                source.append(variable(0, target, "service"));
+                source.append(String.format("        %s;%n", invocation("service", step, String.valueOf(step))));
+            }
+
+            source.append(String.format("    }%n"));
+        }
+
+        return source.append(String.format("}%n")).toString();
+    }
+
+    private String serviceClass(int layer, int service) {
+        var source = new StringBuilder();
+        source.append(String.format("package %s;%n%n", packageOf(layer)));
+        source.append(String.format("public class Service%d {%n", service));
+        source.append(callingOverload(layer, service, false));
+
+        for (int overload = 1; overload < options.getOverloadCount(); overload++) {
+            source.append(delegatingOverload(overload, false));
+        }
+
+        return source.append(String.format("}%n")).toString();
+    }
+
+    private String serviceInterface(int layer, String name) {
+        var source = new StringBuilder();
+        source.append(String.format("package %s;%n%n", packageOf(layer)));
+        source.append(String.format("public interface %s {%n", name));
+
+        for (int overload = 0; overload < Math.max(1, options.getOverloadCount()); overload++) {
+            source.append(String.format("    int %s(%s);%n", METHOD_NAME, parametersOf(overload)));
+        }
+
+        return source.append(String.format("}%n")).toString();
+    }
+
+    private String abstractServiceClass(int layer, String name) {
+        var source = new StringBuilder();
+        source.append(String.format("package %s;%n%n", packageOf(layer)));
+        source.append(String.format("public abstract class Abstract%s implements %s {%n", name, name));
+
+        for (int overload = 1; overload < options.getOverloadCount(); overload++) {
+            source.append(delegatingOverload(overload, true));
+        }
+
+        return source.append(String.format("}%n")).toString();
+    }
+
+    private String serviceImplementation(int layer, int service, String name) {
+        var source = new StringBuilder();
+        source.append(String.format("package %s;%n%n", packageOf(layer)));
+        source.append(String.format("public class %sImpl extends Abstract%s {%n", name, name));
+        source.append(callingOverload(layer, service, true));
+        return source.append(String.format("}%n")).toString();
+    }
+
+    /**
+     * Return the declaration of a local variable referring to a service. With hierarchies, the variable is declared
+     * using the interface of the service and initialized with its concrete class.
+     */
+    private String variable(int layer, int service, String name) {
+        String type = packageOf(layer) + ".Service" + service;
+        String implementation = options.isHierarchies() ? type + "Impl" : type;
+        return String.format("        %s %s = new %s();%n", type, name, implementation);
+    }
+
+    /**
+     * Return the first overload, which calls the services of the next layer. The calls are spread over the overloads
+     * of the called services.
+     */
+    private String callingOverload(int layer, int service, boolean override) {
+        var source = new StringBuilder(String.format("%n"));
+        if (override) source.append(String.format("    @Override%n"));
+        source.append(String.format("    public int %s(%s) {%n", METHOD_NAME, parametersOf(0)));
+        source.append(String.format("        int result = value;%n"));
+
+        if (layer + 1 < options.getServiceLayers()) {
+            for (int call = 0; call < options.getFanOut(); call++) {
+                int target = (service + call) % options.getServicesPerLayer();
+                source.append(variable(layer + 1, target, "next" + call));
+                source.append(String.format("        result += %s;%n", invocation("next" + call, call, "result")));
+            }
+        }
+
+        source.append(String.format("        return result;%n"));
+        return source.append(String.format("    }%n")).toString();
+    }
+
+    private String delegatingOverload(int overload, boolean override) {
+        var arguments = new StringBuilder(overload % 2 == 0 ? "value" : "value.length()");
+
+        for (int extra = 1; extra <= overload / 2; extra++) {
+            arguments.append(" + extra").append(extra);
+        }
+
+        var source = new StringBuilder(String.format("%n"));
+        if (override) source.append(String.format("    @Override%n"));
+        source.append(String.format("    public int %s(%s) {%n", METHOD_NAME, parametersOf(overload)));
+        source.append(String.format("        return %s(%s);%n", METHOD_NAME, arguments));
+        return source.append(String.format("    }%n")).toString();
+    }
+
+    private String parametersOf(int overload) {
+        var parameters = new StringBuilder(overload % 2 == 0 ? "int value" : "String value");
+
+        for (int extra = 1; extra <= overload / 2; extra++) {
+            parameters.append(", int extra").append(extra);
+        }
+
+        return parameters.toString();
+    }
+
+    /**
+     * Return a call of the provided variable, using the overload selected by the provided index.
+     */
+    private String invocation(String variable, int index, String value) {
+        int overload = index % Math.max(1, options.getOverloadCount());
+        var arguments = new StringBuilder(overload % 2 == 0 ? value : "String.valueOf(" + value + ")");
+
+        for (int extra = 1; extra <= overload / 2; extra++) {
+            arguments.append(", ").append(value);
+        }
+
+        return String.format("%s.%s(%s)", variable, METHOD_NAME, arguments);
+    }
+
+    private static String packageOf(int layer) {
+        return BASE_PACKAGE + ".layer" + layer;
+    }
+
+    private static void write(Path sources, String packageName, String typeName, String source) throws IOException {
+        Path directory = sources.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(typeName + ".java"), source.getBytes(StandardCharsets.UTF_8));
+    }
+}
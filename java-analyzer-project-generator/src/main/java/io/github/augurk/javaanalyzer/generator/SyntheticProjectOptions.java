@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.generator;
+
+/**
+ * Options describing the shape of a synthetic project. Every When step calls a service of the first layer, every
+ * service calls services of the next layer, up to the last layer.
+ */
+public class SyntheticProjectOptions {
+    private int stepClassCount = 10;
+    private int whenStepsPerClass = 3;
+    private int serviceLayers = 4;
+    private int servicesPerLayer = 10;
+    private int fanOut = 2;
+    private int overloadCount = 2;
+    private boolean hierarchies = true;
+
+    public int getStepClassCount() {
+        return stepClassCount;
+    }
+
+    /**
+     * Set the number of step classes. Defaults to 10.
+     *
+     * @param stepClassCount number of step classes
+     */
+    public void setStepClassCount(int stepClassCount) {
+        this.stepClassCount = stepClassCount;
+    }
+
+    public int getWhenStepsPerClass() {
+        return whenStepsPerClass;
+    }
+
+    /**
+     * Set the number of When steps declared by each step class. Defaults to 3.
+     *
+     * @param whenStepsPerClass number of When steps per step class
+     */
+    public void setWhenStepsPerClass(int whenStepsPerClass) {
+        this.whenStepsPerClass = whenStepsPerClass;
+    }
+
+    public int getServiceLayers() {
+        return serviceLayers;
+    }
+
+    /**
+     * Set the number of service layers, which is the depth of the calls made by a When step. Defaults to 4, a value
+     * of 0 generates When steps that do not call anything.
+     *
+     * @param serviceLayers number of service layers
+     */
+    public void setServiceLayers(int serviceLayers) {
+        this.serviceLayers = serviceLayers;
+    }
+
+    public int getServicesPerLayer() {
+        return servicesPerLayer;
+    }
+
+    /**
+     * Set the number of services in each layer. Defaults to 10.
+     *
+     * @param servicesPerLayer number of services per layer
+     */
+    public void setServicesPerLayer(int servicesPerLayer) {
+        this.servicesPerLayer = servicesPerLayer;
+    }
+
+    public int getFanOut() {
+        return fanOut;
+    }
+
+    /**
+     * Set the number of services of the next layer called by a service. Defaults to 2. Note that the size of the
+     * invocation tree of a When step grows exponentially with the number of layers for a fan-out above 1.
+     *
+     * @param fanOut number of calls made by each service
+     */
+    public void setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+    }
+
+    public int getOverloadCount() {
+        return overloadCount;
+    }
+
+    /**
+     * Set the number of overloads of the method of each service. Callers spread their calls over the overloads, the
+     * other overloads delegate to the first one. Defaults to 2.
+     *
+     * @param overloadCount number of overloads per service
+     */
+    public void setOverloadCount(int overloadCount) {
+        this.overloadCount = overloadCount;
+    }
+
+    public boolean isHierarchies() {
+        return hierarchies;
+    }
+
+    /**
+     * Set to true to declare each service as an interface, with an abstract class implementing the overloads and a
+     * concrete class extending it. Callers refer to services through their interfaces. Defaults to true.
+     *
+     * @param hierarchies true to generate a type hierarchy for each service
+     */
+    public void setHierarchies(boolean hierarchies) {
+        this.hierarchies = hierarchies;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SyntheticProjectGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SyntheticProjectOptions options;
+
+    @Before
+    public void BeforeEach() {
+        options = new SyntheticProjectOptions();
+        options.setStepClassCount(4);
+        options.setWhenStepsPerClass(2);
+        options.setServiceLayers(3);
+        options.setServicesPerLayer(5);
+    }
+
+    @Test
+    public void generate_ShouldWriteTypeHierarchyForEachService() throws Exception {
+        // Act
+        var result = new SyntheticProjectGenerator(options).generate(folder.getRoot().toPath());
+
+        // Assert
+        assertThat(result.getFileCount(), is(3 * 3 * 5 + 4));
+        assertThat(result.getWhenStepCount(), is(8));
+        assertThat(countJavaFiles(folder.getRoot().toPath()), is(3L * 3 * 5 + 4));
+        assertThat(Files.isRegularFile(sourceFile("src/main/java/synthetic/layer2/AbstractService4.java")), is(true));
+    }
+
+    @Test
+    public void generate_ShouldWriteSingleClassForEachServiceWithoutHierarchies() throws Exception {
+        // Arrange
+        options.setHierarchies(false);
+
+        // Act
+        var result = new SyntheticProjectGenerator(options).generate(folder.getRoot().toPath());
+
+        // Assert
+        assertThat(result.getFileCount(), is(3 * 5 + 4));
+        assertThat(countJavaFiles(folder.getRoot().toPath()), is(3L * 5 + 4));
+        assertThat(Files.isRegularFile(sourceFile("src/main/java/synthetic/layer0/Service0.java")), is(true));
+    }
+
+    @Test
+    public void generate_ShouldWriteProjectThatCompiles() throws Exception {
+        // Arrange
+        options.setOverloadCount(4);
+        options.setFanOut(3);
+        Path root = folder.newFolder("project").toPath();
+        Path classes = folder.newFolder("classes").toPath();
+
+        // Act
+        new SyntheticProjectGenerator(options).generate(root);
+        ProjectCompiler.compile(root, classes);
+
+        // Assert
+        assertThat(Files.isRegularFile(classes.resolve("synthetic/steps/Steps3.class")), is(true));
+        assertThat(Files.isRegularFile(classes.resolve("synthetic/layer2/Service4Impl.class")), is(true));
+    }
+
+    private Path sourceFile(String path) {
+        return folder.getRoot().toPath().resolve(path);
+    }
+
+    private static long countJavaFiles(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(path -> path.toString().endsWith(".java")).count();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.augurk.javaanalyzer.runners.console;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.github.augurk.javaanalyzer.core.reports.MappedReport;
+import io.github.augurk.javaanalyzer.core.reports.ReportDiff;
+import io.github.augurk.javaanalyzer.core.reports.ReportDifference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares two reports written with the --report argument and logs which When steps changed their invocation trees.
+ */
+public class DiffCommand {
+    private static final Logger logger = LoggerFactory.getLogger(DiffCommand.class);
+
+    private final File oldReportFile;
+    private final File newReportFile;
+
+    public DiffCommand(File oldReportFile, File newReportFile) {
+        this.oldReportFile = oldReportFile;
+        this.newReportFile = newReportFile;
+    }
+
+    public void run() throws IOException {
+        logger.info("Compare {} with {}", oldReportFile, newReportFile);
+        long startTime = System.nanoTime();
+
+        var oldReport = MappedReport.open(oldReportFile);
+        var newReport = MappedReport.open(newReportFile);
+        var diff = ReportDiff.compare(oldReport, newReport);
+
+        for (ReportDifference difference : diff.getDifferences()) {
+            logger.info("{} ({})", difference, difference.getWhenExpression());
+        }
+
+        logger.info("Found {} differences between {} and {} root invocations in {} ms",
+            diff.getDifferences().size(), oldReport.getRootInvocationCount(), newReport.getRootInvocationCount(),
+            (System.nanoTime() - startTime) / 1_000_000);
+    }
+}
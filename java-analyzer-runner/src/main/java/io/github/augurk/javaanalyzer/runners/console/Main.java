@@ -17,6 +17,7 @@
 package io.github.augurk.javaanalyzer.runners.console;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +26,8 @@ import io.github.augurk.javaanalyzer.core.AnalyzerContext;
 import io.github.augurk.javaanalyzer.core.Reporter;
 import io.github.augurk.javaanalyzer.core.options.AnalyzeOptions;
 import io.github.augurk.javaanalyzer.core.options.JavaVersion;
+import io.github.augurk.javaanalyzer.core.options.MetricsFormat;
+import io.github.augurk.javaanalyzer.core.reports.BinaryFileReporter;
 import io.github.augurk.javaanalyzer.filemanager.FileManagerImpl;
 import io.github.augurk.javaanalyzer.reporters.console.ConsoleReporter;
 import org.slf4j.Logger;
@@ -38,9 +41,28 @@ public class Main {
     private static final String BASE_PATH = System.getProperty("user.dir");
     private static final String PROJECT_PATH =  "\\analyzable-projects\\cucumis";
 
+    private static final String WATCH_ARGUMENT = "--watch";
+    private static final String METRICS_ARGUMENT = "--metrics=";
+    private static final String REPORT_ARGUMENT = "--report=";
+    private static final String DIFF_ARGUMENT = "--diff";
+    private static final String PROMETHEUS_EXTENSION = ".prom";
+
     private static final String LOG_HEADER_SEPARATOR = "----------------------------------------------------";
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        var arguments = new ArrayList<>(List.of(args));
+
+        if (arguments.remove(DIFF_ARGUMENT)) {
+            // Compare the reports of two earlier analyses instead of analyzing
+            if (arguments.size() != 2) throw new IllegalArgumentException("Usage: --diff <old report> <new report>");
+            new DiffCommand(new File(arguments.get(0)), new File(arguments.get(1))).run();
+            return;
+        }
+
+        boolean watch = arguments.remove(WATCH_ARGUMENT);
+        var metricsFile = removeFileArgument(arguments, METRICS_ARGUMENT);
+        var reportFile = removeFileArgument(arguments, REPORT_ARGUMENT);
+
         // CONFIGURATION
         logger.info(LOG_HEADER_SEPARATOR);
         logger.info("AUGURK JAVA ANALYZER");
@@ -48,7 +70,8 @@ public class Main {
         logger.info("Start analyzer in: {}", PROJECT_PATH);
         var projectRoot = new File(BASE_PATH, PROJECT_PATH); // NOSONAR
         var classLoader = new AugurkConsoleClassLoader(projectRoot);
-        var options = new AnalyzeOptions(classLoader, JavaVersion.JAVA_11, PROJECT_NAME, PROJECT_VERSION, createFilter(args));
+        var options = new AnalyzeOptions(classLoader, JavaVersion.JAVA_11, PROJECT_NAME, PROJECT_VERSION, createFilter(arguments));
+        configureMetrics(options, metricsFile);
 
         // INITIALIZE HEXAGON
         logger.info(LOG_HEADER_SEPARATOR);
@@ -60,6 +83,7 @@ public class Main {
 
         var reporters = new ArrayList<Reporter>();
         reporters.add(new ConsoleReporter());
+        if (reportFile != null) reporters.add(new BinaryFileReporter(reportFile));
 
         // 2. Instantiate the hexagon
         logger.info("Initialize domain");
@@ -74,11 +98,41 @@ public class Main {
         logger.info(LOG_HEADER_SEPARATOR);
         logger.info("RUN ANALYSIS");
         logger.info(LOG_HEADER_SEPARATOR);
-        app.run();
+
+        if (watch) {
+            // Keep the analyzer warm and analyze again on every change
+            new SourceWatcher(projectRoot, FileManagerImpl.DEFAULT_EXCLUDED_DIRECTORIES, analyzer).run();
+        } else {
+            app.run();
+        }
+    }
+
+    private static File removeFileArgument(List<String> args, String argument) {
+        for (var it = args.iterator(); it.hasNext();) {
+            String arg = it.next();
+
+            if (arg.startsWith(argument)) {
+                it.remove();
+                return new File(arg.substring(argument.length()));
+            }
+        }
+
+        return null;
+    }
+
+    private static void configureMetrics(AnalyzeOptions options, File metricsFile) {
+        if (metricsFile == null) return;
+
+        // A .prom file is picked up by the textfile collector of the Prometheus node exporter
+        options.setMetricsFile(metricsFile);
+        options.setMetricsFormat(metricsFile.getName().endsWith(PROMETHEUS_EXTENSION)
+            ? MetricsFormat.PROMETHEUS
+            : MetricsFormat.JSON);
+        logger.info("Write metrics to: {}", metricsFile);
     }
 
-    private static List<String> createFilter(String[] args) {
-        if (args.length == 0) return Collections.emptyList();
-        return Collections.singletonList(args[0]);
+    private static List<String> createFilter(List<String> args) {
+        if (args.isEmpty()) return Collections.emptyList();
+        return Collections.singletonList(args.get(0));
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019, Augurk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.augurk.javaanalyzer.runners.console;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.github.augurk.javaanalyzer.core.AnalyzerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps an analyzer running and analyzes the project again whenever Java source files change, or when requested by
+ * entering an empty line on the console. Entering q stops watching. The analyzer is reused between analyses, so only
+ * the changed files are parsed again.
+ */
+public class SourceWatcher {
+    private static final Logger logger = LoggerFactory.getLogger(SourceWatcher.class);
+
+    private static final String JAVA_EXTENSION = ".java";
+    private static final String QUIT_COMMAND = "q";
+    private static final long SETTLE_TIME_MILLIS = 200;
+
+    private final Path projectRoot;
+    private final Set<String> excludedDirectories;
+    private final AnalyzerContext analyzer;
+    private final Map<WatchKey, Path> directories;
+
+    private volatile boolean analysisRequested;
+    private volatile boolean quitRequested;
+
+    /**
+     * @param projectRoot root directory of the project to watch
+     * @param excludedDirectories names of the directories that are not watched, at any depth
+     * @param analyzer analyzer used for every analysis
+     */
+    public SourceWatcher(File projectRoot, Set<String> excludedDirectories, AnalyzerContext analyzer) {
+        logger.info("Add adapter: {}", this.getClass().getCanonicalName());
+
+        this.projectRoot = projectRoot.toPath();
+        this.excludedDirectories = excludedDirectories;
+        this.analyzer = analyzer;
+        this.directories = new HashMap<>();
+    }
+
+    /**
+     * Analyze the project and keep analyzing it on every change, until q is entered on the console or the thread is
+     * interrupted.
+     *
+     * @throws IOException when the project directory can not be watched
+     */
+    public void run() throws IOException {
+        try (WatchService watchService = projectRoot.getFileSystem().newWatchService()) {
+            register(watchService, projectRoot);
+            startConsoleListener();
+            analyze(Set.of());
+
+            while (!quitRequested) {
+                Set<File> changedFiles = new LinkedHashSet<>();
+                boolean changed = awaitChanges(watchService, changedFiles);
+
+                if (changed || analysisRequested) {
+                    analysisRequested = false;
+                    analyze(changedFiles);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("Stopped watching {}", projectRoot);
+    }
+
+    private void analyze(Collection<File> changedFiles) {
+        var startTime = Instant.now();
+        logger.info("Analyze project, {} source files changed", changedFiles.size());
+
+        analyzer.invalidate(changedFiles);
+        analyzer.startAnalysis();
+
+        long timeElapsed = Duration.between(startTime, Instant.now()).toMillis();
+        logger.info("Watching {} for changes, re-analyzed in {} ms", projectRoot, timeElapsed);
+    }
+
+    /**
+     * Wait for changes to Java source files. Once a change is seen, events are collected until none have arrived for
+     * a short while, so saving several files at once leads to a single analysis.
+     *
+     * @return true when Java source files or directories have been changed
+     */
+    private boolean awaitChanges(WatchService watchService, Set<File> changedFiles) throws InterruptedException {
+        WatchKey key = watchService.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        boolean changed = false;
+
+        while (key != null) {
+            changed |= collectChanges(watchService, key, changedFiles);
+            key = watchService.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        return changed;
+    }
+
+    private boolean collectChanges(WatchService watchService, WatchKey key, Set<File> changedFiles) {
+        Path directory = directories.get(key);
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || directory == null) {
+                changed = true;
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            if (path.toString().endsWith(JAVA_EXTENSION)) {
+                changedFiles.add(path.toFile());
+                changed = true;
+            } else if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                registerQuietly(watchService, path);
+                changed = true;
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private void register(WatchService watchService, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                throws IOException {
+                if (!directory.equals(projectRoot) && excludedDirectories.contains(directory.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void registerQuietly(WatchService watchService, Path directory) {
+        try {
+            register(watchService, directory);
+        } catch (IOException e) {
+            logger.warn("Unable to watch directory {}", directory, e);
+        }
+    }
+
+    private void startConsoleListener() {
+        var listener = new Thread(() -> {
+            try {
+                var reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                String line;
+
+                while ((line = reader.readLine()) != null && !QUIT_COMMAND.equalsIgnoreCase(line.trim())) {
+                    analysisRequested = true;
+                }
+
+                quitRequested = line != null;
+            } catch (IOException e) {
+                logger.warn("Unable to read from the console, only changes trigger an analysis", e);
+            }
+        }, "augurk-console-listener");
+
+        listener.setDaemon(true);
+        listener.start();
+    }
+}